@@ -34,7 +34,8 @@ public class CorsConfig {
         
         configuration.setAllowCredentials(true);
         
-        configuration.setExposedHeaders(List.of("Authorization"));
+        // Retry-After: el frontend sabe cuándo reintentar tras un 503 del bulkhead
+        configuration.setExposedHeaders(List.of("Authorization", "Retry-After"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
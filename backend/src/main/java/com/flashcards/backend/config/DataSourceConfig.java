@@ -0,0 +1,95 @@
+package com.flashcards.backend.config;
+
+import com.flashcards.backend.config.ReplicaRoutingDataSource.Balancing;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura (solo si replicas.urls tiene alguna)
+ *
+ * El DataSource de la aplicación es un LazyConnectionDataSourceProxy: no
+ * pide la conexión real hasta la primera sentencia, cuando ya sabe si la
+ * transacción es readOnly. Las readOnly van a ReplicaRoutingDataSource y el
+ * resto (y todo lo que no va en transacción) al primario de spring.datasource.
+ *
+ * Las réplicas usan el usuario, la contraseña y la configuración de Hikari
+ * del primario. Sin replicas.urls no se crea nada y Spring Boot configura
+ * el DataSource como siempre.
+ */
+@Configuration
+@ConditionalOnExpression("'${replicas.urls:}' != ''")
+public class DataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${replicas.urls}") List<String> urls,
+            @Value("${replicas.balancing:round-robin}") Balancing balancing,
+            @Value("${replicas.read-your-writes:5s}") Duration readYourWrites,
+            @Value("${replicas.retry-after:30s}") Duration retryAfter,
+            @Value("${replicas.connection-timeout:2s}") Duration connectionTimeout
+    ) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariConfig primary = poolConfig(properties, binder, "primary", properties.determineUrl());
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig replica = poolConfig(properties, binder, "replica-" + i, urls.get(i).trim());
+            replica.setMetricsTrackerFactory(metrics);
+            replica.setReadOnly(true);
+            // Una réplica caída no debe impedir arrancar ni retener la petición mucho tiempo
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replicas.add(new HikariDataSource(replica));
+        }
+
+        return new ReplicaRoutingDataSource(
+                new HikariDataSource(primary), replicas, balancing, readYourWrites, retryAfter, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.primary());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    private static HikariConfig poolConfig(DataSourceProperties properties, Binder binder, String name, String url) {
+        HikariConfig config = new HikariConfig();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(config));
+
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(properties.determineUsername());
+        config.setPassword(properties.determinePassword());
+        config.setDriverClassName(properties.determineDriverClassName());
+        return config;
+    }
+}
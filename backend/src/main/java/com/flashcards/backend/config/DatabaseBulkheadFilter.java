@@ -0,0 +1,196 @@
+package com.flashcards.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import tools.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DatabaseBulkheadFilter - Límite de peticiones /api en curso a la vez
+ *
+ * Casi todas las peticiones necesitan una conexión a la BD, así que tener
+ * más en curso que conexiones solo alarga la cola de Hikari. Con hilos
+ * virtuales (spring.threads.virtual.enabled) Tomcat ya no limita nada. Cada
+ * petición espera un permiso como mucho bulkhead.max-wait; si no llega,
+ * responde 503 con Retry-After sin tocar la BD.
+ *
+ * Va antes de Spring Security, porque la autenticación también puede leer
+ * de la BD. Por eso el 503 lleva él mismo las cabeceras CORS (CorsConfig):
+ * sin ellas el navegador no deja ver el estado ni Retry-After al frontend.
+ * Las exportaciones en streaming conservan el permiso hasta terminar de escribir.
+ *
+ * Métricas: bulkhead.active, bulkhead.wait y bulkhead.rejected en /actuator/metrics
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class DatabaseBulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public DatabaseBulkheadFilter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            CorsConfigurationSource corsConfigurationSource,
+            MeterRegistry meterRegistry,
+            @Value("${bulkhead.max-concurrent:0}") int maxConcurrent,
+            @Value("${bulkhead.max-wait:500ms}") Duration maxWait,
+            @Value("${bulkhead.retry-after:1s}") Duration retryAfter
+    ) throws SQLException {
+        // 0 = tantas como conexiones tiene el pool (del primario si hay réplicas)
+        this.maxConcurrent = maxConcurrent > 0
+                ? maxConcurrent
+                : dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+        this.corsConfigurationSource = corsConfigurationSource;
+
+        Gauge.builder("bulkhead.active", permits, p -> this.maxConcurrent - p.availablePermits())
+                .description("Peticiones /api en curso")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("bulkhead.wait")
+                .description("Espera por un permiso antes de atender la petición")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("bulkhead.rejected");
+
+        log.info("Bulkhead: {} peticiones a la vez, espera máxima {} ms", this.maxConcurrent, maxWait.toMillis());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/")
+                || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!acquire()) {
+            rejected.increment();
+            reject(request, response);
+            return;
+        }
+
+        Permit permit = new Permit();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // StreamingResponseBody: la petición sigue en otro hilo hasta completar
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        long start = System.nanoTime();
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Mismo cuerpo que ServiceUnavailableException en GlobalExceptionHandler */
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Como CorsFilter: un origen no permitido se queda en 403
+        CorsConfiguration corsConfiguration = corsConfigurationSource.getCorsConfiguration(request);
+        if (corsConfiguration != null && !corsProcessor.processRequest(corsConfiguration, request, response)) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(
+                Map.of("error", "Servidor ocupado, vuelve a intentarlo en unos segundos")));
+    }
+
+    /** Se devuelve una sola vez, acabe la petición como acabe */
+    private final class Permit implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Sigue en curso
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.flashcards.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * PrimaryReads - Lecturas que tienen que ver el último commit aunque haya réplicas
+ *
+ * Para rellenar cachés compartidas (permisos de mazos, versión de token): lo
+ * leído de una réplica que va por detrás se serviría a todos los usuarios
+ * hasta que caduque. Dentro de una transacción readOnly (que va a una
+ * réplica) o fuera de transacción, la lectura se hace en una transacción
+ * propia de escritura, que va al primario. Si la transacción actual ya usa
+ * el primario (escritura, leer tus escrituras o réplicas caídas) se lee en
+ * ella, sin pedir una segunda conexión al mismo pool. Sin réplicas no cambia nada.
+ */
+@Component
+public class PrimaryReads {
+
+    /** Nombre de la transacción propia; no cuenta como escritura para leer tus escrituras */
+    static final String TRANSACTION_NAME = PrimaryReads.class.getName();
+
+    private final ReplicaRoutingDataSource routing;
+    private final TransactionTemplate primary;
+
+    public PrimaryReads(
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<ReplicaRoutingDataSource> routing
+    ) {
+        this.routing = routing.getIfAvailable();
+        this.primary = new TransactionTemplate(transactionManager);
+        this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primary.setName(TRANSACTION_NAME);
+    }
+
+    public <T> T read(Supplier<T> query) {
+        if (routing == null || routing.readsFromPrimary() || inReadWriteTransaction()) {
+            return query.get();
+        }
+        return primary.execute(status -> query.get());
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
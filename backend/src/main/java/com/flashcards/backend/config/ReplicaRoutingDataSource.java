@@ -0,0 +1,212 @@
+package com.flashcards.backend.config;
+
+import com.flashcards.backend.security.UserPrincipal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReplicaRoutingDataSource - Conexiones de solo lectura repartidas entre réplicas
+ *
+ * Es el DataSource de lectura de DataSourceConfig: las transacciones
+ * readOnly piden aquí su conexión. Elige réplica por turno (round-robin) o
+ * la de menos conexiones en uso (least-loaded). Si una réplica no da
+ * conexión se prueba la siguiente y no se vuelve a intentar hasta pasado
+ * retryAfter; sin ninguna disponible, la lectura va al primario.
+ *
+ * Leer tus escrituras: cuando un usuario confirma una transacción de
+ * escritura, sus lecturas van al primario durante readYourWrites, para que
+ * no vea datos anteriores a su cambio mientras la réplica se pone al día.
+ * Se guarda en memoria: con varias instancias cada una lleva sus usuarios.
+ *
+ * Métricas: datasource.reads{target="replica-0|...|primary"} y datasource.replica.failures
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements TransactionExecutionListener, Closeable {
+
+    public enum Balancing { ROUND_ROBIN, LEAST_LOADED }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final long retryAfterNanos;
+
+    private final Cache<UUID, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryReads;
+    private final Counter failures;
+
+    public ReplicaRoutingDataSource(
+            HikariDataSource primary,
+            List<HikariDataSource> replicas,
+            Balancing balancing,
+            Duration readYourWrites,
+            Duration retryAfter,
+            MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(pool -> new Replica(pool, meterRegistry.counter("datasource.reads", "target", pool.getPoolName())))
+                .toList();
+        this.balancing = balancing;
+        this.retryAfterNanos = retryAfter.toNanos();
+
+        this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWrites)
+                .build();
+
+        this.primaryReads = meterRegistry.counter("datasource.reads", "target", "primary");
+        this.failures = meterRegistry.counter("datasource.replica.failures");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!wroteRecently(currentUserId())) {
+            for (Replica replica : candidates()) {
+                try {
+                    Connection connection = replica.pool().getConnection();
+                    replica.reads().increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.markDown(System.nanoTime() + retryAfterNanos);
+                    failures.increment();
+                    log.warn("Réplica {} sin conexión, se reintenta en {} s: {}",
+                            replica.pool().getPoolName(), retryAfterNanos / 1_000_000_000, e.getMessage());
+                }
+            }
+        }
+
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Las credenciales son las de la configuración");
+    }
+
+    /** Tras confirmar una transacción de escritura, el usuario lee del primario un rato */
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (recentWriters == null || commitFailure != null
+                || transaction.isReadOnly() || !transaction.isNewTransaction()
+                || PrimaryReads.TRANSACTION_NAME.equals(transaction.getTransactionName())) {
+            return;
+        }
+
+        UUID userId = currentUserId();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /** Si una lectura del usuario actual iría ahora al primario (leer tus escrituras o réplicas caídas) */
+    boolean readsFromPrimary() {
+        if (wroteRecently(currentUserId())) {
+            return true;
+        }
+        long now = System.nanoTime();
+        return replicas.stream().noneMatch(replica -> replica.isUp(now));
+    }
+
+    /** El primario, para todo lo que no es una transacción readOnly */
+    HikariDataSource primary() {
+        return primary;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool().close());
+        primary.close();
+    }
+
+    /** Réplicas disponibles en el orden en que se prueban */
+    private List<Replica> candidates() {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        long now = System.nanoTime();
+
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUp(now)) {
+                candidates.add(replica);
+            }
+        }
+
+        // Orden estable: a igual carga se mantiene el turno
+        if (balancing == Balancing.LEAST_LOADED) {
+            candidates.sort(Comparator.comparingInt(Replica::activeConnections));
+        }
+        return candidates;
+    }
+
+    private boolean wroteRecently(UUID userId) {
+        return userId != null && recentWriters != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.id()
+                : null;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter reads;
+        private volatile long downUntil;
+
+        Replica(HikariDataSource pool, Counter reads) {
+            this.pool = pool;
+            this.reads = reads;
+        }
+
+        HikariDataSource pool() {
+            return pool;
+        }
+
+        Counter reads() {
+            return reads;
+        }
+
+        boolean isUp(long now) {
+            return downUntil == 0 || now - downUntil >= 0;
+        }
+
+        void markDown(long until) {
+            downUntil = until;
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean pool = this.pool.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+    }
+}
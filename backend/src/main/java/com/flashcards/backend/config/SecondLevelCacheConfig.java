@@ -0,0 +1,117 @@
+package com.flashcards.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * SecondLevelCacheConfig - Caché de segundo nivel de Hibernate (perfil l2cache)
+ *
+ * Guarda en memoria las entidades User y Deck leídas por id y la búsqueda
+ * de usuario por email (natural-id), para no ir a la BD en /users/me, el
+ * login o al editar un mazo. Cada región es una caché Caffeine acotada por
+ * tamaño y con TTL (hibernate-cache.* en application.yml).
+ *
+ * Sin el perfil no hay caché: application.yml la deja apagada. Con réplicas,
+ * las transacciones readOnly leen de la caché pero no la rellenan: lo que
+ * leen de una réplica puede ir por detrás del primario.
+ *
+ * Métricas: cache.gets{cache="users|users-by-email|decks"} en /actuator/metrics
+ */
+@Configuration
+@Profile("l2cache")
+@Slf4j
+public class SecondLevelCacheConfig {
+
+    /** Regiones de @Cache y @NaturalIdCache en User y Deck */
+    private static final List<String> REGIONS = List.of("users", "users-by-email", "decks");
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${hibernate-cache.max-size:10000}") long maxSize,
+            @Value("${hibernate-cache.ttl:10m}") Duration ttl
+    ) {
+        // URI propia: cada contexto de Spring tiene sus regiones aunque compartan JVM (tests)
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("flashcards-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStatisticsEnabled(true);
+
+            Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+
+        log.info("Caché de segundo nivel: regiones {}, {} entradas y {} s como máximo",
+                REGIONS, maxSize, ttl.toSeconds());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            // Una región sin caché creada arriba es un error, no una caché sin límites
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    /**
+     * Con réplicas, las transacciones readOnly leen de la caché sin guardar (CacheStoreMode.BYPASS):
+     * una réplica atrasada no deja en la caché (para todos) un mazo ya cambiado.
+     * Como propiedad de la sesión y no con setCacheStoreMode: find() solo mira las propiedades
+     */
+    @Bean
+    @ConditionalOnExpression("'${replicas.urls:}' != ''")
+    public TransactionExecutionListener replicaReadsDoNotFillSecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+                if (beginFailure != null || !transaction.isReadOnly() || !transaction.isNewTransaction()) {
+                    return;
+                }
+                if (TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder) {
+                    holder.getEntityManager().setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+                }
+            }
+        };
+    }
+}
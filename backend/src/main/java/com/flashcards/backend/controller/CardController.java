@@ -1,19 +1,35 @@
 package com.flashcards.backend.controller;
 
+import com.flashcards.backend.dto.request.BulkCardDeleteRequest;
+import com.flashcards.backend.dto.request.BulkCardRequest;
+import com.flashcards.backend.dto.request.BulkCardUpdateRequest;
+import com.flashcards.backend.dto.request.CardExportFormat;
 import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.response.BulkCardMutationResponse;
+import com.flashcards.backend.dto.response.BulkCardResponse;
 import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.dto.response.DuplicateCardGroupResponse;
+import com.flashcards.backend.model.DeckVersion;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardExportService;
 import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
 
 import jakarta.validation.Valid;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -31,7 +47,12 @@ import java.util.UUID;
 @Slf4j
 public class CardController {
 
+    // Respuestas por usuario: el cliente guarda la copia pero revalida siempre
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final CardService cardService;
+    private final CardExportService cardExportService;
+    private final DeckService deckService;
 
     /**
      * POST /api/decks/{deckId}/cards
@@ -44,39 +65,230 @@ public class CardController {
      *   "back": "La tasa de cambio instantánea: $f'(x) = \\lim_{h \\to 0} \\frac{f(x+h)-f(x)}{h}$"
      * }
      *
+     * Query params (opcionales):
+     * - dedup: true para no crearla si el mazo ya tiene una tarjeta con el
+     *   mismo contenido (sin distinguir mayúsculas ni espacios)
+     *
      * Response 201 Created: CardResponse
+     * Response 409 Conflict: Tarjeta repetida (solo con dedup=true)
      */
     @PostMapping
     public ResponseEntity<CardResponse> createCard(
             @PathVariable UUID deckId,
             @Valid @RequestBody CardRequest request,
-            Authentication authentication
+            @RequestParam(defaultValue = "false") boolean dedup,
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("POST /api/decks/{}/cards - Usuario: {}", deckId, userEmail);
+        log.debug("POST /api/decks/{}/cards - Usuario: {}, dedup: {}", deckId, principal.id(), dedup);
 
-        CardResponse response = cardService.createCard(deckId, request, userEmail);
+        CardResponse response = cardService.createCard(deckId, request, dedup, principal);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * POST /api/decks/{deckId}/cards/bulk
+     *
+     * Crear muchas tarjetas en una sola petición (importaciones).
+     * Solo el propietario puede añadir tarjetas. Máximo cards.bulk.max-cards.
+     *
+     * Request body: BulkCardRequest
+     * {
+     *   "cards": [ { "front": "hola", "back": "hello" }, ... ]
+     * }
+     *
+     * Las tarjetas inválidas no se insertan y se informan por posición.
+     * Con dedup=true tampoco las que ya existen en el mazo o se repiten en la
+     * petición (reimportar el mismo fichero no crea nada nuevo).
+     *
+     * Response 201 Created: BulkCardResponse (al menos una tarjeta creada)
+     * Response 200 OK: BulkCardResponse (todas las válidas eran duplicados)
+     * Response 400: Ninguna tarjeta válida, lista vacía o demasiadas tarjetas
+     * Response 403: No eres el propietario
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCardResponse> createCards(
+            @PathVariable UUID deckId,
+            @Valid @RequestBody BulkCardRequest request,
+            @RequestParam(defaultValue = "false") boolean dedup,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("POST /api/decks/{}/cards/bulk - Usuario: {}, tarjetas: {}, dedup: {}",
+                deckId, principal.id(), request.cards().size(), dedup);
+
+        BulkCardResponse response = cardService.createCards(deckId, request.cards(), dedup, principal);
+        HttpStatus status = response.created() > 0 ? HttpStatus.CREATED
+                : response.skipped() > 0 ? HttpStatus.OK
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * PATCH /api/decks/{deckId}/cards/bulk
+     *
+     * Editar muchas tarjetas del mazo en una sola petición y una sola
+     * transacción. Solo el propietario puede editar. Máximo cards.bulk.max-cards.
+     *
+     * Request body: BulkCardUpdateRequest
+     * {
+     *   "cards": [ { "id": "uuid...", "front": "hola" }, { "id": "uuid...", "back": "bye" } ]
+     * }
+     *
+     * front/back ausentes no se cambian. Los cambios inválidos no se aplican.
+     *
+     * Response 200 OK: BulkCardMutationResponse (UPDATED / NOT_FOUND / INVALID por tarjeta)
+     * Response 400: Lista vacía o demasiadas tarjetas
+     * Response 403: No eres el propietario
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkCardMutationResponse> updateCards(
+            @PathVariable UUID deckId,
+            @Valid @RequestBody BulkCardUpdateRequest request,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("PATCH /api/decks/{}/cards/bulk - Usuario: {}, tarjetas: {}", deckId, principal.id(), request.cards().size());
+
+        return ResponseEntity.ok(cardService.updateCards(deckId, request.cards(), principal));
+    }
+
+    /**
+     * DELETE /api/decks/{deckId}/cards/bulk
+     *
+     * Eliminar muchas tarjetas del mazo en una sola petición y una sola
+     * transacción. Solo el propietario puede eliminar. Máximo cards.bulk.max-cards.
+     *
+     * Request body: BulkCardDeleteRequest
+     * {
+     *   "ids": [ "uuid...", "uuid..." ]
+     * }
+     *
+     * Response 200 OK: BulkCardMutationResponse (DELETED / NOT_FOUND / INVALID por id)
+     * Response 400: Lista vacía o demasiadas tarjetas
+     * Response 403: No eres el propietario
+     */
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkCardMutationResponse> deleteCards(
+            @PathVariable UUID deckId,
+            @Valid @RequestBody BulkCardDeleteRequest request,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("DELETE /api/decks/{}/cards/bulk - Usuario: {}, tarjetas: {}", deckId, principal.id(), request.ids().size());
+
+        return ResponseEntity.ok(cardService.deleteCards(deckId, request.ids(), principal));
+    }
+
     /**
      * GET /api/decks/{deckId}/cards
      *
-     * Listar todas las tarjetas del mazo.
+     * Listar las tarjetas del mazo.
      * Accesible si eres propietario o el mazo es público.
      *
-     * Response 200 OK: List<CardResponse>
+     * Query params (opcionales):
+     * - size: Tamaño de página (default: 20, max: 100)
+     * - cursor: Cursor de la página anterior (vacío = primera página)
+     * - includeTotal: true para incluir totalElements (de card_count, sin COUNT)
+     *
+     * Sin size ni cursor devuelve el mazo completo (List<CardResponse>), como
+     * antes. Con cualquiera de los dos pagina por cursor en orden de creación:
+     * la primera página de un mazo de 100.000 tarjetas cuesta lo mismo que la
+     * de uno de 10.
+     *
+     * GET condicional con la versión del contenido del mazo: el 304 se decide
+     * sin cargar ni serializar ninguna tarjeta.
+     *
+     * Ejemplos:
+     * GET /api/decks/{deckId}/cards?size=50
+     * GET /api/decks/{deckId}/cards?cursor=MjAyNC0wMi0xMF...&size=50
+     * GET /api/decks/{deckId}/cards?size=50&includeTotal=true
+     *
+     * Response 200 OK: List<CardResponse> o CursorPageResponse<CardResponse>
+     * Response 304 Not Modified: Sin cambios desde la versión del cliente
+     * Response 400: Cursor inválido
      */
     @GetMapping
-    public ResponseEntity<List<CardResponse>> getCards(
+    public ResponseEntity<?> getCards(
             @PathVariable UUID deckId,
-            Authentication authentication
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest request
     ) {
-        String userEmail = authentication.getName();
-        log.debug("GET /api/decks/{}/cards - Usuario: {}", deckId, userEmail);
+        log.debug("GET /api/decks/{}/cards - Usuario: {}, size: {}, cursor: {}", deckId, principal.id(), size, cursor);
 
-        List<CardResponse> response = cardService.getCards(deckId, userEmail);
-        return ResponseEntity.ok(response);
+        DeckVersion version = deckService.getDeckVersion(deckId, principal);
+        String etag = version.etag("cards");
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+
+        Object response;
+        if (size == null && cursor == null) {
+            response = cardService.getCards(deckId, principal);
+        } else {
+            int pageSize = Math.min(Math.max(size != null ? size : 20, 1), 100);
+            response = cardService.getCardsByCursor(deckId, cursor, pageSize, includeTotal, principal);
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .lastModified(version.lastModified())
+                .body(response);
+    }
+
+    /**
+     * GET /api/decks/{deckId}/cards/export?format=ndjson|csv
+     *
+     * Exportar todas las tarjetas del mazo en streaming (memoria constante
+     * aunque el mazo tenga cientos de miles de tarjetas).
+     * Accesible si eres propietario o el mazo es público.
+     *
+     * - ndjson (default): un CardResponse por línea
+     * - csv: id,front,back,createdAt,updatedAt
+     *
+     * Response 200 OK: Fichero adjunto deck-{deckId}.{ndjson|csv}
+     * Response 400: Formato no soportado
+     * Response 404: Deck no encontrado o sin permiso
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCards(
+            @PathVariable UUID deckId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("GET /api/decks/{}/cards/export - Usuario: {}, formato: {}", deckId, principal.id(), format);
+
+        CardExportFormat exportFormat = CardExportFormat.from(format);
+        StreamingResponseBody body = cardExportService.exportCards(deckId, exportFormat, principal);
+
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("deck-" + deckId + "." + exportFormat.extension())
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    /**
+     * GET /api/decks/{deckId}/cards/duplicates
+     *
+     * Tarjetas repetidas del mazo (mismo frente y reverso sin distinguir
+     * mayúsculas ni espacios), agrupadas: la más antigua y sus copias.
+     * Accesible si eres propietario o el mazo es público.
+     *
+     * Response 200 OK: List<DuplicateCardGroupResponse> (vacía si no hay)
+     * Response 404: Deck no encontrado o sin permiso
+     */
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<DuplicateCardGroupResponse>> getDuplicates(
+            @PathVariable UUID deckId,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("GET /api/decks/{}/cards/duplicates - Usuario: {}", deckId, principal.id());
+
+        return ResponseEntity.ok(cardService.getDuplicates(deckId, principal));
     }
 
     /**
@@ -85,20 +297,34 @@ public class CardController {
      * Obtener una tarjeta específica.
      * Accesible si eres propietario o el mazo es público.
      *
+     * GET condicional con la versión del contenido del mazo (cualquier cambio
+     * en el mazo invalida la copia de sus tarjetas).
+     *
      * Response 200 OK: CardResponse
+     * Response 304 Not Modified: Sin cambios desde la versión del cliente
      * Response 404: Tarjeta no encontrada
      */
     @GetMapping("/{cardId}")
     public ResponseEntity<CardResponse> getCard(
             @PathVariable UUID deckId,
             @PathVariable UUID cardId,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest request
     ) {
-        String userEmail = authentication.getName();
-        log.debug("GET /api/decks/{}/cards/{} - Usuario: {}", deckId, cardId, userEmail);
+        log.debug("GET /api/decks/{}/cards/{} - Usuario: {}", deckId, cardId, principal.id());
 
-        CardResponse response = cardService.getCard(deckId, cardId, userEmail);
-        return ResponseEntity.ok(response);
+        DeckVersion version = deckService.getDeckVersion(deckId, principal);
+        String etag = version.etag("card");
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+
+        CardResponse response = cardService.getCard(deckId, cardId, principal);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .lastModified(version.lastModified())
+                .body(response);
     }
 
     /**
@@ -116,12 +342,11 @@ public class CardController {
             @PathVariable UUID deckId,
             @PathVariable UUID cardId,
             @Valid @RequestBody CardRequest request,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("PUT /api/decks/{}/cards/{} - Usuario: {}", deckId, cardId, userEmail);
+        log.debug("PUT /api/decks/{}/cards/{} - Usuario: {}", deckId, cardId, principal.id());
 
-        CardResponse response = cardService.updateCard(deckId, cardId, request, userEmail);
+        CardResponse response = cardService.updateCard(deckId, cardId, request, principal);
         return ResponseEntity.ok(response);
     }
 
@@ -138,12 +363,11 @@ public class CardController {
     public ResponseEntity<Void> deleteCard(
             @PathVariable UUID deckId,
             @PathVariable UUID cardId,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("DELETE /api/decks/{}/cards/{} - Usuario: {}", deckId, cardId, userEmail);
+        log.debug("DELETE /api/decks/{}/cards/{} - Usuario: {}", deckId, cardId, principal.id());
 
-        cardService.deleteCard(deckId, cardId, userEmail);
+        cardService.deleteCard(deckId, cardId, principal);
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,18 +2,27 @@ package com.flashcards.backend.controller;
 
 import com.flashcards.backend.dto.request.DeckRequest;
 import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.dto.response.CursorPageResponse;
+import com.flashcards.backend.dto.response.DeckBundleResponse;
 import com.flashcards.backend.dto.response.DeckResponse;
 import com.flashcards.backend.dto.response.PageResponse;
+import com.flashcards.backend.model.DeckSnapshot;
+import com.flashcards.backend.model.DeckVersion;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.DeckBundleService;
 import com.flashcards.backend.service.DeckService;
+import com.flashcards.backend.service.PublicCatalog;
 
 import jakarta.validation.Valid;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,8 +33,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -41,7 +52,12 @@ import java.util.UUID;
 @Slf4j
 public class DeckController {
 
+    // Respuestas por usuario: el cliente guarda la copia pero revalida siempre
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final DeckService deckService;
+    private final DeckBundleService deckBundleService;
+    private final PublicCatalog publicCatalog;
 
     /**
      * POST /api/decks
@@ -73,18 +89,42 @@ public class DeckController {
      * }
      * 
      * @param request - Datos del mazo
-     * @param authentication - Usuario autenticado (inyectado por Spring)
+     * @param principal - Usuario autenticado (inyectado por Spring)
      * @return DeckResponse
      */
     @PostMapping
     public ResponseEntity<DeckResponse> createDeck(
             @Valid @RequestBody DeckRequest request,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("POST /api/decks - Usuario: {}", userEmail);
+        log.debug("POST /api/decks - Usuario: {}", principal.id());
 
-        DeckResponse response = deckService.createDeck(request, userEmail);
+        DeckResponse response = deckService.createDeck(request, principal);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * POST /api/decks/{id}/fork
+     * 
+     * Copiar un mazo (propio o público) con todas sus tarjetas a tu cuenta.
+     * La copia es privada y se hace entera en la BD: un mazo de 100.000
+     * tarjetas se copia en segundos.
+     * 
+     * Response 201 Created: DeckResponse de la copia
+     * Response 404: Deck no encontrado o no visible
+     * 
+     * @param id - ID del mazo original
+     * @param principal - Usuario autenticado
+     * @return DeckResponse
+     */
+    @PostMapping("/{id}/fork")
+    public ResponseEntity<DeckResponse> forkDeck(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("POST /api/decks/{}/fork - Usuario: {}", id, principal.id());
+
+        DeckResponse response = deckService.forkDeck(id, principal);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -97,23 +137,86 @@ public class DeckController {
      * - Eres el propietario, O
      * - El mazo es público
      * 
+     * GET condicional: responde con ETag y Last-Modified de la versión del
+     * contenido del mazo. Con If-None-Match / If-Modified-Since vigentes se
+     * decide el 304 con una sola lectura por clave primaria, sin proyectar el mazo.
+     * 
      * Response 200 OK: DeckResponse
+     * Response 304 Not Modified: Sin cambios desde la versión del cliente
      * Response 404: Deck no encontrado o sin permiso
      * 
      * @param id - ID del mazo
-     * @param authentication - Usuario autenticado
+     * @param principal - Usuario autenticado
+     * @param request - Cabeceras condicionales de la petición
      * @return DeckResponse
      */
     @GetMapping("/{id}")
     public ResponseEntity<DeckResponse> getDeckById(
             @PathVariable UUID id,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest request
     ) {
-        String userEmail = authentication.getName();
-        log.debug("GET /api/decks/{} - Usuario: {}", id, userEmail);
+        log.debug("GET /api/decks/{} - Usuario: {}", id, principal.id());
 
-        DeckResponse response = deckService.getDeckById(id, userEmail);
-        return ResponseEntity.ok(response);
+        // La versión se lee antes que el contenido: si cambia entre medias el
+        // cliente se queda con un ETag antiguo y recibe un 200 la próxima vez
+        DeckVersion version = deckService.getDeckVersion(id, principal);
+        String etag = version.etag("deck");
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+
+        DeckResponse response = deckService.getDeckById(id, principal);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .lastModified(version.lastModified())
+                .body(response);
+    }
+
+    /**
+     * GET /api/decks/{id}/bundle?size=50
+     * 
+     * Mazo y primera página de sus tarjetas en una sola petición (vista del
+     * mazo y arranque del estudio). Las páginas siguientes se piden con
+     * GET /api/decks/{id}/cards?cursor=...
+     * 
+     * Un solo chequeo de permisos y dos sentencias: mazo + versión por clave
+     * primaria y la página de tarjetas. Condicional como GET /{id}: un 304
+     * cuesta solo la primera.
+     * 
+     * Query params:
+     * - size: Tarjetas de la primera página (default: 50, max: 100)
+     * 
+     * Response 200 OK: DeckBundleResponse
+     * Response 304 Not Modified: Sin cambios desde la versión del cliente
+     * Response 404: Deck no encontrado o sin permiso
+     */
+    @GetMapping("/{id}/bundle")
+    public ResponseEntity<DeckBundleResponse> getDeckBundle(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest request
+    ) {
+        log.debug("GET /api/decks/{}/bundle - Usuario: {}, size: {}", id, principal.id(), size);
+
+        int pageSize = Math.min(Math.max(size, 1), 100);
+
+        DeckSnapshot snapshot = deckBundleService.getSnapshot(id, principal);
+        // El tamaño de página forma parte de la representación
+        String etag = snapshot.version().etag("bundle-" + pageSize);
+        long lastModified = snapshot.version().lastModified();
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+
+        DeckBundleResponse response = deckBundleService.getBundle(snapshot, pageSize);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(response);
     }
 
     /**
@@ -124,17 +227,23 @@ public class DeckController {
      * Query params (todos opcionales):
      * - page: Número de página (default: 0)
      * - size: Tamaño de página (default: 20, max: 100)
-     * - search: Búsqueda por título (case-insensitive)
+     * - cursor: Activa la paginación por cursor (vacío = primera página)
+     * - search: Búsqueda por título (sin distinguir mayúsculas ni acentos, por relevancia)
      * - tags: Tags separados por coma (ej: "matemáticas,física")
      * - onlyPublic: true/false (solo mazos públicos)
      * 
+     * Las primeras páginas de onlyPublic=true (sin search ni tags) se sirven
+     * desde el snapshot en memoria del catálogo público (PublicCatalog).
+     * 
      * Ejemplos:
      * GET /api/decks?page=0&size=10
      * GET /api/decks?search=cálculo
      * GET /api/decks?tags=matemáticas,física
      * GET /api/decks?onlyPublic=true
+     * GET /api/decks?cursor=&size=20
+     * GET /api/decks?cursor=MjAyNC0wMi0xMF...&size=20
      * 
-     * Response 200 OK:
+     * Response 200 OK (con page):
      * {
      *   "content": [...],
      *   "page": 0,
@@ -143,25 +252,35 @@ public class DeckController {
      *   "totalPages": 5
      * }
      * 
+     * Response 200 OK (con cursor, sin totales):
+     * {
+     *   "content": [...],
+     *   "size": 20,
+     *   "nextCursor": "MjAyNC0wMi0xMF..."
+     * }
+     * 
+     * Response 400: Cursor inválido
+     * 
      * @param page - Número de página (0-indexed)
      * @param size - Tamaño de página
+     * @param cursor - Cursor opaco de la página anterior (opcional)
      * @param search - Texto de búsqueda (opcional)
      * @param tags - Tags para filtrar (opcional)
      * @param onlyPublic - Solo públicos (opcional)
-     * @param authentication - Usuario autenticado
-     * @return PageResponse<DeckResponse>
+     * @param principal - Usuario autenticado
+     * @return PageResponse<DeckResponse> o CursorPageResponse<DeckResponse>
      */
     @GetMapping
-    public ResponseEntity<PageResponse<DeckResponse>> getDecks(
+    public ResponseEntity<?> getDecks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String tags,
             @RequestParam(required = false) Boolean onlyPublic,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("GET /api/decks - Usuario: {}, page: {}, size: {}", userEmail, page, size);
+        log.debug("GET /api/decks - Usuario: {}, page: {}, size: {}, cursor: {}", principal.id(), page, size, cursor);
 
         page = Math.max(page, 0);
         size = Math.min(Math.max(size, 1), 100);
@@ -178,8 +297,34 @@ public class DeckController {
             }
         }
 
+        if (cursor != null) {
+            CursorPageResponse<DeckResponse> response = deckService.getDecksByCursor(
+                    principal,
+                    cursor,
+                    size,
+                    search,
+                    tagsArray,
+                    onlyPublic
+            );
+
+            return ResponseEntity.ok(response);
+        }
+
+        boolean catalogRequest = onlyPublic != null && onlyPublic
+                && tagsArray == null
+                && (search == null || search.isBlank());
+
+        if (catalogRequest) {
+            Optional<byte[]> snapshot = publicCatalog.page(page, size);
+            if (snapshot.isPresent()) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(snapshot.get());
+            }
+        }
+
         PageResponse<DeckResponse> response = deckService.getDecks(
-                userEmail,
+                principal,
                 page,
                 size,
                 search,
@@ -217,19 +362,18 @@ public class DeckController {
      * 
      * @param id - ID del mazo
      * @param request - Campos a actualizar
-     * @param authentication - Usuario autenticado
+     * @param principal - Usuario autenticado
      * @return DeckResponse actualizado
      */
     @PatchMapping("/{id}")
     public ResponseEntity<DeckResponse> updateDeck(
             @PathVariable UUID id,
             @Valid @RequestBody UpdateDeckRequest request,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("PUT /api/decks/{} - Usuario: {}", id, userEmail);
+        log.debug("PUT /api/decks/{} - Usuario: {}", id, principal.id());
 
-        DeckResponse response = deckService.updateDeck(id, request, userEmail);
+        DeckResponse response = deckService.updateDeck(id, request, principal);
         return ResponseEntity.ok(response);
     }
 
@@ -246,18 +390,17 @@ public class DeckController {
      * Response 404: Deck no encontrado
      * 
      * @param id - ID del mazo
-     * @param authentication - Usuario autenticado
+     * @param principal - Usuario autenticado
      * @return 204 No Content
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDeck(
             @PathVariable UUID id,
-            Authentication authentication
+            @AuthenticationPrincipal UserPrincipal principal
     ) {
-        String userEmail = authentication.getName();
-        log.debug("DELETE /api/decks/{} - Usuario: {}", id, userEmail);
+        log.debug("DELETE /api/decks/{} - Usuario: {}", id, principal.id());
 
-        deckService.deleteDeck(id, userEmail);
+        deckService.deleteDeck(id, principal);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.dto.request.ReviewRequest;
+import com.flashcards.backend.dto.response.DueCardResponse;
+import com.flashcards.backend.dto.response.ReviewResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.StudyService;
+
+import jakarta.validation.Valid;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * StudyController - Endpoints del modo estudio (repetición espaciada SM-2)
+ *
+ * Todos los endpoints requieren autenticación (JWT)
+ *
+ * Base URL: /api/decks/{deckId}/study
+ */
+@RestController
+@RequestMapping("/api/decks/{deckId}/study")
+@RequiredArgsConstructor
+@Slf4j
+public class StudyController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final StudyService studyService;
+
+    /**
+     * GET /api/decks/{deckId}/study/due?limit=20
+     *
+     * Tarjetas que tocan ahora: primero las vencidas y, si sobra sitio,
+     * tarjetas nuevas del mazo. limit se acota a 1..100.
+     *
+     * Response 200 OK: List<DueCardResponse>
+     */
+    @GetMapping("/due")
+    public ResponseEntity<List<DueCardResponse>> getDueCards(
+            @PathVariable UUID deckId,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("GET /api/decks/{}/study/due - Usuario: {}", deckId, principal.id());
+
+        int clamped = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        return ResponseEntity.ok(studyService.getDueCards(deckId, clamped, principal));
+    }
+
+    /**
+     * POST /api/decks/{deckId}/study/reviews
+     *
+     * Registrar el repaso de una tarjeta.
+     *
+     * Request body:
+     * {
+     *   "cardId": "uuid...",
+     *   "grade": 4
+     * }
+     *
+     * Response 200 OK: ReviewResponse (con la fecha del siguiente repaso)
+     */
+    @PostMapping("/reviews")
+    public ResponseEntity<ReviewResponse> review(
+            @PathVariable UUID deckId,
+            @Valid @RequestBody ReviewRequest request,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("POST /api/decks/{}/study/reviews - Usuario: {}", deckId, principal.id());
+
+        return ResponseEntity.ok(studyService.review(deckId, request, principal));
+    }
+}
@@ -0,0 +1,65 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.dto.request.ReviewEventsRequest;
+import com.flashcards.backend.dto.response.ReviewEventsResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.ReviewEventService;
+
+import jakarta.validation.Valid;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * StudyEventController - Recepción de eventos de estudio en lotes
+ *
+ * Requiere autenticación (JWT)
+ *
+ * Base URL: /api/study/events
+ */
+@RestController
+@RequestMapping("/api/study/events")
+@RequiredArgsConstructor
+@Slf4j
+public class StudyEventController {
+
+    private final ReviewEventService reviewEventService;
+
+    /**
+     * POST /api/study/events
+     *
+     * Registrar un lote de eventos de estudio (respuestas y giros de tarjeta,
+     * hasta 1000 por lote). El cliente genera el id de cada evento, así que
+     * reenviar un lote tras un error no duplica nada.
+     *
+     * Request body:
+     * {
+     *   "events": [
+     *     { "id": "uuid...", "deckId": "uuid...", "cardId": "uuid...",
+     *       "type": "ANSWER", "grade": 4, "durationMs": 5300,
+     *       "occurredAt": "2024-02-10T10:00:00" }
+     *   ]
+     * }
+     *
+     * Response 200 OK: Eventos guardados (ack síncrono)
+     * Response 202 Accepted: Eventos encolados (ack asíncrono)
+     * Response 503 Service Unavailable + Retry-After: Cola llena, reintentar más tarde
+     */
+    @PostMapping
+    public ResponseEntity<ReviewEventsResponse> recordEvents(
+            @Valid @RequestBody ReviewEventsRequest request,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("POST /api/study/events - Usuario: {}, eventos: {}", principal.id(), request.events().size());
+
+        ReviewEventsResponse response = reviewEventService.record(request.events(), principal);
+        HttpStatus status = response.durable() ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(response);
+    }
+}
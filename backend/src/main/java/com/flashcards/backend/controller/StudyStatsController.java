@@ -0,0 +1,83 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.dto.response.StudyStatsResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.StudyStatsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * StudyStatsController - Estadísticas de estudio del usuario (dashboard)
+ *
+ * Todos los endpoints requieren autenticación (JWT)
+ *
+ * Base URL: /api/study/stats
+ */
+@RestController
+@RequestMapping("/api/study/stats")
+@RequiredArgsConstructor
+@Slf4j
+public class StudyStatsController {
+
+    private static final int MAX_DAYS = 365;
+
+    private final StudyStatsService studyStatsService;
+
+    /**
+     * GET /api/study/stats?days=30&to=2024-02-10
+     *
+     * Repasos, tarjetas estudiadas y retención por día de todos los mazos,
+     * más racha actual, racha más larga y totales históricos.
+     * days se acota a 1..365; to es el día local del cliente (por defecto, hoy).
+     *
+     * Response 200 OK: StudyStatsResponse
+     */
+    @GetMapping
+    public ResponseEntity<StudyStatsResponse> getStats(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("GET /api/study/stats - Usuario: {}", principal.id());
+
+        return ResponseEntity.ok(studyStatsService.getStats(clamp(days), today(to), principal));
+    }
+
+    /**
+     * GET /api/study/stats/decks/{deckId}?days=30&to=2024-02-10
+     *
+     * Lo mismo, limitado a un mazo
+     *
+     * Response 200 OK: StudyStatsResponse
+     * Response 404 Not Found: El mazo no existe o no es visible
+     */
+    @GetMapping("/decks/{deckId}")
+    public ResponseEntity<StudyStatsResponse> getDeckStats(
+            @PathVariable UUID deckId,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.debug("GET /api/study/stats/decks/{} - Usuario: {}", deckId, principal.id());
+
+        return ResponseEntity.ok(studyStatsService.getDeckStats(deckId, clamp(days), today(to), principal));
+    }
+
+    private static int clamp(int days) {
+        return Math.min(Math.max(days, 1), MAX_DAYS);
+    }
+
+    private static LocalDate today(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+}
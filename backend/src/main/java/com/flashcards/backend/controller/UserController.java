@@ -1,13 +1,14 @@
 package com.flashcards.backend.controller;
 
 import com.flashcards.backend.dto.response.UserResponse;
+import com.flashcards.backend.security.UserPrincipal;
 import com.flashcards.backend.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,13 +22,11 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication) {
-
-        String email = authentication.getName();
+    public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
 
         log.debug("Solicitud de perfil (/me) recibida");
 
-        UserResponse userResponse = userService.getUserResponseByEmail(email);
+        UserResponse userResponse = userService.getCurrentUser(principal);
         
         return ResponseEntity.ok(userResponse);
     }
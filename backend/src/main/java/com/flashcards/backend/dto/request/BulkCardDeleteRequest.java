@@ -0,0 +1,19 @@
+package com.flashcards.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * BulkCardDeleteRequest - DTO para eliminar muchas tarjetas de un mazo de una vez
+ *
+ * Request body esperado:
+ * {
+ *   "ids": [ "uuid...", "uuid..." ]
+ * }
+ */
+public record BulkCardDeleteRequest(
+    @NotEmpty(message = "La lista de tarjetas no puede estar vacía")
+    List<UUID> ids
+) { }
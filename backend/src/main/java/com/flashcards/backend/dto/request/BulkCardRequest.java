@@ -0,0 +1,24 @@
+package com.flashcards.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * BulkCardRequest - DTO para crear muchas tarjetas de una vez
+ * 
+ * Cada tarjeta se valida por separado: las inválidas se informan por
+ * posición y no impiden crear las demás.
+ * 
+ * Request body esperado:
+ * {
+ *   "cards": [
+ *     { "front": "hola", "back": "hello" },
+ *     { "front": "adiós", "back": "goodbye" }
+ *   ]
+ * }
+ */
+public record BulkCardRequest(
+    @NotEmpty(message = "La lista de tarjetas no puede estar vacía")
+    List<CardRequest> cards
+) { }
@@ -0,0 +1,24 @@
+package com.flashcards.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * BulkCardUpdateRequest - DTO para editar muchas tarjetas de un mazo de una vez
+ *
+ * Cada cambio se valida por separado: los inválidos se informan por
+ * posición y no impiden aplicar los demás.
+ *
+ * Request body esperado:
+ * {
+ *   "cards": [
+ *     { "id": "uuid...", "front": "hola", "back": "hello" },
+ *     { "id": "uuid...", "back": "goodbye" }
+ *   ]
+ * }
+ */
+public record BulkCardUpdateRequest(
+    @NotEmpty(message = "La lista de tarjetas no puede estar vacía")
+    List<CardPatchRequest> cards
+) { }
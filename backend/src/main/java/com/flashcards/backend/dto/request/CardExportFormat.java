@@ -0,0 +1,49 @@
+package com.flashcards.backend.dto.request;
+
+import com.flashcards.backend.exception.BadRequestException;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * CardExportFormat - Formatos de exportación de las tarjetas de un mazo
+ * 
+ * NDJSON: un CardResponse por línea
+ * CSV: cabecera id,front,back,createdAt,updatedAt (RFC 4180, UTF-8)
+ */
+public enum CardExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    CardExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Formato pedido por el cliente (sin distinguir mayúsculas)
+     * 
+     * @throws BadRequestException si el formato no existe
+     */
+    public static CardExportFormat from(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Formato de exportación no soportado: " + format);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.flashcards.backend.dto.request;
+
+import java.util.UUID;
+
+/**
+ * CardPatchRequest - Cambios de una tarjeta dentro de una edición masiva
+ *
+ * front y back son opcionales (null = no cambiar), pero si vienen no
+ * pueden estar en blanco y al menos uno tiene que venir.
+ *
+ * {
+ *   "id": "uuid...",
+ *   "front": "¿Qué es la integral?"
+ * }
+ */
+public record CardPatchRequest(
+    UUID id,
+    String front,
+    String back
+) { }
@@ -0,0 +1,69 @@
+package com.flashcards.backend.dto.request;
+
+import com.flashcards.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * KeysetCursor - Posición (created_at, id) del último elemento devuelto
+ * 
+ * Se serializa como Base64 URL-safe de "createdAt|id" para que el cliente
+ * lo trate como un token opaco.
+ */
+public record KeysetCursor(
+    LocalDateTime createdAt,
+    UUID id
+) {
+    /**
+     * Cursor anterior a cualquier fila real (primera página en orden descendente)
+     */
+    public static final KeysetCursor FIRST_DESC = new KeysetCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            new UUID(-1L, -1L));
+
+    /**
+     * Cursor anterior a cualquier fila real (primera página en orden ascendente)
+     */
+    public static final KeysetCursor FIRST_ASC = new KeysetCursor(
+            LocalDateTime.of(1, 1, 1, 0, 0),
+            new UUID(0L, 0L));
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     * 
+     * @param cursor - Cursor opaco; null o vacío = primera página
+     * @param first  - Cursor a usar para la primera página
+     * @throws BadRequestException si el cursor no es válido
+     */
+    public static KeysetCursor decode(String cursor, KeysetCursor first) {
+        if (cursor == null || cursor.isBlank()) {
+            return first;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+
+            if (separator < 0) {
+                throw new BadRequestException("Cursor inválido");
+            }
+
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
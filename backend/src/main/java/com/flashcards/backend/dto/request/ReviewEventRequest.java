@@ -0,0 +1,47 @@
+package com.flashcards.backend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ReviewEventRequest - Un evento de estudio dentro de un lote
+ *
+ * id lo genera el cliente: reenviar el mismo evento no lo duplica
+ *
+ * {
+ *   "id": "uuid...",
+ *   "deckId": "uuid...",
+ *   "cardId": "uuid...",
+ *   "type": "ANSWER",
+ *   "grade": 4,            // Obligatoria en ANSWER
+ *   "durationMs": 5300,    // Opcional: tiempo hasta responder
+ *   "occurredAt": "2024-02-10T10:00:00"
+ * }
+ */
+public record ReviewEventRequest(
+    @NotNull(message = "El id del evento es obligatorio")
+    UUID id,
+
+    @NotNull(message = "El mazo es obligatorio")
+    UUID deckId,
+
+    @NotNull(message = "La tarjeta es obligatoria")
+    UUID cardId,
+
+    @NotNull(message = "El tipo de evento es obligatorio")
+    ReviewEventType type,
+
+    @Min(value = 0, message = "La nota debe estar entre 0 y 5")
+    @Max(value = 5, message = "La nota debe estar entre 0 y 5")
+    Integer grade,
+
+    @Min(value = 0, message = "La duración no puede ser negativa")
+    Integer durationMs,
+
+    @NotNull(message = "La fecha del evento es obligatoria")
+    LocalDateTime occurredAt
+) { }
@@ -0,0 +1,12 @@
+package com.flashcards.backend.dto.request;
+
+/**
+ * ReviewEventType - Tipo de evento de estudio
+ *
+ * - FLIP: El usuario ha girado la tarjeta para ver el reverso
+ * - ANSWER: El usuario ha respondido (lleva nota 0-5)
+ */
+public enum ReviewEventType {
+    FLIP,
+    ANSWER
+}
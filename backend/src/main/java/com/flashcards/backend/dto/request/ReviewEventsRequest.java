@@ -0,0 +1,22 @@
+package com.flashcards.backend.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * ReviewEventsRequest - Lote de eventos de estudio
+ *
+ * Request body esperado:
+ * {
+ *   "events": [ { ...ReviewEventRequest }, ... ]
+ * }
+ */
+public record ReviewEventsRequest(
+    @NotEmpty(message = "El lote no puede estar vacío")
+    @Size(max = 1000, message = "Como máximo 1000 eventos por lote")
+    List<@NotNull(message = "El evento no puede ser nulo") @Valid ReviewEventRequest> events
+) { }
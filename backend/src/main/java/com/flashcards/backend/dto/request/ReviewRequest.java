@@ -0,0 +1,28 @@
+package com.flashcards.backend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * ReviewRequest - DTO para registrar el repaso de una tarjeta
+ *
+ * grade es la nota SM-2: 0-2 olvidada, 3 difícil, 4 bien, 5 fácil
+ *
+ * Request body esperado:
+ * {
+ *   "cardId": "uuid...",
+ *   "grade": 4
+ * }
+ */
+public record ReviewRequest(
+    @NotNull(message = "La tarjeta es obligatoria")
+    UUID cardId,
+
+    @NotNull(message = "La nota es obligatoria")
+    @Min(value = 0, message = "La nota debe estar entre 0 y 5")
+    @Max(value = 5, message = "La nota debe estar entre 0 y 5")
+    Integer grade
+) { }
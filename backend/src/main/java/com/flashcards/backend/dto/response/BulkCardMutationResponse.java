@@ -0,0 +1,67 @@
+package com.flashcards.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * BulkCardMutationResponse - Resultado de una edición o eliminación masiva
+ * de tarjetas, con el resultado de cada tarjeta en el orden de la petición
+ *
+ * Response esperado:
+ * {
+ *   "applied": 2,
+ *   "notFound": 1,
+ *   "rejected": 1,
+ *   "results": [
+ *     { "index": 0, "id": "uuid...", "outcome": "UPDATED" },
+ *     { "index": 1, "id": "uuid...", "outcome": "NOT_FOUND" },
+ *     { "index": 2, "id": "uuid...", "outcome": "INVALID", "errors": { "front": "..." } },
+ *     { "index": 3, "id": "uuid...", "outcome": "UPDATED" }
+ *   ]
+ * }
+ */
+public record BulkCardMutationResponse(
+    int applied,
+    int notFound,
+    int rejected,
+    List<ItemResult> results
+) {
+
+    public enum Outcome {
+        UPDATED,
+        DELETED,
+        /** No existe o no es de este mazo */
+        NOT_FOUND,
+        /** No pasa la validación; no se ha aplicado */
+        INVALID
+    }
+
+    /**
+     * Resultado de una tarjeta (errors solo si es INVALID, mismo formato
+     * campo → mensaje que @Valid)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(
+        int index,
+        UUID id,
+        Outcome outcome,
+        Map<String, String> errors
+    ) { }
+
+    public static BulkCardMutationResponse of(List<ItemResult> results) {
+        int applied = 0;
+        int notFound = 0;
+        int rejected = 0;
+        for (ItemResult result : results) {
+            switch (result.outcome()) {
+                case UPDATED, DELETED -> applied++;
+                case NOT_FOUND -> notFound++;
+                case INVALID -> rejected++;
+            }
+        }
+        return new BulkCardMutationResponse(applied, notFound, rejected, results);
+    }
+}
@@ -0,0 +1,38 @@
+package com.flashcards.backend.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BulkCardResponse - Resultado de una creación masiva de tarjetas
+ * 
+ * Response esperado:
+ * {
+ *   "created": 9996,
+ *   "rejected": 2,
+ *   "errors": [
+ *     { "index": 17, "errors": { "back": "El reverso de la tarjeta es obligatorio" } },
+ *     { "index": 503, "errors": { "front": "El frente de la tarjeta es obligatorio" } }
+ *   ],
+ *   "skipped": 2,
+ *   "duplicates": [ 40, 41 ]
+ * }
+ * 
+ * skipped/duplicates: tarjetas válidas no creadas porque ya existían en el
+ * mazo o en la propia petición (solo con dedup=true; si no, 0 y [])
+ */
+public record BulkCardResponse(
+    int created,
+    int rejected,
+    List<ItemError> errors,
+    int skipped,
+    List<Integer> duplicates
+) {
+    /**
+     * Errores de validación de una tarjeta (mismo formato campo → mensaje que @Valid)
+     */
+    public record ItemError(
+        int index,
+        Map<String, String> errors
+    ) { }
+}
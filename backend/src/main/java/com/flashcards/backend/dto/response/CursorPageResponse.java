@@ -0,0 +1,33 @@
+package com.flashcards.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * CursorPageResponse - DTO genérico para respuestas paginadas por cursor (keyset)
+ * 
+ * @param <T> Tipo de contenido (DeckResponse, CardResponse, etc.)
+ * 
+ * No incluye totales salvo que se pidan (y el total sea barato de obtener):
+ * evita el COUNT(*) de la paginación por offset.
+ * 
+ * Response esperado:
+ * {
+ *   "content": [...],          // Lista de items
+ *   "size": 20,                // Tamaño de página pedido
+ *   "nextCursor": "MjAyNC...", // Cursor opaco de la siguiente página (null si no hay más)
+ *   "totalElements": 100000    // Solo si se pidió (omitido si no)
+ * }
+ */
+public record CursorPageResponse<T>(
+    List<T> content,
+    int size,
+    String nextCursor,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Long totalElements
+) {
+    public CursorPageResponse(List<T> content, int size, String nextCursor) {
+        this(content, size, nextCursor, null);
+    }
+}
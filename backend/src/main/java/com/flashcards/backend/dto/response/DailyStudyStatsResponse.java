@@ -0,0 +1,28 @@
+package com.flashcards.backend.dto.response;
+
+import java.time.LocalDate;
+
+/**
+ * DailyStudyStatsResponse - Estadísticas de estudio de un día
+ *
+ * Response esperado:
+ * {
+ *   "day": "2024-02-10",
+ *   "reviews": 42,
+ *   "correct": 35,
+ *   "cardsStudied": 30,
+ *   "studyMs": 612000
+ * }
+ */
+public record DailyStudyStatsResponse(
+    LocalDate day,
+    int reviews,
+    int correct,
+    int cardsStudied,
+    long studyMs
+) {
+
+    public static DailyStudyStatsResponse empty(LocalDate day) {
+        return new DailyStudyStatsResponse(day, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.flashcards.backend.dto.response;
+
+/**
+ * DeckBundleResponse - Mazo y primera página de sus tarjetas en una sola respuesta
+ *
+ * Lo que necesitan la vista del mazo y el arranque del estudio, sin dos
+ * peticiones seguidas
+ *
+ * Response esperado:
+ * {
+ *   "deck": { ...DeckResponse },
+ *   "cards": {
+ *     "content": [ ...CardResponse ],
+ *     "size": 50,
+ *     "nextCursor": "MjAyNC..."   // Seguir con GET /api/decks/{deckId}/cards?cursor=
+ *   }
+ * }
+ */
+public record DeckBundleResponse(
+    DeckResponse deck,
+    CursorPageResponse<CardResponse> cards
+) { }
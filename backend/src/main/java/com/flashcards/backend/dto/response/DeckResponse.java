@@ -30,11 +30,42 @@ public record DeckResponse(
     String description,
     String[] tags,
     boolean isPublic,
-    Integer cardCount,  // (se calcula en el service)
+    Integer cardCount,  // (columna desnormalizada decks.card_count)
     OwnerInfo owner,
     LocalDateTime createdAt,
     LocalDateTime updatedAt
 ) {
+    /**
+     * Constructor plano para proyecciones JPQL (SELECT new ...)
+     *
+     * JPQL no admite constructores anidados, así que el propietario
+     * llega desglosado en id y username
+     */
+    public DeckResponse(
+        UUID id,
+        String title,
+        String description,
+        String[] tags,
+        boolean isPublic,
+        int cardCount,
+        UUID ownerId,
+        String ownerUsername,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+    ) {
+        this(
+            id,
+            title,
+            description,
+            tags != null ? tags : new String[0],
+            isPublic,
+            cardCount,
+            new OwnerInfo(ownerId, ownerUsername),
+            createdAt,
+            updatedAt
+        );
+    }
+
     /**
      * Información mínima del propietario del mazo
      */
@@ -0,0 +1,28 @@
+package com.flashcards.backend.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DueCardResponse - Tarjeta de la cola de repaso
+ *
+ * Response esperado:
+ * {
+ *   "cardId": "uuid...",
+ *   "front": "¿Qué es la derivada?",
+ *   "back": "La derivada mide...",
+ *   "dueAt": "2024-02-10T10:00:00",
+ *   "repetitions": 2,
+ *   "intervalDays": 6,
+ *   "isNew": false
+ * }
+ */
+public record DueCardResponse(
+    UUID cardId,
+    String front,
+    String back,
+    LocalDateTime dueAt,
+    int repetitions,
+    int intervalDays,
+    boolean isNew
+) { }
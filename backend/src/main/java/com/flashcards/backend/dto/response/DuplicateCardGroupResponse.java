@@ -0,0 +1,21 @@
+package com.flashcards.backend.dto.response;
+
+import java.util.List;
+
+/**
+ * DuplicateCardGroupResponse - Tarjetas de un mazo con el mismo contenido
+ *
+ * El contenido se compara normalizado (mayúsculas y espacios no cuentan).
+ * original es la tarjeta más antigua; duplicates, el resto en orden de
+ * creación (candidatas a borrar con DELETE /cards/bulk).
+ *
+ * Response esperado:
+ * {
+ *   "original": { "id": "uuid...", "front": "hola", "back": "hello", ... },
+ *   "duplicates": [ { "id": "uuid...", "front": "Hola ", "back": "hello", ... } ]
+ * }
+ */
+public record DuplicateCardGroupResponse(
+    CardResponse original,
+    List<CardResponse> duplicates
+) { }
@@ -0,0 +1,18 @@
+package com.flashcards.backend.dto.response;
+
+/**
+ * ReviewEventsResponse - Resultado de enviar un lote de eventos
+ *
+ * durable indica si los eventos ya están confirmados en la BD (ack síncrono)
+ * o solo encolados (ack asíncrono)
+ *
+ * Response esperado:
+ * {
+ *   "accepted": 20,
+ *   "durable": true
+ * }
+ */
+public record ReviewEventsResponse(
+    int accepted,
+    boolean durable
+) { }
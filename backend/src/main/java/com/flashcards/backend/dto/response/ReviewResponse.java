@@ -0,0 +1,26 @@
+package com.flashcards.backend.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ReviewResponse - Estado de la tarjeta tras un repaso
+ *
+ * Response esperado:
+ * {
+ *   "cardId": "uuid...",
+ *   "repetitions": 3,
+ *   "intervalDays": 15,
+ *   "easeFactor": 2.6,
+ *   "lapses": 0,
+ *   "dueAt": "2024-02-25T10:00:00"
+ * }
+ */
+public record ReviewResponse(
+    UUID cardId,
+    int repetitions,
+    int intervalDays,
+    double easeFactor,
+    int lapses,
+    LocalDateTime dueAt
+) { }
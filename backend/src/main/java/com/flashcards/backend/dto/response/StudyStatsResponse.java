@@ -0,0 +1,41 @@
+package com.flashcards.backend.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * StudyStatsResponse - Estadísticas de estudio de un usuario (de todos sus
+ * mazos o de uno) en un rango de días
+ *
+ * days tiene una entrada por día del rango, también los días sin repasos.
+ * La retención es correctas / repasos (null si no hay repasos).
+ *
+ * Response esperado:
+ * {
+ *   "deckId": null,                // null = todos los mazos
+ *   "from": "2024-01-12",
+ *   "to": "2024-02-10",
+ *   "days": [ ...DailyStudyStatsResponse ],
+ *   "reviews": 640,                // Del rango
+ *   "cardsStudied": 410,
+ *   "retention": 0.83,
+ *   "currentStreak": 5,            // Días seguidos hasta hoy (o hasta ayer si hoy aún no)
+ *   "longestStreak": 21,           // Histórico
+ *   "totalReviews": 12840,         // Histórico
+ *   "totalRetention": 0.81
+ * }
+ */
+public record StudyStatsResponse(
+    UUID deckId,
+    LocalDate from,
+    LocalDate to,
+    List<DailyStudyStatsResponse> days,
+    int reviews,
+    int cardsStudied,
+    Double retention,
+    int currentStreak,
+    int longestStreak,
+    long totalReviews,
+    Double totalRetention
+) { }
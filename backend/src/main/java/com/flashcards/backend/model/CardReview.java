@@ -0,0 +1,82 @@
+package com.flashcards.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad CardReview - Estado de repaso de una tarjeta para un usuario
+ *
+ * Clave compuesta (user_id, card_id). deck_id está denormalizado para que la
+ * cola de repaso se lea del índice (user_id, deck_id, due_at) sin tocar cards;
+ * un trigger lo mantiene si la tarjeta cambia de mazo (V10).
+ */
+@Entity
+@Table(name = "card_reviews")
+@IdClass(CardReview.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardReview {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "card_id")
+    private UUID cardId;
+
+    @Column(name = "deck_id", nullable = false)
+    private UUID deckId;
+
+    @Column(nullable = false)
+    private int repetitions;
+
+    @Column(name = "interval_days", nullable = false)
+    private int intervalDays;
+
+    @Column(name = "ease_factor", nullable = false)
+    private double easeFactor;
+
+    @Column(nullable = false)
+    private int lapses;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    /**
+     * null mientras la tarjeta no se haya repasado nunca (tarjeta nueva)
+     */
+    @Column(name = "last_reviewed_at")
+    private LocalDateTime lastReviewedAt;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public ReviewState state() {
+        return new ReviewState(repetitions, intervalDays, easeFactor, lapses);
+    }
+
+    /**
+     * Aplica el resultado de un repaso
+     */
+    public void apply(ReviewState state, LocalDateTime reviewedAt, LocalDateTime nextDueAt) {
+        this.repetitions = state.repetitions();
+        this.intervalDays = state.intervalDays();
+        this.easeFactor = state.easeFactor();
+        this.lapses = state.lapses();
+        this.lastReviewedAt = reviewedAt;
+        this.dueAt = nextDueAt;
+    }
+
+    /**
+     * Clave compuesta (user_id, card_id)
+     */
+    public record Key(UUID userId, UUID cardId) implements Serializable { }
+}
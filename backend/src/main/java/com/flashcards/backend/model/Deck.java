@@ -3,16 +3,17 @@ package com.flashcards.backend.model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -28,6 +29,9 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "decks")
+// Caché de segundo nivel (perfil l2cache). card_count y content_version los cambian
+// triggers, así que DeckMetadataCache.evict saca el mazo también de esta caché
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "decks")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,8 +39,9 @@ import lombok.Setter;
 @Builder
 public class Deck {
 
+    // UUIDv7: ordenado por tiempo, las inserciones van al final del índice (V14)
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -61,6 +66,25 @@ public class Deck {
     @Builder.Default
     private boolean isPublic = false;
 
+    /**
+     * Número de tarjetas del mazo
+     * Lo mantienen los triggers de la tabla cards, Hibernate nunca lo escribe
+     */
+    @Column(name = "card_count", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private int cardCount = 0;
+
+    /**
+     * Versión del contenido del mazo y sus tarjetas (ETag de los GET condicionales)
+     * La mantienen los triggers de V8, Hibernate nunca la escribe
+     */
+    @Column(name = "content_version", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private long contentVersion = 0;
+
+    @Column(name = "content_updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime contentUpdatedAt;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false, name = "created_at")
     private LocalDateTime createdAt;
@@ -0,0 +1,24 @@
+package com.flashcards.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DeckMetadata - Lo mínimo de un mazo para decidir permisos sin cargar la entidad
+ */
+public record DeckMetadata(
+    UUID id,
+    UUID ownerId,
+    boolean isPublic,
+    String title,
+    LocalDateTime updatedAt
+) {
+
+    public boolean isOwnedBy(UUID userId) {
+        return ownerId.equals(userId);
+    }
+
+    public boolean isReadableBy(UUID userId) {
+        return isPublic || isOwnedBy(userId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.flashcards.backend.model;
+
+import com.flashcards.backend.dto.response.DeckResponse;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DeckSnapshot - Mazo proyectado junto con la versión de su contenido
+ *
+ * Sale de una sola lectura por clave primaria: con la versión se decide el
+ * 304 y, si hay que responder, el mazo ya está leído
+ */
+public record DeckSnapshot(
+    DeckResponse deck,
+    DeckVersion version
+) {
+    /**
+     * Constructor plano para proyecciones JPQL (SELECT new ...)
+     */
+    public DeckSnapshot(
+        UUID id,
+        String title,
+        String description,
+        String[] tags,
+        boolean isPublic,
+        int cardCount,
+        UUID ownerId,
+        String ownerUsername,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        long contentVersion,
+        LocalDateTime contentUpdatedAt
+    ) {
+        this(
+            new DeckResponse(id, title, description, tags, isPublic, cardCount,
+                    ownerId, ownerUsername, createdAt, updatedAt),
+            new DeckVersion(contentVersion, contentUpdatedAt)
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.flashcards.backend.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * DeckVersion - Versión del contenido de un mazo (mazo + tarjetas) para GET condicionales
+ *
+ * content_version y content_updated_at los mantienen los triggers de V8,
+ * así que cualquier escritura (también las hechas fuera de Hibernate) cambia el ETag
+ */
+public record DeckVersion(
+    long version,
+    LocalDateTime updatedAt
+) {
+
+    /**
+     * ETag fuerte de una representación del mazo, ej: "cards-42"
+     */
+    public String etag(String representation) {
+        return "\"" + representation + "-" + version + "\"";
+    }
+
+    /**
+     * Last-Modified en milisegundos (la BD guarda TIMESTAMP en la zona de la JVM)
+     */
+    public long lastModified() {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,21 @@
+package com.flashcards.backend.model;
+
+/**
+ * ReviewState - Estado SM-2 de una tarjeta para un usuario
+ *
+ * @param repetitions  - Repasos correctos seguidos
+ * @param intervalDays - Días hasta el siguiente repaso
+ * @param easeFactor   - Factor de facilidad (mínimo 1.3)
+ * @param lapses       - Veces que se ha olvidado
+ */
+public record ReviewState(
+    int repetitions,
+    int intervalDays,
+    double easeFactor,
+    int lapses
+) {
+    /**
+     * Tarjeta que aún no se ha repasado nunca
+     */
+    public static final ReviewState NEW = new ReviewState(0, 0, 2.5, 0);
+}
@@ -3,13 +3,16 @@ package com.flashcards.backend.model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
@@ -26,6 +29,9 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "users")
+// Caché de segundo nivel por id y por email (solo con el perfil l2cache)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,10 +39,13 @@ import lombok.ToString;
 @Builder
 public class User {
 
+    // UUIDv7: ordenado por tiempo, las inserciones van al final del índice (V14)
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
+    // Se guarda en minúsculas (AuthService); UserRepository.findByEmail lo busca por natural-id
+    @NaturalId
     @Column(unique = true, nullable = false, length = 255)
     @Email(message = "Email debe ser válido")
     @NotBlank(message = "Email es obligatorio")
@@ -52,6 +61,11 @@ public class User {
     @Size(min = 3, max = 100, message = "Username debe tener entre 3 y 100 caracteres")
     private String username;
 
+    // Se sube para invalidar todos los JWT emitidos hasta ahora
+    @Column(nullable = false, name = "token_version")
+    @Builder.Default
+    private int tokenVersion = 0;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false, name = "created_at")
     private LocalDateTime createdAt;
@@ -1,6 +1,8 @@
 package com.flashcards.backend.repository;
 
+import com.flashcards.backend.dto.response.CardResponse;
 import com.flashcards.backend.model.Card;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +32,28 @@ public interface CardRepository extends JpaRepository<Card, UUID> {
      */
     List<Card> findByDeck_Id(UUID deckId);
 
+    /**
+     * Tarjetas de un deck posteriores al cursor, en orden de creación (proyectado)
+     * 
+     * Recorre idx_cards_deck_created_at_id (V9) desde el cursor: el coste de
+     * una página no depende del tamaño del mazo
+     */
+    @Query("""
+        SELECT new com.flashcards.backend.dto.response.CardResponse(
+            c.id, c.deck.id, c.front, c.back, c.createdAt, c.updatedAt
+        )
+        FROM Card c
+        WHERE c.deck.id = :deckId
+        AND (c.createdAt, c.id) > (:createdAt, :id)
+        ORDER BY c.createdAt, c.id
+        """)
+    List<CardResponse> findResponsesByDeckIdAfter(
+        @Param("deckId") UUID deckId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        Limit limit
+    );
+
     /**
      * Contar tarjetas de un deck
      */
@@ -0,0 +1,47 @@
+package com.flashcards.backend.repository;
+
+import com.flashcards.backend.dto.response.DueCardResponse;
+import com.flashcards.backend.model.CardReview;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * CardReviewRepository - Acceso a la tabla card_reviews
+ */
+@Repository
+public interface CardReviewRepository extends JpaRepository<CardReview, CardReview.Key> {
+
+    /**
+     * Cola de repaso: tarjetas vencidas del usuario en un mazo, las más
+     * atrasadas primero (proyectado)
+     *
+     * Recorre idx_card_reviews_user_deck_due (V10) hasta :now y solo visita
+     * cards por PK para las filas devueltas: el coste depende de las tarjetas
+     * vencidas, no del tamaño del mazo
+     */
+    @Query("""
+        SELECT new com.flashcards.backend.dto.response.DueCardResponse(
+            c.id, c.front, c.back, r.dueAt, r.repetitions, r.intervalDays,
+            CASE WHEN r.lastReviewedAt IS NULL THEN true ELSE false END
+        )
+        FROM CardReview r
+        JOIN Card c ON c.id = r.cardId
+        WHERE r.userId = :userId
+        AND r.deckId = :deckId
+        AND r.dueAt <= :now
+        ORDER BY r.dueAt
+        """)
+    List<DueCardResponse> findDue(
+        @Param("userId") UUID userId,
+        @Param("deckId") UUID deckId,
+        @Param("now") LocalDateTime now,
+        Limit limit
+    );
+}
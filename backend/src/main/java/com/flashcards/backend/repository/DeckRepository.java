@@ -1,6 +1,11 @@
 package com.flashcards.backend.repository;
 
+import com.flashcards.backend.dto.response.DeckResponse;
 import com.flashcards.backend.model.Deck;
+import com.flashcards.backend.model.DeckMetadata;
+import com.flashcards.backend.model.DeckSnapshot;
+import com.flashcards.backend.model.DeckVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +13,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,50 +36,120 @@ public interface DeckRepository extends JpaRepository<Deck, UUID> {
     Page<Deck> findByUser_Id(UUID userId, Pageable pageable);
 
     /**
-     * Buscar mazos públicos (paginado)
+     * SELECT común de las proyecciones a DeckResponse
+     *
+     * Trae propietario y contador en la misma sentencia (JOIN con users y
+     * columna card_count), así una página cuesta una query + su COUNT
      */
-    Page<Deck> findByIsPublicTrue(Pageable pageable);
+    String DECK_RESPONSE_SELECT = """
+        SELECT new com.flashcards.backend.dto.response.DeckResponse(
+            d.id, d.title, d.description, d.tags, d.isPublic, d.cardCount,
+            u.id, u.username, d.createdAt, d.updatedAt
+        )
+        FROM Deck d JOIN d.user u
+        """;
 
     /**
-     * Buscar mazos del usuario O mazos públicos (paginado)
+     * Buscar mazos públicos (paginado, proyectado)
+     */
+    @Query(
+        value = DECK_RESPONSE_SELECT + """
+            WHERE d.isPublic = true
+            ORDER BY d.createdAt DESC, d.id DESC
+            """,
+        countQuery = """
+            SELECT COUNT(d) FROM Deck d
+            WHERE d.isPublic = true
+            """
+    )
+    Page<DeckResponse> findPublicResponses(Pageable pageable);
+
+    /**
+     * Buscar mazos del usuario O mazos públicos (paginado, proyectado)
      * 
      * Útil para mostrar "mis mazos + mazos públicos de otros"
+     *
+     * El COUNT se parte en dos conjuntos disjuntos (públicos + privados del
+     * usuario): con el OR ningún índice cubre las dos ramas y recorre la tabla;
+     * así cada suma sale de su índice (parcial de públicos y el del usuario)
      */
-    @Query("""
-        SELECT d FROM Deck d
-        WHERE d.user.id = :userId OR d.isPublic = true
-        """)
-    Page<Deck> findByUserIdOrPublic(@Param("userId") UUID userId, Pageable pageable);
+    @Query(
+        value = DECK_RESPONSE_SELECT + """
+            WHERE d.user.id = :userId OR d.isPublic = true
+            ORDER BY d.createdAt DESC, d.id DESC
+            """,
+        countQuery = """
+            SELECT (SELECT COUNT(p) FROM Deck p WHERE p.isPublic = true)
+                 + (SELECT COUNT(o) FROM Deck o WHERE o.user.id = :userId AND o.isPublic = false)
+            """
+    )
+    Page<DeckResponse> findResponsesByUserIdOrPublic(@Param("userId") UUID userId, Pageable pageable);
 
     /**
-     * Buscar mazos por título (case-insensitive, paginado)
+     * Filtro de búsqueda por título (case-insensitive y sin acentos)
      * 
-     * Usa LOWER para búsqueda case-insensitive
-     * Usa LIKE para búsqueda parcial
+     * search_normalize = lower(unaccent(...)), la misma expresión que indexa
+     * idx_decks_title_trgm, así que LIKE '%x%' lo resuelve el índice GIN de
+     * trigramas en lugar de recorrer toda la tabla
      */
-    @Query("""
-        SELECT d FROM Deck d
-        WHERE (d.user.id = :userId OR d.isPublic = true)
-        AND LOWER(d.title) LIKE LOWER(CONCAT('%', :search, '%'))
-        """)
-    Page<Deck> findByUserIdOrPublicAndTitleContaining(
+    String TITLE_SEARCH_FILTER = """
+        (d.user_id = :userId OR d.is_public = true)
+        AND search_normalize(d.title) LIKE '%' || search_normalize(:search) || '%'
+        """;
+
+    /**
+     * Búsqueda por título ordenada por relevancia
+     * 
+     * similarity() compara el título completo: los títulos más parecidos a la
+     * búsqueda (no solo los que la contienen) aparecen primero
+     */
+    String TITLE_SEARCH_QUERY = """
+        SELECT d.id, d.title, d.description, d.tags, d.is_public, d.card_count,
+               u.id AS owner_id, u.username, d.created_at, d.updated_at
+        FROM decks d JOIN users u ON u.id = d.user_id
+        WHERE """ + TITLE_SEARCH_FILTER + """
+        ORDER BY similarity(search_normalize(:search), search_normalize(d.title)) DESC,
+                 d.created_at DESC, d.id DESC
+        """;
+
+    /**
+     * Buscar mazos por título (paginado, proyectado, ordenado por similitud)
+     */
+    @Query(
+        value = TITLE_SEARCH_QUERY,
+        countQuery = "SELECT COUNT(*) FROM decks d WHERE " + TITLE_SEARCH_FILTER,
+        nativeQuery = true
+    )
+    Page<DeckResponse> searchResponsesByTitle(
         @Param("userId") UUID userId,
         @Param("search") String search,
         Pageable pageable
     );
 
     /**
-     * Buscar mazos por tags (paginado)
+     * Buscar mazos por tags (paginado, proyectado)
      * 
-     * Usa operador @> de PostgreSQL para arrays
+     * Usa operador @> de PostgreSQL para arrays (índice GIN)
      * Ejemplo: tags @> ARRAY['matemáticas'] busca mazos que tengan 'matemáticas'
+     *
+     * Es nativa porque Hibernate enlaza String[] como varchar[] y text[] @> varchar[]
+     * no existe; las columnas siguen el orden del constructor plano de DeckResponse
+     *
+     * El username va en una subconsulta escalar en lugar de un JOIN: PostgreSQL
+     * la evalúa después del ORDER BY ... LIMIT, una lectura por clave primaria
+     * de users por fila de la página. Con el JOIN el plan cruzaba todos los
+     * mazos del tag con la tabla users entera antes de ordenar.
      */
     @Query(
         value = """
-            SELECT * FROM decks
-            WHERE (user_id = :userId OR is_public = true)
-            AND tags @> CAST(:tags AS TEXT[])
-            ORDER BY created_at DESC
+            SELECT d.id, d.title, d.description, d.tags, d.is_public, d.card_count,
+                   d.user_id AS owner_id,
+                   (SELECT u.username FROM users u WHERE u.id = d.user_id) AS username,
+                   d.created_at, d.updated_at
+            FROM decks d
+            WHERE (d.user_id = :userId OR d.is_public = true)
+            AND d.tags @> CAST(:tags AS TEXT[])
+            ORDER BY d.created_at DESC, d.id DESC
             """,
         countQuery = """
             SELECT COUNT(*) FROM decks
@@ -81,29 +158,164 @@ public interface DeckRepository extends JpaRepository<Deck, UUID> {
             """,
         nativeQuery = true
     )
-    Page<Deck> findByUserIdOrPublicAndTags(
+    Page<DeckResponse> findResponsesByUserIdOrPublicAndTags(
         @Param("userId") UUID userId,
         @Param("tags") String[] tags,
         Pageable pageable
     );
 
+    // ========== PAGINACIÓN POR CURSOR (KEYSET) ==========
+    //
+    // Mismo orden (createdAt DESC, id DESC) que las queries paginadas, pero en
+    // lugar de OFFSET filtran por la tupla del último elemento visto y no
+    // ejecutan COUNT. Índices de soporte en V5__add_keyset_indexes_to_decks.sql
+
+    /**
+     * Mazos públicos posteriores al cursor
+     */
+    @Query(DECK_RESPONSE_SELECT + """
+        WHERE d.isPublic = true
+        AND (d.createdAt, d.id) < (:createdAt, :id)
+        ORDER BY d.createdAt DESC, d.id DESC
+        """)
+    List<DeckResponse> findPublicResponsesAfter(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        Limit limit
+    );
+
     /**
-     * Buscar un deck específico y verificar permisos
+     * Mazos del usuario O públicos posteriores al cursor
+     */
+    @Query(DECK_RESPONSE_SELECT + """
+        WHERE (d.user.id = :userId OR d.isPublic = true)
+        AND (d.createdAt, d.id) < (:createdAt, :id)
+        ORDER BY d.createdAt DESC, d.id DESC
+        """)
+    List<DeckResponse> findResponsesByUserIdOrPublicAfter(
+        @Param("userId") UUID userId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        Limit limit
+    );
+
+    /**
+     * Búsqueda por título posterior al cursor
      * 
-     * Solo devuelve el deck si:
-     * - Es del usuario actual, O
-     * - Es público
+     * Con cursor el orden es (created_at, id), no la similitud: el cursor
+     * necesita un orden estable. El filtro sigue usando el índice de trigramas.
+     */
+    @Query(
+        value = """
+            SELECT d.id, d.title, d.description, d.tags, d.is_public, d.card_count,
+                   u.id AS owner_id, u.username, d.created_at, d.updated_at
+            FROM decks d JOIN users u ON u.id = d.user_id
+            WHERE """ + TITLE_SEARCH_FILTER + """
+            AND (d.created_at, d.id) < (:createdAt, :id)
+            ORDER BY d.created_at DESC, d.id DESC
+            LIMIT :limit
+            """,
+        nativeQuery = true
+    )
+    List<DeckResponse> searchResponsesByTitleAfter(
+        @Param("userId") UUID userId,
+        @Param("search") String search,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Búsqueda por tags posterior al cursor (nativa, ver findResponsesByUserIdOrPublicAndTags)
+     */
+    @Query(
+        value = """
+            SELECT d.id, d.title, d.description, d.tags, d.is_public, d.card_count,
+                   d.user_id AS owner_id,
+                   (SELECT u.username FROM users u WHERE u.id = d.user_id) AS username,
+                   d.created_at, d.updated_at
+            FROM decks d
+            WHERE (d.user_id = :userId OR d.is_public = true)
+            AND d.tags @> CAST(:tags AS TEXT[])
+            AND (d.created_at, d.id) < (:createdAt, :id)
+            ORDER BY d.created_at DESC, d.id DESC
+            LIMIT :limit
+            """,
+        nativeQuery = true
+    )
+    List<DeckResponse> findResponsesByUserIdOrPublicAndTagsAfter(
+        @Param("userId") UUID userId,
+        @Param("tags") String[] tags,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Obtener un mazo proyectado verificando permisos (propietario o público)
+     */
+    @Query(DECK_RESPONSE_SELECT + """
+        WHERE d.id = :deckId
+        AND (d.user.id = :userId OR d.isPublic = true)
+        """)
+    Optional<DeckResponse> findResponseByIdAndUserIdOrPublic(
+        @Param("deckId") UUID deckId,
+        @Param("userId") UUID userId
+    );
+
+    /**
+     * Metadatos de un mazo para las comprobaciones de permisos (ver DeckMetadataCache)
+     */
+    @Query("""
+        SELECT new com.flashcards.backend.model.DeckMetadata(d.id, d.user.id, d.isPublic, d.title, d.updatedAt)
+        FROM Deck d
+        WHERE d.id = :deckId
+        """)
+    Optional<DeckMetadata> findMetadataById(@Param("deckId") UUID deckId);
+
+    /**
+     * Versión del contenido de un mazo verificando permisos (propietario o público)
+     * 
+     * Una lectura por clave primaria: basta para responder 304 sin tocar las tarjetas
      */
     @Query("""
-        SELECT d FROM Deck d
+        SELECT new com.flashcards.backend.model.DeckVersion(d.contentVersion, d.contentUpdatedAt)
+        FROM Deck d
         WHERE d.id = :deckId
         AND (d.user.id = :userId OR d.isPublic = true)
         """)
-    Optional<Deck> findByIdAndUserIdOrPublic(
+    Optional<DeckVersion> findVersionByIdAndUserIdOrPublic(
         @Param("deckId") UUID deckId,
         @Param("userId") UUID userId
     );
 
+    /**
+     * Mazo proyectado y versión de su contenido verificando permisos (propietario o público)
+     * 
+     * Misma lectura que findResponseByIdAndUserIdOrPublic más las dos columnas
+     * de versión: GET /bundle decide el 304 y tiene el mazo con una sola sentencia
+     */
+    @Query("""
+        SELECT new com.flashcards.backend.model.DeckSnapshot(
+            d.id, d.title, d.description, d.tags, d.isPublic, d.cardCount,
+            u.id, u.username, d.createdAt, d.updatedAt,
+            d.contentVersion, d.contentUpdatedAt
+        )
+        FROM Deck d JOIN d.user u
+        WHERE d.id = :deckId
+        AND (d.user.id = :userId OR d.isPublic = true)
+        """)
+    Optional<DeckSnapshot> findSnapshotByIdAndUserIdOrPublic(
+        @Param("deckId") UUID deckId,
+        @Param("userId") UUID userId
+    );
+
+    /**
+     * Número de tarjetas de un mazo (columna card_count, sin COUNT sobre cards)
+     */
+    @Query("SELECT d.cardCount FROM Deck d WHERE d.id = :deckId")
+    Optional<Integer> findCardCountById(@Param("deckId") UUID deckId);
+
     /**
      * Verificar si un deck pertenece a un usuario
      */
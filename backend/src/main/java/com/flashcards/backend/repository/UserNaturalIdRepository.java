@@ -0,0 +1,14 @@
+package com.flashcards.backend.repository;
+
+import com.flashcards.backend.model.User;
+
+import java.util.Optional;
+
+/**
+ * Búsqueda de usuarios por natural-id (email), implementada en UserNaturalIdRepositoryImpl
+ */
+public interface UserNaturalIdRepository {
+
+    /** Email exacto, tal como se guarda; con el perfil l2cache no va a la BD si ya está en caché */
+    Optional<User> findByNaturalId(String email);
+}
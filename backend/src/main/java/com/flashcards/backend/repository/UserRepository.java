@@ -2,13 +2,25 @@ package com.flashcards.backend.repository;
 
 import com.flashcards.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
+
+    /**
+     * Usuario por email ya normalizado: primero por natural-id (la caché de
+     * segundo nivel, si está activa) y si no, sin distinguir mayúsculas para
+     * los usuarios guardados antes de normalizar el email.
+     */
+    default Optional<User> findByEmail(String email) {
+        return findByNaturalId(email).or(() -> findByEmailIgnoreCase(email));
+    }
 
     Optional<User> findByEmailIgnoreCase(String email);
 
@@ -17,4 +29,11 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmailIgnoreCase(String email);
 
     boolean existsByUsernameIgnoreCase(String username);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenVersionById(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :userId")
+    int incrementTokenVersion(@Param("userId") UUID userId);
 }
\ No newline at end of file
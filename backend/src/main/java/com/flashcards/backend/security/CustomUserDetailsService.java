@@ -3,15 +3,12 @@ package com.flashcards.backend.security;
 import com.flashcards.backend.model.User;
 import com.flashcards.backend.repository.UserRepository;
 
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
 
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
@@ -19,22 +16,13 @@ public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String email) throws UsernameNotFoundException {
 
-        User user = userRepository.findByEmailIgnoreCase(email)
+        User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> 
                     new UsernameNotFoundException("Usuario no encontrado con email: " + email)
                 );
 
-        return org.springframework.security.core.userdetails.User
-                .builder()
-                .username(user.getEmail())
-                .password(user.getPasswordHash())
-                .authorities(Collections.emptyList())    
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        return UserPrincipal.from(user);
     }
 }
\ No newline at end of file
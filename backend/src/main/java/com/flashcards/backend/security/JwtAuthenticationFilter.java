@@ -1,5 +1,7 @@
 package com.flashcards.backend.security;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +27,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
 
     @Override
     protected void doFilterInternal(
@@ -36,19 +39,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt)
+            // Un único parseo por petición (o ninguno si el token ya está verificado en caché)
+            Claims claims = StringUtils.hasText(jwt)
                     && SecurityContextHolder.getContext().getAuthentication() == null
-                    && jwtTokenProvider.validateToken(jwt)) {
-                
-                String email = jwtTokenProvider.getEmailFromToken(jwt);
+                    ? jwtTokenProvider.parseClaims(jwt)
+                    : null;
+
+            UserPrincipal principal = claims != null ? resolvePrincipal(claims) : null;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (principal != null) {
 
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        principal.getAuthorities()
                     );
 
                 authentication.setDetails(
@@ -64,6 +69,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Construye el principal desde los claims, sin ir a la BD, si la versión del
+     * token sigue vigente. Los tokens antiguos (sin uid/ver) se resuelven
+     * por email como antes hasta que caduquen.
+     */
+    private UserPrincipal resolvePrincipal(Claims claims) {
+        String userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, String.class);
+        Integer tokenVersion = claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class);
+
+        if (userId == null || tokenVersion == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        UUID id = UUID.fromString(userId);
+        if (!tokenVersionService.isCurrent(id, tokenVersion)) {
+            log.warn("Token JWT revocado para usuario ID: {}", id);
+            return null;
+        }
+
+        return new UserPrincipal(
+                id,
+                claims.getSubject(),
+                claims.get(JwtTokenProvider.CLAIM_USERNAME, String.class),
+                null);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
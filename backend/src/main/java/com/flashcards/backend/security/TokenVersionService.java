@@ -0,0 +1,86 @@
+package com.flashcards.backend.security;
+
+import com.flashcards.backend.config.PrimaryReads;
+import com.flashcards.backend.repository.UserRepository;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * TokenVersionService - Tabla en memoria con la versión de token vigente de cada usuario
+ *
+ * El filtro JWT autentica solo con los claims del token y consulta aquí si la
+ * versión del token sigue siendo la actual. La tabla se rellena desde la BD la
+ * primera vez que se ve a un usuario (o al hacer login) y se invalida cuando
+ * cambian sus credenciales. El TTL es una red de seguridad para que otras
+ * instancias acaben viendo una revocación hecha en esta. Se lee del primario
+ * (PrimaryReads): desde una réplica atrasada un token revocado volvería a valer.
+ */
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    // Usuario inexistente (borrado): ningún token suyo es válido
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final LoadingCache<UUID, Integer> versions;
+
+    public TokenVersionService(
+            UserRepository userRepository,
+            PrimaryReads primaryReads,
+            @Value("${jwt.version-cache.max-size:100000}") long maxSize,
+            @Value("${jwt.version-cache.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(userId -> primaryReads.read(() -> userRepository.findTokenVersionById(userId)).orElse(REVOKED));
+    }
+
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        return tokenVersion != REVOKED && versions.get(userId) == tokenVersion;
+    }
+
+    /**
+     * Guarda la versión leída al emitir un token (registro o login),
+     * así la primera petición autenticada no tiene que ir a la BD.
+     */
+    public void prime(UUID userId, int tokenVersion) {
+        versions.put(userId, tokenVersion);
+    }
+
+    /**
+     * Invalida todos los tokens emitidos hasta ahora para el usuario.
+     * Llamar cuando cambien sus credenciales (contraseña, email) o para cerrar todas sus sesiones.
+     */
+    @Transactional
+    public void revokeTokens(UUID userId) {
+        userRepository.incrementTokenVersion(userId);
+        versions.invalidate(userId);
+
+        // Una petición concurrente pudo recargar la versión antigua antes del commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        }
+
+        log.info("Tokens revocados para usuario ID: {}", userId);
+    }
+}
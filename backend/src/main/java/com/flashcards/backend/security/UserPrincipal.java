@@ -0,0 +1,56 @@
+package com.flashcards.backend.security;
+
+import com.flashcards.backend.model.User;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * UserPrincipal - Usuario autenticado de la petición actual
+ *
+ * Lo construye el filtro JWT una sola vez por petición y llega a los
+ * controllers con @AuthenticationPrincipal, así los services trabajan con el
+ * id del usuario sin volver a buscarlo por email.
+ *
+ * Ojo: para Spring Security getUsername() es el identificador de login (email);
+ * el nombre de usuario de la app es username().
+ */
+public record UserPrincipal(
+    UUID id,
+    String email,
+    String username,
+    String passwordHash
+) implements UserDetails {
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
+                user.getUsername(),
+                user.getPasswordHash());
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return passwordHash;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal[id=" + id + ", username=" + username + "]";
+    }
+}
@@ -1,5 +1,6 @@
 package com.flashcards.backend.service;
 
+import com.flashcards.backend.config.PrimaryReads;
 import com.flashcards.backend.dto.request.LoginRequest;
 import com.flashcards.backend.dto.request.RegisterRequest;
 import com.flashcards.backend.dto.response.AuthResponse;
@@ -9,6 +10,7 @@ import com.flashcards.backend.exception.DuplicateResourceException;
 import com.flashcards.backend.model.User;
 import com.flashcards.backend.repository.UserRepository;
 import com.flashcards.backend.security.JwtTokenProvider;
+import com.flashcards.backend.security.TokenVersionService;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,7 +36,9 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenVersionService tokenVersionService;
     private final AuthenticationManager authenticationManager;
+    private final PrimaryReads primaryReads;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -61,7 +65,8 @@ public class AuthService {
             User savedUser = userRepository.saveAndFlush(user);
             log.info("Usuario registrado con éxito. ID: {}", savedUser.getId());
 
-            String token = jwtTokenProvider.generateToken(savedUser.getEmail());
+            String token = jwtTokenProvider.generateToken(savedUser);
+            tokenVersionService.prime(savedUser.getId(), savedUser.getTokenVersion());
             return new AuthResponse(token, mapToUserResponse(savedUser));
 
         } catch (DataIntegrityViolationException e) {
@@ -86,10 +91,12 @@ public class AuthService {
             throw new BadCredentialsException("Email o contraseña incorrectos");
         }
 
-        User user = userRepository.findByEmailIgnoreCase(normalizedEmail)
+        // Del primario: la versión leída aquí se guarda en TokenVersionService (prime)
+        User user = primaryReads.read(() -> userRepository.findByEmail(normalizedEmail))
                 .orElseThrow(() -> new BadCredentialsException("Usuario no encontrado"));
 
-        String token = jwtTokenProvider.generateToken(user.getEmail());
+        String token = jwtTokenProvider.generateToken(user);
+        tokenVersionService.prime(user.getId(), user.getTokenVersion());
 
         log.info("Login exitoso para usuario ID: {}", user.getId());
         return new AuthResponse(token, mapToUserResponse(user));
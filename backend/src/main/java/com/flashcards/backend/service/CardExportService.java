@@ -0,0 +1,170 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.request.CardExportFormat;
+import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * CardExportService - Exportación de las tarjetas de un mazo en streaming
+ * 
+ * Recorre las tarjetas con un cursor de servidor (fetch size fijo dentro de una
+ * transacción, que es cuando el driver de PostgreSQL no trae todo el resultado)
+ * y escribe cada fila directamente en la respuesta. Nunca hay más de fetch-size
+ * filas en memoria, tenga el mazo 100 o 200.000 tarjetas.
+ */
+@Service
+@Slf4j
+public class CardExportService {
+
+    private static final String EXPORT_QUERY = """
+        SELECT id, deck_id, front, back, created_at, updated_at
+        FROM cards
+        WHERE deck_id = ?
+        ORDER BY created_at, id
+        """;
+
+    private static final String CSV_HEADER = "id,front,back,createdAt,updatedAt\n";
+
+    private final DeckMetadataCache deckMetadataCache;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public CardExportService(
+            DeckMetadataCache deckMetadataCache,
+            ObjectMapper objectMapper,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${cards.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.deckMetadataCache = deckMetadataCache;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Exportar las tarjetas de un mazo
+     * 
+     * Los permisos se comprueban al llamar (propietario o público), antes de
+     * empezar a responder; las tarjetas se leen al escribir el cuerpo.
+     * 
+     * @param deckId    - ID del mazo
+     * @param format    - NDJSON o CSV
+     * @param principal - Usuario autenticado
+     * @return Cuerpo de la respuesta, escrito fila a fila
+     */
+    public StreamingResponseBody exportCards(UUID deckId, CardExportFormat format, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
+
+        return out -> writeCards(deckId, format, out);
+    }
+
+    private void writeCards(UUID deckId, CardExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long[] rows = { 0 };
+
+        try {
+            if (format == CardExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_QUERY, rs -> {
+                try {
+                    if (format == CardExportFormat.CSV) {
+                        writeCsvRow(writer, rs);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(mapRow(rs)));
+                        writer.write('\n');
+                    }
+
+                    // Un lote por fetch: el cliente recibe datos mientras se lee el siguiente
+                    if (++rows[0] % fetchSize == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, deckId));
+
+            writer.flush();
+            log.info("Exportadas {} tarjetas del deck {} ({})", rows[0], deckId, format);
+        } catch (UncheckedIOException ex) {
+            // Normalmente el cliente cortó la descarga: la transacción ya se deshizo
+            log.warn("Exportación del deck {} interrumpida tras {} tarjetas", deckId, rows[0]);
+            throw ex.getCause();
+        }
+    }
+
+    private CardResponse mapRow(ResultSet rs) throws SQLException {
+        return new CardResponse(
+                rs.getObject("id", UUID.class),
+                rs.getObject("deck_id", UUID.class),
+                rs.getString("front"),
+                rs.getString("back"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class)
+        );
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write(rs.getString("id"));
+        writer.write(',');
+        writeCsvField(writer, rs.getString("front"));
+        writer.write(',');
+        writeCsvField(writer, rs.getString("back"));
+        writer.write(',');
+        writer.write(rs.getObject("created_at", LocalDateTime.class).toString());
+        writer.write(',');
+        writer.write(rs.getObject("updated_at", LocalDateTime.class).toString());
+        writer.write('\n');
+    }
+
+    /** Campo entre comillas solo si lo necesita (comas, comillas o saltos de línea) */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0
+                || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0;
+
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
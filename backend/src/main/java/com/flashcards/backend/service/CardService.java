@@ -1,33 +1,177 @@
 package com.flashcards.backend.service;
 
+import com.flashcards.backend.dto.request.CardPatchRequest;
 import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.KeysetCursor;
+import com.flashcards.backend.dto.response.BulkCardMutationResponse;
+import com.flashcards.backend.dto.response.BulkCardMutationResponse.ItemResult;
+import com.flashcards.backend.dto.response.BulkCardMutationResponse.Outcome;
+import com.flashcards.backend.dto.response.BulkCardResponse;
 import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.dto.response.CursorPageResponse;
+import com.flashcards.backend.dto.response.DuplicateCardGroupResponse;
+import com.flashcards.backend.exception.BadRequestException;
+import com.flashcards.backend.exception.DuplicateResourceException;
 import com.flashcards.backend.exception.ResourceNotFoundException;
 import com.flashcards.backend.model.Card;
-import com.flashcards.backend.model.Deck;
-import com.flashcards.backend.model.User;
+import com.flashcards.backend.model.DeckMetadata;
 import com.flashcards.backend.repository.CardRepository;
 import com.flashcards.backend.repository.DeckRepository;
-import com.flashcards.backend.repository.UserRepository;
+import com.flashcards.backend.security.UserPrincipal;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CardService {
 
+    /**
+     * Un INSERT por lote: los arrays llegan como dos parámetros y unnest los
+     * convierte en filas, así los triggers de card_count saltan una vez por lote
+     */
+    private static final String BULK_INSERT = """
+        INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+        SELECT ?, t.front, t.back,
+               CAST(? AS TIMESTAMP) + (t.position - 1) * INTERVAL '1 microsecond',
+               CAST(? AS TIMESTAMP) + (t.position - 1) * INTERVAL '1 microsecond'
+        FROM unnest(CAST(? AS TEXT[]), CAST(? AS TEXT[])) WITH ORDINALITY AS t(front, back, position)
+        """;
+
+    /**
+     * Inserción masiva sin duplicados: cada tarjeta se busca en el mazo por
+     * content_hash (una búsqueda en idx_cards_deck_content_hash) y, si se
+     * repite dentro del lote, se queda la primera. Devuelve las posiciones
+     * insertadas; las demás eran duplicados. Los lotes siguientes ya ven las
+     * tarjetas insertadas por los anteriores.
+     */
+    private static final String BULK_INSERT_DEDUP = """
+        WITH incoming AS (
+            SELECT t.front, t.back, t.position, card_content_hash(t.front, t.back) AS content_hash
+            FROM unnest(CAST(? AS TEXT[]), CAST(? AS TEXT[])) WITH ORDINALITY AS t(front, back, position)
+        ),
+        fresh AS (
+            SELECT DISTINCT ON (i.content_hash) i.front, i.back, i.position
+            FROM incoming i
+            WHERE NOT EXISTS (
+                SELECT 1 FROM cards c WHERE c.deck_id = ? AND c.content_hash = i.content_hash
+            )
+            ORDER BY i.content_hash, i.position
+        ),
+        inserted AS (
+            INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+            SELECT ?, f.front, f.back,
+                   CAST(? AS TIMESTAMP) + (f.position - 1) * INTERVAL '1 microsecond',
+                   CAST(? AS TIMESTAMP) + (f.position - 1) * INTERVAL '1 microsecond'
+            FROM fresh f
+        )
+        SELECT position FROM fresh
+        """;
+
+    /**
+     * Dedup es buscar y luego insertar, y idx_cards_deck_content_hash no es
+     * único: dos importaciones a la vez en el mismo mazo pasarían las dos la
+     * búsqueda. Se serializan con el bloqueo de la fila del mazo, el mismo
+     * que toma después el trigger de card_count al insertar.
+     */
+    private static final String LOCK_DECK = """
+        SELECT id FROM decks WHERE id = ? FOR UPDATE
+        """;
+
+    private static final String FIND_DUPLICATE = """
+        SELECT id FROM cards
+        WHERE deck_id = ? AND content_hash = card_content_hash(?, ?)
+        LIMIT 1
+        """;
+
+    /**
+     * Tarjetas cuyo content_hash se repite en el mazo. Los grupos salen del
+     * índice (deck_id, content_hash) y se ordenan por su tarjeta más antigua.
+     */
+    private static final String FIND_DUPLICATES = """
+        SELECT c.id, c.front, c.back, c.created_at, c.updated_at, c.content_hash
+        FROM cards c
+        WHERE c.deck_id = ?
+          AND c.content_hash IN (
+              SELECT content_hash FROM cards
+              WHERE deck_id = ?
+              GROUP BY content_hash
+              HAVING count(*) > 1
+          )
+        ORDER BY min(c.created_at) OVER (PARTITION BY c.content_hash), c.content_hash, c.created_at, c.id
+        """;
+
+    /**
+     * Edición masiva: un UPDATE por lote unido a los cambios (unnest de tres
+     * arrays). null en front/back deja el valor actual. Solo toca tarjetas
+     * del mazo y devuelve las que ha encontrado.
+     */
+    private static final String BULK_UPDATE = """
+        UPDATE cards c
+        SET front = COALESCE(v.front, c.front),
+            back = COALESCE(v.back, c.back),
+            updated_at = ?
+        FROM unnest(CAST(? AS UUID[]), CAST(? AS TEXT[]), CAST(? AS TEXT[])) AS v(id, front, back)
+        WHERE c.id = v.id AND c.deck_id = ?
+        RETURNING c.id
+        """;
+
+    private static final String BULK_DELETE = """
+        DELETE FROM cards
+        WHERE deck_id = ? AND id = ANY(?)
+        RETURNING id
+        """;
+
     private final CardRepository cardRepository;
     private final DeckRepository deckRepository;
-    private final UserRepository userRepository;
+    private final DeckMetadataCache deckMetadataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final int bulkMaxCards;
+    private final int bulkBatchSize;
+
+    public CardService(
+            CardRepository cardRepository,
+            DeckRepository deckRepository,
+            DeckMetadataCache deckMetadataCache,
+            ApplicationEventPublisher eventPublisher,
+            JdbcTemplate jdbcTemplate,
+            Validator validator,
+            @Value("${cards.bulk.max-cards:10000}") int bulkMaxCards,
+            @Value("${cards.bulk.batch-size:1000}") int bulkBatchSize
+    ) {
+        this.cardRepository = cardRepository;
+        this.deckRepository = deckRepository;
+        this.deckMetadataCache = deckMetadataCache;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.bulkMaxCards = bulkMaxCards;
+        this.bulkBatchSize = bulkBatchSize;
+    }
 
     /**
      * Crear una tarjeta en un mazo
@@ -35,33 +179,161 @@ public class CardService {
      * Solo el propietario del mazo puede añadir tarjetas
      */
     @Transactional
-    public CardResponse createCard(UUID deckId, CardRequest request, String userEmail) {
-        log.info("Creando card en deck {} para usuario: {}", deckId, userEmail);
+    public CardResponse createCard(UUID deckId, CardRequest request, UserPrincipal principal) {
+        return createCard(deckId, request, false, principal);
+    }
+
+    /**
+     * Crear una tarjeta en un mazo, opcionalmente sin duplicados
+     *
+     * Con dedup, si el mazo ya tiene una tarjeta con el mismo contenido
+     * normalizado no se crea (409). La comprobación es una búsqueda en el
+     * índice (deck_id, content_hash), con el mazo bloqueado hasta el commit.
+     */
+    @Transactional
+    public CardResponse createCard(UUID deckId, CardRequest request, boolean dedup, UserPrincipal principal) {
+        log.info("Creando card en deck {} para usuario: {}", deckId, principal.id());
 
-        User user = getUser(userEmail);
-        Deck deck = getDeckOwnedBy(deckId, user.getId());
+        DeckMetadata deck = deckMetadataCache.requireOwned(deckId, principal.id());
 
+        if (dedup) {
+            lockDeck(deckId);
+        }
+        if (dedup && !jdbcTemplate.queryForList(FIND_DUPLICATE, UUID.class, deckId, request.front(), request.back()).isEmpty()) {
+            throw new DuplicateResourceException("La tarjeta ya existe en el mazo");
+        }
+
+        // Referencia sin consulta: los permisos ya se comprobaron en la caché
         Card card = Card.builder()
-                .deck(deck)
+                .deck(deckRepository.getReferenceById(deckId))
                 .front(request.front())
                 .back(request.back())
                 .build();
 
         Card saved = cardRepository.save(card);
+        cardsChanged(deck);
         log.info("Card creada con ID: {}", saved.getId());
 
         return mapToResponse(saved);
     }
 
+    /**
+     * Crear muchas tarjetas en un mazo
+     *
+     * Solo el propietario del mazo puede añadir tarjetas
+     */
+    @Transactional
+    public BulkCardResponse createCards(UUID deckId, List<CardRequest> requests, UserPrincipal principal) {
+        return createCards(deckId, requests, false, principal);
+    }
+
+    /**
+     * Crear muchas tarjetas en un mazo, opcionalmente sin duplicados
+     *
+     * Solo el propietario del mazo puede añadir tarjetas. Los permisos se
+     * comprueban una vez; las tarjetas válidas se insertan con JDBC en lotes
+     * de batch-size (un INSERT ... SELECT unnest por lote) y las inválidas se
+     * devuelven por posición sin insertar.
+     *
+     * Con dedup se saltan las tarjetas que ya existen en el mazo o que se
+     * repiten en la petición (se queda la primera), y se devuelven por posición.
+     * El mazo queda bloqueado hasta el commit: otra importación con dedup espera.
+     *
+     * created_at avanza un microsegundo por tarjeta para que el orden del
+     * mazo (created_at, id) sea el de la petición.
+     */
+    @Transactional
+    public BulkCardResponse createCards(UUID deckId, List<CardRequest> requests, boolean dedup, UserPrincipal principal) {
+        checkBulkSize(requests.size());
+
+        DeckMetadata deck = deckMetadataCache.requireOwned(deckId, principal.id());
+
+        List<Integer> valid = new ArrayList<>(requests.size());
+        List<BulkCardResponse.ItemError> errors = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> itemErrors = validate(requests.get(i));
+            if (itemErrors.isEmpty()) {
+                valid.add(i);
+            } else {
+                errors.add(new BulkCardResponse.ItemError(i, itemErrors));
+            }
+        }
+
+        List<Integer> duplicates = new ArrayList<>();
+        if (!valid.isEmpty()) {
+            if (dedup) {
+                lockDeck(deckId);
+            }
+            LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+            for (int from = 0; from < valid.size(); from += bulkBatchSize) {
+                List<Integer> batch = valid.subList(from, Math.min(from + bulkBatchSize, valid.size()));
+                Timestamp createdAt = Timestamp.valueOf(start.plus(from, ChronoUnit.MICROS));
+                String[] fronts = batch.stream().map(i -> requests.get(i).front()).toArray(String[]::new);
+                String[] backs = batch.stream().map(i -> requests.get(i).back()).toArray(String[]::new);
+
+                if (!dedup) {
+                    jdbcTemplate.update(BULK_INSERT, deckId, createdAt, createdAt, fronts, backs);
+                    continue;
+                }
+
+                // Posiciones (desde 1) insertadas; el resto del lote eran duplicados
+                Set<Long> inserted = new HashSet<>(jdbcTemplate.queryForList(BULK_INSERT_DEDUP, Long.class,
+                        fronts, backs, deckId, deckId, createdAt, createdAt));
+                for (int position = 1; position <= batch.size(); position++) {
+                    if (!inserted.contains((long) position)) {
+                        duplicates.add(batch.get(position - 1));
+                    }
+                }
+            }
+            if (duplicates.size() < valid.size()) {
+                cardsChanged(deck);
+            }
+        }
+
+        int created = valid.size() - duplicates.size();
+        log.info("Creadas {} cards en deck {} ({} rechazadas, {} duplicadas)",
+                created, deckId, errors.size(), duplicates.size());
+
+        return new BulkCardResponse(created, errors.size(), errors, duplicates.size(), duplicates);
+    }
+
+    /**
+     * Tarjetas duplicadas de un mazo, agrupadas por contenido normalizado
+     *
+     * Accesible si eres el propietario o el mazo es público. Lee solo las
+     * tarjetas repetidas: el resto del mazo no sale del índice.
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicateCardGroupResponse> getDuplicates(UUID deckId, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
+
+        Map<ByteBuffer, List<CardResponse>> groups = new LinkedHashMap<>();
+        jdbcTemplate.query(FIND_DUPLICATES, rs -> {
+            CardResponse card = new CardResponse(
+                    rs.getObject("id", UUID.class),
+                    deckId,
+                    rs.getString("front"),
+                    rs.getString("back"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    rs.getTimestamp("updated_at").toLocalDateTime());
+            groups.computeIfAbsent(ByteBuffer.wrap(rs.getBytes("content_hash")), hash -> new ArrayList<>()).add(card);
+        }, deckId, deckId);
+
+        return groups.values().stream()
+                .map(cards -> new DuplicateCardGroupResponse(cards.getFirst(), cards.subList(1, cards.size())))
+                .toList();
+    }
+
     /**
      * Listar todas las tarjetas de un mazo
      *
      * Accesible si eres el propietario o el mazo es público
      */
     @Transactional(readOnly = true)
-    public List<CardResponse> getCards(UUID deckId, String userEmail) {
-        User user = getUser(userEmail);
-        getDeckWithReadAccess(deckId, user.getId());
+    public List<CardResponse> getCards(UUID deckId, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
 
         return cardRepository.findByDeck_Id(deckId)
                 .stream()
@@ -69,15 +341,68 @@ public class CardService {
                 .toList();
     }
 
+    /**
+     * Listar las tarjetas de un mazo por cursor (keyset), en orden de creación
+     *
+     * Accesible si eres el propietario o el mazo es público. Sin COUNT: el
+     * total solo se incluye si se pide, y sale de decks.card_count.
+     *
+     * @param deckId       - ID del mazo
+     * @param cursor       - Cursor opaco de la página anterior (null/vacío = primera)
+     * @param size         - Tamaño de página
+     * @param includeTotal - Incluir el número total de tarjetas del mazo
+     * @param principal    - Usuario autenticado
+     * @return CursorPageResponse con las tarjetas y el cursor siguiente
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CardResponse> getCardsByCursor(
+            UUID deckId,
+            String cursor,
+            int size,
+            boolean includeTotal,
+            UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
+
+        KeysetCursor after = KeysetCursor.decode(cursor, KeysetCursor.FIRST_ASC);
+        CursorPageResponse<CardResponse> page = pageAfter(deckId, after, size);
+
+        if (!includeTotal) {
+            return page;
+        }
+
+        long total = deckRepository.findCardCountById(deckId)
+                .map(Integer::longValue)
+                .orElseThrow(() -> new ResourceNotFoundException("Deck no encontrado"));
+        return new CursorPageResponse<>(page.content(), size, page.nextCursor(), total);
+    }
+
+    /**
+     * Página de tarjetas posterior al cursor, sin comprobar permisos
+     * (el llamador ya los ha comprobado)
+     */
+    CursorPageResponse<CardResponse> pageAfter(UUID deckId, KeysetCursor after, int size) {
+        // Se pide un elemento extra para saber si hay página siguiente
+        List<CardResponse> cards = cardRepository.findResponsesByDeckIdAfter(
+                deckId, after.createdAt(), after.id(), Limit.of(size + 1));
+
+        String nextCursor = null;
+        if (cards.size() > size) {
+            cards = cards.subList(0, size);
+            CardResponse last = cards.get(size - 1);
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new CursorPageResponse<>(cards, size, nextCursor);
+    }
+
     /**
      * Obtener una tarjeta específica de un mazo
      *
      * Accesible si eres el propietario o el mazo es público
      */
     @Transactional(readOnly = true)
-    public CardResponse getCard(UUID deckId, UUID cardId, String userEmail) {
-        User user = getUser(userEmail);
-        getDeckWithReadAccess(deckId, user.getId());
+    public CardResponse getCard(UUID deckId, UUID cardId, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
 
         Card card = cardRepository.findByIdAndDeckId(cardId, deckId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tarjeta no encontrada"));
@@ -91,11 +416,10 @@ public class CardService {
      * Solo el propietario del mazo puede editar tarjetas
      */
     @Transactional
-    public CardResponse updateCard(UUID deckId, UUID cardId, CardRequest request, String userEmail) {
-        log.info("Actualizando card {} del deck {} para usuario: {}", cardId, deckId, userEmail);
+    public CardResponse updateCard(UUID deckId, UUID cardId, CardRequest request, UserPrincipal principal) {
+        log.info("Actualizando card {} del deck {} para usuario: {}", cardId, deckId, principal.id());
 
-        User user = getUser(userEmail);
-        getDeckOwnedBy(deckId, user.getId());
+        deckMetadataCache.requireOwned(deckId, principal.id());
 
         Card card = cardRepository.findByIdAndDeckId(cardId, deckId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tarjeta no encontrada"));
@@ -104,6 +428,7 @@ public class CardService {
         card.setBack(request.back());
 
         Card saved = cardRepository.save(card);
+        deckMetadataCache.evict(deckId);
         log.info("Card {} actualizada", cardId);
 
         return mapToResponse(saved);
@@ -115,43 +440,182 @@ public class CardService {
      * Solo el propietario del mazo puede eliminar tarjetas
      */
     @Transactional
-    public void deleteCard(UUID deckId, UUID cardId, String userEmail) {
-        log.info("Eliminando card {} del deck {} para usuario: {}", cardId, deckId, userEmail);
+    public void deleteCard(UUID deckId, UUID cardId, UserPrincipal principal) {
+        log.info("Eliminando card {} del deck {} para usuario: {}", cardId, deckId, principal.id());
 
-        User user = getUser(userEmail);
-        getDeckOwnedBy(deckId, user.getId());
+        DeckMetadata deck = deckMetadataCache.requireOwned(deckId, principal.id());
 
         Card card = cardRepository.findByIdAndDeckId(cardId, deckId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tarjeta no encontrada"));
 
         cardRepository.delete(card);
+        cardsChanged(deck);
         log.info("Card {} eliminada", cardId);
     }
 
+    /**
+     * Editar muchas tarjetas de un mazo
+     *
+     * Solo el propietario del mazo puede editar tarjetas. Los permisos se
+     * comprueban una vez y los cambios válidos se aplican con un UPDATE por
+     * lote de batch-size, todo en una transacción. Devuelve el resultado de
+     * cada tarjeta en el orden de la petición: UPDATED, NOT_FOUND (no existe
+     * en este mazo) o INVALID.
+     */
+    @Transactional
+    public BulkCardMutationResponse updateCards(UUID deckId, List<CardPatchRequest> patches, UserPrincipal principal) {
+        checkBulkSize(patches.size());
+        deckMetadataCache.requireOwned(deckId, principal.id());
+
+        ItemResult[] results = new ItemResult[patches.size()];
+        List<Integer> valid = new ArrayList<>(patches.size());
+        Set<UUID> seen = new HashSet<>();
+
+        for (int i = 0; i < patches.size(); i++) {
+            CardPatchRequest patch = patches.get(i);
+            Map<String, String> itemErrors = validate(patch, seen);
+            if (itemErrors.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = new ItemResult(i, patch != null ? patch.id() : null, Outcome.INVALID, itemErrors);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        Set<UUID> updated = new HashSet<>();
+        for (int from = 0; from < valid.size(); from += bulkBatchSize) {
+            List<CardPatchRequest> batch = valid.subList(from, Math.min(from + bulkBatchSize, valid.size()))
+                    .stream()
+                    .map(patches::get)
+                    .toList();
+
+            updated.addAll(jdbcTemplate.query(BULK_UPDATE,
+                    (rs, rowNum) -> rs.getObject(1, UUID.class),
+                    now,
+                    batch.stream().map(CardPatchRequest::id).toArray(UUID[]::new),
+                    batch.stream().map(CardPatchRequest::front).toArray(String[]::new),
+                    batch.stream().map(CardPatchRequest::back).toArray(String[]::new),
+                    deckId));
+        }
+
+        for (int i : valid) {
+            UUID id = patches.get(i).id();
+            results[i] = new ItemResult(i, id, updated.contains(id) ? Outcome.UPDATED : Outcome.NOT_FOUND, null);
+        }
+
+        if (!updated.isEmpty()) {
+            deckMetadataCache.evict(deckId);
+        }
+        log.info("Actualizadas {} de {} cards en deck {}", updated.size(), patches.size(), deckId);
+
+        return BulkCardMutationResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Eliminar muchas tarjetas de un mazo
+     *
+     * Solo el propietario del mazo puede eliminar tarjetas. Los permisos se
+     * comprueban una vez y se borra con un DELETE ... = ANY por lote de
+     * batch-size, todo en una transacción. Devuelve el resultado de cada id
+     * en el orden de la petición: DELETED, NOT_FOUND o INVALID (nulo o repetido).
+     */
+    @Transactional
+    public BulkCardMutationResponse deleteCards(UUID deckId, List<UUID> ids, UserPrincipal principal) {
+        checkBulkSize(ids.size());
+        DeckMetadata deck = deckMetadataCache.requireOwned(deckId, principal.id());
+
+        ItemResult[] results = new ItemResult[ids.size()];
+        List<UUID> valid = new ArrayList<>(ids.size());
+        Set<UUID> seen = new HashSet<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            if (id == null) {
+                results[i] = new ItemResult(i, null, Outcome.INVALID, Map.of("id", "El id de la tarjeta es obligatorio"));
+            } else if (!seen.add(id)) {
+                results[i] = new ItemResult(i, id, Outcome.INVALID, Map.of("id", "Tarjeta repetida en la petición"));
+            } else {
+                valid.add(id);
+            }
+        }
+
+        Set<UUID> deleted = new HashSet<>();
+        for (int from = 0; from < valid.size(); from += bulkBatchSize) {
+            UUID[] batch = valid.subList(from, Math.min(from + bulkBatchSize, valid.size())).toArray(UUID[]::new);
+            deleted.addAll(jdbcTemplate.query(BULK_DELETE, (rs, rowNum) -> rs.getObject(1, UUID.class), deckId, batch));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            if (results[i] == null) {
+                UUID id = ids.get(i);
+                results[i] = new ItemResult(i, id, deleted.contains(id) ? Outcome.DELETED : Outcome.NOT_FOUND, null);
+            }
+        }
+
+        if (!deleted.isEmpty()) {
+            cardsChanged(deck);
+        }
+        log.info("Eliminadas {} de {} cards en deck {}", deleted.size(), ids.size(), deckId);
+
+        return BulkCardMutationResponse.of(Arrays.asList(results));
+    }
+
     // ========== HELPERS PRIVADOS ==========
 
-    private User getUser(String email) {
-        return userRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    private void lockDeck(UUID deckId) {
+        jdbcTemplate.queryForList(LOCK_DECK, UUID.class, deckId);
     }
 
-    /** Obtiene el deck solo si el usuario es propietario (para escritura) */
-    private Deck getDeckOwnedBy(UUID deckId, UUID userId) {
-        Deck deck = deckRepository.findById(deckId)
-                .orElseThrow(() -> new ResourceNotFoundException("Deck no encontrado"));
+    private void checkBulkSize(int size) {
+        if (size > bulkMaxCards) {
+            throw new BadRequestException("Como máximo " + bulkMaxCards + " tarjetas por petición");
+        }
+    }
+
+    /** Tras crear o borrar tarjetas: metadatos y, si el mazo es público, el catálogo (card_count) */
+    private void cardsChanged(DeckMetadata deck) {
+        deckMetadataCache.evict(deck.id());
+        if (deck.isPublic()) {
+            eventPublisher.publishEvent(new PublicCatalogChangedEvent(deck.id()));
+        }
+    }
 
-        if (!deck.isOwnedBy(userId)) {
-            throw new AccessDeniedException("No tienes permiso para modificar este deck");
+    /** Errores de validación de una tarjeta: campo → mensaje (vacío si es válida) */
+    private Map<String, String> validate(CardRequest request) {
+        if (request == null) {
+            return Map.of("card", "La tarjeta no puede ser nula");
         }
 
-        return deck;
+        Set<ConstraintViolation<CardRequest>> violations = validator.validate(request);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<CardRequest> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
     }
 
-    /** Obtiene el deck si el usuario es propietario o el deck es público (para lectura) */
-    private Deck getDeckWithReadAccess(UUID deckId, UUID userId) {
-        return deckRepository.findByIdAndUserIdOrPublic(deckId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Deck no encontrado o no tienes permiso para verlo"));
+    /** Errores de un cambio de la edición masiva (vacío si es válido); registra su id en seen */
+    private Map<String, String> validate(CardPatchRequest patch, Set<UUID> seen) {
+        if (patch == null) {
+            return Map.of("card", "La tarjeta no puede ser nula");
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (patch.id() == null) {
+            errors.put("id", "El id de la tarjeta es obligatorio");
+        } else if (!seen.add(patch.id())) {
+            errors.put("id", "Tarjeta repetida en la petición");
+        }
+        if (patch.front() == null && patch.back() == null) {
+            errors.put("card", "No hay cambios: indica front, back o ambos");
+        }
+        if (patch.front() != null && patch.front().isBlank()) {
+            errors.put("front", "El frente de la tarjeta es obligatorio");
+        }
+        if (patch.back() != null && patch.back().isBlank()) {
+            errors.put("back", "El reverso de la tarjeta es obligatorio");
+        }
+        return errors;
     }
 
     private CardResponse mapToResponse(Card card) {
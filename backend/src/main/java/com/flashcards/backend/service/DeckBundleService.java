@@ -0,0 +1,55 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.request.KeysetCursor;
+import com.flashcards.backend.dto.response.DeckBundleResponse;
+import com.flashcards.backend.exception.ResourceNotFoundException;
+import com.flashcards.backend.model.DeckSnapshot;
+import com.flashcards.backend.repository.DeckRepository;
+import com.flashcards.backend.security.UserPrincipal;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * DeckBundleService - Mazo + primera página de tarjetas (GET /api/decks/{deckId}/bundle)
+ *
+ * Dos sentencias en total: el mazo con su versión y permisos en una lectura
+ * por clave primaria, y la página de tarjetas por el índice (deck_id, created_at, id).
+ * El controlador decide el 304 entre ambas, así que sin cambios solo se hace la primera.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeckBundleService {
+
+    private final DeckRepository deckRepository;
+    private final CardService cardService;
+
+    /**
+     * Mazo y versión de su contenido, verificando permisos (propietario o público)
+     *
+     * Sin acceso es 404, nunca 304
+     */
+    @Transactional(readOnly = true)
+    public DeckSnapshot getSnapshot(UUID deckId, UserPrincipal principal) {
+        return deckRepository.findSnapshotByIdAndUserIdOrPublic(deckId, principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Deck no encontrado o no tienes permiso para verlo"));
+    }
+
+    /**
+     * Completa el mazo con la primera página de tarjetas
+     *
+     * @param snapshot - Obtenido con getSnapshot (permisos ya comprobados)
+     * @param size     - Tamaño de la página de tarjetas
+     */
+    @Transactional(readOnly = true)
+    public DeckBundleResponse getBundle(DeckSnapshot snapshot, int size) {
+        return new DeckBundleResponse(
+                snapshot.deck(),
+                cardService.pageAfter(snapshot.deck().id(), KeysetCursor.FIRST_ASC, size));
+    }
+}
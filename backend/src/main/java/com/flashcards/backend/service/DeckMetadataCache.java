@@ -0,0 +1,133 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.config.PrimaryReads;
+import com.flashcards.backend.exception.ResourceNotFoundException;
+import com.flashcards.backend.model.Deck;
+import com.flashcards.backend.model.DeckMetadata;
+import com.flashcards.backend.repository.DeckRepository;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * DeckMetadataCache - Caché en memoria de propietario/visibilidad de cada mazo
+ *
+ * Las comprobaciones de permisos de las tarjetas (leer, crear, editar, borrar)
+ * se resuelven aquí en vez de consultar decks en cada petición. Acotada por
+ * tamaño y con TTL; DeckService y CardService la invalidan al escribir.
+ * Se carga siempre del primario (PrimaryReads): una réplica atrasada dejaría
+ * a todos los usuarios viendo, p. ej., como público un mazo recién hecho privado.
+ *
+ * Al invalidar un mazo también lo saca de la caché de segundo nivel de
+ * Hibernate (perfil l2cache): card_count y content_version los cambian
+ * triggers que Hibernate no ve.
+ *
+ * Métricas: cache.gets{cache="deckMetadata", result="hit|miss"} en /actuator/metrics
+ */
+@Component
+public class DeckMetadataCache {
+
+    private final LoadingCache<UUID, DeckMetadata> decks;
+    private final Cache secondLevelCache;
+
+    public DeckMetadataCache(
+            DeckRepository deckRepository,
+            PrimaryReads primaryReads,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${decks.metadata-cache.max-size:10000}") long maxSize,
+            @Value("${decks.metadata-cache.ttl:5m}") Duration ttl
+    ) {
+        // Los mazos inexistentes no se cachean (el loader devuelve null)
+        this.decks = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(deckId -> primaryReads.read(() -> deckRepository.findMetadataById(deckId)).orElse(null));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, decks, "deckMetadata");
+        this.secondLevelCache = entityManagerFactory.getCache();
+    }
+
+    /** Mazo visible para el usuario (propietario o público), para lectura */
+    public DeckMetadata requireReadable(UUID deckId, UUID userId) {
+        DeckMetadata deck = decks.get(deckId);
+
+        if (deck == null || !deck.isReadableBy(userId)) {
+            throw new ResourceNotFoundException("Deck no encontrado o no tienes permiso para verlo");
+        }
+
+        return deck;
+    }
+
+    /** Mazo del usuario, para escritura */
+    public DeckMetadata requireOwned(UUID deckId, UUID userId) {
+        DeckMetadata deck = decks.get(deckId);
+
+        if (deck == null) {
+            throw new ResourceNotFoundException("Deck no encontrado");
+        }
+        if (!deck.isOwnedBy(userId)) {
+            throw new AccessDeniedException("No tienes permiso para modificar este deck");
+        }
+
+        return deck;
+    }
+
+    /**
+     * Guarda un mazo recién creado cuando su transacción confirma. En segundo
+     * nivel Hibernate lo dejó sin los valores por defecto de la BD
+     * (content_updated_at), así que ahí se invalida.
+     */
+    public void putAfterCommit(DeckMetadata deck) {
+        runAfterCommit(() -> {
+            decks.put(deck.id(), deck);
+            secondLevelCache.evict(Deck.class, deck.id());
+        });
+    }
+
+    /**
+     * Invalida el mazo ya y otra vez tras el commit: una lectura concurrente
+     * pudo recargar los datos antiguos mientras la transacción seguía abierta.
+     * Tras el commit Hibernate guarda en segundo nivel el mazo tal como lo
+     * escribió (sin lo que cambiaron los triggers); esta invalidación va después.
+     */
+    public void evict(UUID deckId) {
+        invalidate(deckId);
+        runAfterCommit(() -> invalidate(deckId));
+    }
+
+    private void invalidate(UUID deckId) {
+        decks.invalidate(deckId);
+        secondLevelCache.evict(Deck.class, deckId);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
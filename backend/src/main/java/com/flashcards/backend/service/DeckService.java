@@ -1,28 +1,37 @@
 package com.flashcards.backend.service;
 
 import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.KeysetCursor;
 import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.dto.response.CursorPageResponse;
 import com.flashcards.backend.dto.response.DeckResponse;
 import com.flashcards.backend.dto.response.PageResponse;
 import com.flashcards.backend.exception.ResourceNotFoundException;
 import com.flashcards.backend.model.Deck;
-import com.flashcards.backend.model.User;
-import com.flashcards.backend.repository.CardRepository;
+import com.flashcards.backend.model.DeckMetadata;
+import com.flashcards.backend.model.DeckVersion;
 import com.flashcards.backend.repository.DeckRepository;
 import com.flashcards.backend.repository.UserRepository;
+import com.flashcards.backend.security.UserPrincipal;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -30,26 +39,57 @@ import java.util.UUID;
 @Slf4j
 public class DeckService {
 
-    private final CardRepository cardRepository;
+    /**
+     * La copia es privada y del usuario que la pide. El permiso (propietario o
+     * público) va en la propia sentencia, no en una comprobación previa: un
+     * mazo que acaba de hacerse privado o de borrarse no se copia. FOR SHARE
+     * bloquea el original hasta el commit, así las tarjetas que copia
+     * FORK_CARDS son las de un mazo que seguía siendo accesible.
+     */
+    private static final String FORK_DECK = """
+        INSERT INTO decks (user_id, title, description, tags, is_public, created_at, updated_at)
+        SELECT ?, title, description, tags, false, ?, ?
+        FROM decks
+        WHERE id = ? AND (user_id = ? OR is_public)
+        FOR SHARE
+        RETURNING id, title
+        """;
+
+    /**
+     * Copia las tarjetas dentro de la BD. created_at avanza un microsegundo
+     * por tarjeta en el orden del original (created_at, id), así la copia
+     * conserva el orden aunque el original tenga created_at empatados.
+     * card_count lo suma el trigger de V4 una sola vez.
+     */
+    private static final String FORK_CARDS = """
+        INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+        SELECT ?, c.front, c.back,
+               CAST(? AS TIMESTAMP) + (row_number() OVER (ORDER BY c.created_at, c.id) - 1) * INTERVAL '1 microsecond',
+               CAST(? AS TIMESTAMP)
+        FROM cards c
+        WHERE c.deck_id = ?
+        """;
+
     private final DeckRepository deckRepository;
     private final UserRepository userRepository;
+    private final DeckMetadataCache deckMetadataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Crear un nuevo mazo
      * 
      * @param request   - Datos del mazo
-     * @param userEmail - Email del usuario autenticado
+     * @param principal - Usuario autenticado
      * @return DeckResponse con el mazo creado
      */
     @Transactional
-    public DeckResponse createDeck(DeckRequest request, String userEmail) {
-        log.info("Creando deck para usuario: {}", userEmail);
-
-        User user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public DeckResponse createDeck(DeckRequest request, UserPrincipal principal) {
+        log.info("Creando deck para usuario: {}", principal.id());
 
+        // Referencia sin consulta: el id ya viene verificado en el token
         Deck deck = Deck.builder()
-                .user(user)
+                .user(userRepository.getReferenceById(principal.id()))
                 .title(request.title())
                 .description(request.description())
                 .tags(request.tags() != null ? request.tags() : new String[0])
@@ -57,9 +97,18 @@ public class DeckService {
                 .build();
 
         Deck savedDeck = deckRepository.saveAndFlush(deck);
+        deckMetadataCache.putAfterCommit(new DeckMetadata(
+                savedDeck.getId(),
+                principal.id(),
+                savedDeck.isPublic(),
+                savedDeck.getTitle(),
+                savedDeck.getUpdatedAt()));
+        if (savedDeck.isPublic()) {
+            eventPublisher.publishEvent(new PublicCatalogChangedEvent(savedDeck.getId()));
+        }
         log.info("Deck creado con ID: {}", savedDeck.getId());
 
-        return mapToDeckResponse(savedDeck);
+        return mapToDeckResponse(savedDeck, principal);
     }
 
     /**
@@ -68,73 +117,129 @@ public class DeckService {
      * Verifica que el usuario tenga permiso (propietario o público)
      * 
      * @param deckId    - ID del mazo
-     * @param userEmail - Email del usuario autenticado
+     * @param principal - Usuario autenticado
      * @return DeckResponse
      */
     @Transactional(readOnly = true)
-    public DeckResponse getDeckById(UUID deckId, String userEmail) {
-        User user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        Deck deck = deckRepository.findByIdAndUserIdOrPublic(deckId, user.getId())
+    public DeckResponse getDeckById(UUID deckId, UserPrincipal principal) {
+        return deckRepository.findResponseByIdAndUserIdOrPublic(deckId, principal.id())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Deck no encontrado o no tienes permiso para verlo"));
+    }
 
-        return mapToDeckResponse(deck);
+    /**
+     * Obtener la versión del contenido de un mazo (mazo + tarjetas)
+     * 
+     * Verifica los mismos permisos que getDeckById: sin acceso es 404, nunca 304
+     * 
+     * @param deckId    - ID del mazo
+     * @param principal - Usuario autenticado
+     * @return DeckVersion para construir ETag y Last-Modified
+     */
+    @Transactional(readOnly = true)
+    public DeckVersion getDeckVersion(UUID deckId, UserPrincipal principal) {
+        return deckRepository.findVersionByIdAndUserIdOrPublic(deckId, principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Deck no encontrado o no tienes permiso para verlo"));
     }
 
     /**
      * Listar mazos con paginación y filtros
      * 
-     * @param userEmail  - Email del usuario autenticado
+     * @param principal  - Usuario autenticado
      * @param page       - Número de página (0-indexed)
      * @param size       - Tamaño de página
-     * @param search     - Texto de búsqueda (opcional)
+     * @param search     - Texto de búsqueda (opcional, insensible a acentos)
      * @param tags       - Tags para filtrar (opcional)
      * @param onlyPublic - Solo mazos públicos (opcional)
      * @return PageResponse con los mazos
      */
     @Transactional(readOnly = true)
     public PageResponse<DeckResponse> getDecks(
-            String userEmail,
+            UserPrincipal principal,
             int page,
             int size,
             String search,
             String[] tags,
             Boolean onlyPublic) {
-        User user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        // El orden (createdAt DESC, id DESC) va fijo en cada query proyectada
+        Pageable pageable = PageRequest.of(page, size);
 
-        // Crear Pageable con ordenamiento por fecha de creación descendente
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Pageable pageableNoSort = PageRequest.of(page, size);
-
-        Page<Deck> deckPage;
+        Page<DeckResponse> responsePage;
 
         // Aplicar filtros
         if (tags != null && tags.length > 0) {
             // Búsqueda por tags
-            deckPage = deckRepository.findByUserIdOrPublicAndTags(user.getId(), tags, pageableNoSort);
+            responsePage = deckRepository.findResponsesByUserIdOrPublicAndTags(principal.id(), tags, pageable);
         } else if (search != null && !search.isBlank()) {
-            // Búsqueda por título
-            deckPage = deckRepository.findByUserIdOrPublicAndTitleContaining(
-                    user.getId(),
+            // Búsqueda por título (sin acentos, ordenada por similitud)
+            responsePage = deckRepository.searchResponsesByTitle(
+                    principal.id(),
                     search.trim(),
                     pageable);
         } else if (onlyPublic != null && onlyPublic) {
             // Solo mazos públicos
-            deckPage = deckRepository.findByIsPublicTrue(pageable);
+            responsePage = deckRepository.findPublicResponses(pageable);
         } else {
             // Todos los mazos (propios + públicos)
-            deckPage = deckRepository.findByUserIdOrPublic(user.getId(), pageable);
+            responsePage = deckRepository.findResponsesByUserIdOrPublic(principal.id(), pageable);
         }
 
-        // Mapear a DeckResponse
-        Page<DeckResponse> responsePage = deckPage.map(this::mapToDeckResponse);
-
         return PageResponse.of(responsePage);
     }
 
+    /**
+     * Listar mazos con paginación por cursor (keyset) y filtros
+     * 
+     * Mismos filtros que getDecks, pero sin OFFSET ni COUNT: el coste de cada
+     * página es constante aunque se avance mucho en el catálogo.
+     * 
+     * @param principal  - Usuario autenticado
+     * @param cursor     - Cursor opaco de la página anterior (null/vacío = primera)
+     * @param size       - Tamaño de página
+     * @param search     - Texto de búsqueda (opcional, insensible a acentos)
+     * @param tags       - Tags para filtrar (opcional)
+     * @param onlyPublic - Solo mazos públicos (opcional)
+     * @return CursorPageResponse con los mazos y el cursor siguiente
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DeckResponse> getDecksByCursor(
+            UserPrincipal principal,
+            String cursor,
+            int size,
+            String search,
+            String[] tags,
+            Boolean onlyPublic) {
+        KeysetCursor after = KeysetCursor.decode(cursor, KeysetCursor.FIRST_DESC);
+
+        // Se pide un elemento extra para saber si hay página siguiente
+        Limit limit = Limit.of(size + 1);
+
+        List<DeckResponse> decks;
+
+        if (tags != null && tags.length > 0) {
+            decks = deckRepository.findResponsesByUserIdOrPublicAndTagsAfter(
+                    principal.id(), tags, after.createdAt(), after.id(), size + 1);
+        } else if (search != null && !search.isBlank()) {
+            decks = deckRepository.searchResponsesByTitleAfter(
+                    principal.id(), search.trim(), after.createdAt(), after.id(), size + 1);
+        } else if (onlyPublic != null && onlyPublic) {
+            decks = deckRepository.findPublicResponsesAfter(after.createdAt(), after.id(), limit);
+        } else {
+            decks = deckRepository.findResponsesByUserIdOrPublicAfter(
+                    principal.id(), after.createdAt(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (decks.size() > size) {
+            decks = decks.subList(0, size);
+            DeckResponse last = decks.get(size - 1);
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new CursorPageResponse<>(decks, size, nextCursor);
+    }
+
     /**
      * Actualizar un mazo existente (actualización parcial)
      * 
@@ -142,24 +247,24 @@ public class DeckService {
      * 
      * @param deckId    - ID del mazo
      * @param request   - Datos a actualizar (todos opcionales)
-     * @param userEmail - Email del usuario autenticado
+     * @param principal - Usuario autenticado
      * @return DeckResponse con el mazo actualizado
      */
     @Transactional
-    public DeckResponse updateDeck(UUID deckId, UpdateDeckRequest request, String userEmail) {
-        log.info("Actualizando deck {} para usuario: {}", deckId, userEmail);
-
-        User user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public DeckResponse updateDeck(UUID deckId, UpdateDeckRequest request, UserPrincipal principal) {
+        log.info("Actualizando deck {} para usuario: {}", deckId, principal.id());
 
         Deck deck = deckRepository.findById(deckId)
                 .orElseThrow(() -> new ResourceNotFoundException("Deck no encontrado"));
 
         // Verificar que sea el propietario
-        if (!deck.isOwnedBy(user.getId())) {
+        if (!deck.isOwnedBy(principal.id())) {
             throw new AccessDeniedException("No tienes permiso para editar este deck");
         }
 
+        // Publicado, despublicado o editado estando público
+        boolean wasPublic = deck.isPublic();
+
         // Actualización parcial: solo actualizar campos no nulos
         boolean updated = false;
 
@@ -188,11 +293,15 @@ public class DeckService {
 
         if (updated) {
             Deck savedDeck = deckRepository.saveAndFlush(deck);
+            deckMetadataCache.evict(deckId);
+            if (wasPublic || savedDeck.isPublic()) {
+                eventPublisher.publishEvent(new PublicCatalogChangedEvent(deckId));
+            }
             log.info("Deck {} actualizado", deckId);
-            return mapToDeckResponse(savedDeck);
+            return mapToDeckResponse(savedDeck, principal);
         } else {
             log.info("Deck {} no modificado (sin cambios)", deckId);
-            return mapToDeckResponse(deck);
+            return mapToDeckResponse(deck, principal);
         }
     }
 
@@ -202,47 +311,79 @@ public class DeckService {
      * Solo el propietario puede eliminar
      * 
      * @param deckId    - ID del mazo
-     * @param userEmail - Email del usuario autenticado
+     * @param principal - Usuario autenticado
      */
     @Transactional
-    public void deleteDeck(UUID deckId, String userEmail) {
-        log.info("Eliminando deck {} para usuario: {}", deckId, userEmail);
-
-        User user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public void deleteDeck(UUID deckId, UserPrincipal principal) {
+        log.info("Eliminando deck {} para usuario: {}", deckId, principal.id());
 
         Deck deck = deckRepository.findById(deckId)
                 .orElseThrow(() -> new ResourceNotFoundException("Deck no encontrado"));
 
         // Verificar que sea el propietario
-        if (!deck.isOwnedBy(user.getId())) {
+        if (!deck.isOwnedBy(principal.id())) {
             throw new AccessDeniedException("No tienes permiso para eliminar este deck");
         }
 
         deckRepository.delete(deck);
+        deckMetadataCache.evict(deckId);
+        if (deck.isPublic()) {
+            eventPublisher.publishEvent(new PublicCatalogChangedEvent(deckId));
+        }
         log.info("Deck {} eliminado", deckId);
     }
 
+    /**
+     * Copiar un mazo con todas sus tarjetas a la cuenta del usuario
+     *
+     * Accesible si eres el propietario o el mazo es público. La copia es
+     * privada. Todo ocurre en la BD con dos INSERT ... SELECT (mazo y
+     * tarjetas): ninguna tarjeta pasa por la JVM, así que la memoria no
+     * depende del tamaño del mazo.
+     *
+     * @param deckId    - ID del mazo original
+     * @param principal - Usuario autenticado
+     * @return DeckResponse de la copia
+     */
+    @Transactional
+    public DeckResponse forkDeck(UUID deckId, UserPrincipal principal) {
+        log.info("Copiando deck {} para usuario: {}", deckId, principal.id());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        DeckMetadata fork = jdbcTemplate.query(FORK_DECK,
+                        (rs, rowNum) -> new DeckMetadata(rs.getObject("id", UUID.class), principal.id(), false,
+                                rs.getString("title"), now.toLocalDateTime()),
+                        principal.id(), now, now, deckId, principal.id())
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Deck no encontrado"));
+        UUID forkId = fork.id();
+        int cards = jdbcTemplate.update(FORK_CARDS, forkId, now, now, deckId);
+
+        deckMetadataCache.putAfterCommit(fork);
+        log.info("Deck {} copiado como {} ({} cards)", deckId, forkId, cards);
+
+        return deckRepository.findResponseByIdAndUserIdOrPublic(forkId, principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException("Deck no encontrado"));
+    }
+
     // ========== HELPERS PRIVADOS ==========
 
     /**
      * Mapea Deck entity a DeckResponse DTO
+     * 
+     * Solo se usa en escrituras, donde el usuario autenticado es el propietario:
+     * el owner sale del principal y no se inicializa el proxy de deck.getUser()
      */
-    private DeckResponse mapToDeckResponse(Deck deck) {
-        Integer cardCount = (int) cardRepository.countByDeck_Id(deck.getId());
-
-        DeckResponse.OwnerInfo owner = new DeckResponse.OwnerInfo(
-                deck.getUser().getId(),
-                deck.getUser().getUsername());
-
+    private DeckResponse mapToDeckResponse(Deck deck, UserPrincipal owner) {
         return new DeckResponse(
                 deck.getId(),
                 deck.getTitle(),
                 deck.getDescription(),
                 deck.getTags() != null ? deck.getTags() : new String[0],
                 deck.isPublic(),
-                cardCount,
-                owner,
+                deck.getCardCount(),
+                new DeckResponse.OwnerInfo(owner.id(), owner.username()),
                 deck.getCreatedAt(),
                 deck.getUpdatedAt());
     }
@@ -0,0 +1,172 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.dto.response.PageResponse;
+import com.flashcards.backend.repository.DeckRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * PublicCatalog - Snapshot en memoria de las primeras páginas del catálogo público
+ *
+ * GET /api/decks?onlyPublic=true es la portada de casi todas las sesiones.
+ * Las primeras páginas se sirven desde un snapshot inmutable con el JSON ya
+ * serializado para los tamaños de página habituales; el resto de tamaños se
+ * recortan del mismo snapshot sin ir a la BD.
+ *
+ * Cada cambio en un mazo público pide una reconstrucción en segundo plano.
+ * Las peticiones que llegan durante una reconstrucción se agrupan en una sola
+ * y los lectores siempre leen el snapshot anterior sin bloquearse. Si el
+ * snapshot supera max-age (cambios hechos fuera de la app u otra instancia)
+ * también se reconstruye, sirviendo mientras tanto el anterior.
+ */
+@Component
+@Slf4j
+public class PublicCatalog {
+
+    private final DeckRepository deckRepository;
+    private final ObjectMapper objectMapper;
+    private final List<Integer> pageSizes;
+    private final int pages;
+    private final Duration maxAge;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("public-catalog-rebuild").daemon().factory());
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    // null hasta la primera reconstrucción
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(
+        List<DeckResponse> decks,
+        long totalElements,
+        Map<Integer, byte[][]> serializedPages,
+        Instant builtAt
+    ) { }
+
+    public PublicCatalog(
+            DeckRepository deckRepository,
+            ObjectMapper objectMapper,
+            @Value("${catalog.page-sizes:12,20}") List<Integer> pageSizes,
+            @Value("${catalog.pages:5}") int pages,
+            @Value("${catalog.max-age:60s}") Duration maxAge
+    ) {
+        this.deckRepository = deckRepository;
+        this.objectMapper = objectMapper;
+        this.pageSizes = List.copyOf(pageSizes);
+        this.pages = pages;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * JSON de la página pedida (mismo formato que PageResponse), o vacío si
+     * queda fuera del snapshot o aún no hay snapshot. Nunca consulta la BD.
+     */
+    public Optional<byte[]> page(int page, int size) {
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            requestRebuild();
+            return Optional.empty();
+        }
+        if (current.builtAt().plus(maxAge).isBefore(Instant.now())) {
+            requestRebuild();
+        }
+
+        byte[][] serialized = current.serializedPages().get(size);
+        if (serialized != null && page < serialized.length) {
+            return Optional.of(serialized[page]);
+        }
+
+        if (!covers(current, page, size)) {
+            return Optional.empty();
+        }
+        return Optional.of(objectMapper.writeValueAsBytes(slice(current, page, size)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        requestRebuild();
+    }
+
+    // Tras el commit: la reconstrucción tiene que ver los cambios
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(PublicCatalogChangedEvent event) {
+        requestRebuild();
+    }
+
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        // Antes de consultar: un cambio que llegue durante la reconstrucción encola otra
+        rebuildPending.set(false);
+
+        try {
+            int window = pages * pageSizes.stream().mapToInt(Integer::intValue).max().orElse(20);
+            Page<DeckResponse> top = deckRepository.findPublicResponses(PageRequest.of(0, window));
+
+            Snapshot base = new Snapshot(top.getContent(), top.getTotalElements(), Map.of(), Instant.now());
+
+            Map<Integer, byte[][]> serializedPages = new HashMap<>();
+            for (int size : pageSizes) {
+                int available = Math.min(pages, window / size);
+                byte[][] serialized = new byte[available][];
+                for (int page = 0; page < available; page++) {
+                    serialized[page] = objectMapper.writeValueAsBytes(slice(base, page, size));
+                }
+                serializedPages.put(size, serialized);
+            }
+
+            snapshot = new Snapshot(base.decks(), base.totalElements(), Map.copyOf(serializedPages), base.builtAt());
+            log.debug("Catálogo público reconstruido: {} de {} mazos", base.decks().size(), base.totalElements());
+        } catch (RuntimeException ex) {
+            log.error("No se pudo reconstruir el catálogo público", ex);
+        }
+    }
+
+    /** La página cabe en el snapshot, o el snapshot contiene el catálogo entero */
+    private boolean covers(Snapshot current, int page, int size) {
+        long end = (long) (page + 1) * size;
+        return end <= current.decks().size() || current.decks().size() == current.totalElements();
+    }
+
+    private PageResponse<DeckResponse> slice(Snapshot current, int page, int size) {
+        List<DeckResponse> decks = current.decks();
+        int from = (int) Math.min((long) page * size, decks.size());
+        int to = (int) Math.min((long) from + size, decks.size());
+        int totalPages = (int) Math.ceil((double) current.totalElements() / size);
+
+        return new PageResponse<>(decks.subList(from, to), page, size, current.totalElements(), totalPages);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package com.flashcards.backend.service;
+
+import java.util.UUID;
+
+/**
+ * Un mazo público ha cambiado (publicado, despublicado, editado, borrado
+ * o con tarjetas nuevas): el snapshot del catálogo público queda obsoleto.
+ */
+public record PublicCatalogChangedEvent(UUID deckId) { }
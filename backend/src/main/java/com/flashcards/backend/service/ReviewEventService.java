@@ -0,0 +1,97 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.request.ReviewEventRequest;
+import com.flashcards.backend.dto.request.ReviewEventType;
+import com.flashcards.backend.dto.response.ReviewEventsResponse;
+import com.flashcards.backend.exception.BadRequestException;
+import com.flashcards.backend.exception.ServiceUnavailableException;
+import com.flashcards.backend.security.UserPrincipal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ReviewEventService - Recepción de lotes de eventos de estudio
+ *
+ * Valida el lote y los permisos (con DeckMetadataCache, sin BD en el caso
+ * habitual) y lo entrega a ReviewEventWriter. Según study.events.ack:
+ * - sync: responde cuando el lote está confirmado en la BD (commit compartido con otros lotes)
+ * - async: responde en cuanto el lote está encolado; lo encolado se pierde si el proceso cae
+ */
+@Service
+@Slf4j
+public class ReviewEventService {
+
+    public enum AckMode { SYNC, ASYNC }
+
+    private final ReviewEventWriter writer;
+    private final DeckMetadataCache deckMetadataCache;
+    private final AckMode ackMode;
+    private final Duration syncTimeout;
+    private final Duration retryAfter;
+
+    public ReviewEventService(
+            ReviewEventWriter writer,
+            DeckMetadataCache deckMetadataCache,
+            @Value("${study.events.ack:sync}") AckMode ackMode,
+            @Value("${study.events.sync-timeout:5s}") Duration syncTimeout,
+            @Value("${study.events.retry-after:2s}") Duration retryAfter
+    ) {
+        this.writer = writer;
+        this.deckMetadataCache = deckMetadataCache;
+        this.ackMode = ackMode;
+        this.syncTimeout = syncTimeout;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Registrar un lote de eventos del usuario
+     *
+     * Todos los mazos del lote tienen que ser visibles para el usuario
+     * (propietario o públicos). Los eventos ya recibidos (mismo id) se ignoran.
+     *
+     * @throws ServiceUnavailableException si la cola está llena o, con ack
+     *         síncrono, si el lote no se confirma a tiempo (reenviarlo es seguro)
+     */
+    public ReviewEventsResponse record(List<ReviewEventRequest> events, UserPrincipal principal) {
+        for (ReviewEventRequest event : events) {
+            if (event.type() == ReviewEventType.ANSWER && event.grade() == null) {
+                throw new BadRequestException("Los eventos ANSWER necesitan nota");
+            }
+        }
+        events.stream()
+                .map(ReviewEventRequest::deckId)
+                .distinct()
+                .forEach(deckId -> deckMetadataCache.requireReadable(deckId, principal.id()));
+
+        CompletableFuture<Void> flushed = writer.submit(principal.id(), events);
+        if (ackMode == AckMode.ASYNC) {
+            return new ReviewEventsResponse(events.size(), false);
+        }
+
+        try {
+            flushed.get(syncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Lote de {} eventos del usuario {} sin confirmar: {}", events.size(), principal.id(), e.toString());
+            throw new ServiceUnavailableException("No se pudieron guardar los eventos, vuelve a intentarlo", retryAfter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("No se pudieron guardar los eventos, vuelve a intentarlo", retryAfter);
+        }
+        return new ReviewEventsResponse(events.size(), true);
+    }
+
+    public AckMode ackMode() {
+        return ackMode;
+    }
+}
@@ -0,0 +1,451 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.request.ReviewEventRequest;
+import com.flashcards.backend.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReviewEventWriter - Escritura diferida (write-behind) de eventos de estudio
+ *
+ * Las peticiones encolan sus lotes en memoria y un único hilo escritor los
+ * vacía: junta los lotes que se han acumulado mientras escribía el anterior
+ * (hasta max-batch eventos) y los inserta con un solo INSERT ... unnest.
+ * Muchas peticiones comparten así un mismo commit. Al ser una única
+ * sentencia va en autocommit: sin BEGIN/COMMIT ni transacción de JPA,
+ * que en cada escritura costaban más que el propio INSERT.
+ *
+ * La misma sentencia suma los eventos a las estadísticas diarias que lee
+ * StudyStatsService, así que nunca hay que recorrer el historial. La racha
+ * de los días nuevos se calcula justo después con una segunda sentencia; si
+ * falla se reintenta en la siguiente escritura.
+ *
+ * La cola está acotada en eventos (queue-capacity): si un lote no cabe se
+ * rechaza entero con ServiceUnavailableException (503 + Retry-After).
+ *
+ * Métricas en /actuator/metrics:
+ * - study.events.queue.depth: eventos encolados pendientes de escribir
+ * - study.events.flush: latencia de cada escritura (INSERT + commit)
+ * - study.events.flush.size: eventos por escritura
+ * - study.events.written / rejected / failed: eventos escritos, rechazados por cola llena, perdidos por error
+ */
+@Component
+@Slf4j
+public class ReviewEventWriter implements SmartLifecycle {
+
+    /*
+     * Inserta los eventos y, en la misma sentencia, los suma a las
+     * estadísticas diarias (study_daily_stats) y a los totales (study_totals)
+     * por mazo y para todos los mazos (deck_id 0000...). Solo se agregan las
+     * filas que devuelve el INSERT: los duplicados (reenvíos del cliente, que
+     * se ignoran por (user_id, client_event_id)) y los reintentos de un lote
+     * ya escrito no cuentan dos veces.
+     *
+     * Devuelve cuántos días tocados tienen la racha pendiente de calcular.
+     */
+    private static final String INSERT_EVENTS = """
+        WITH inserted AS (
+            INSERT INTO review_events (user_id, client_event_id, deck_id, card_id, event_type, grade, duration_ms, occurred_at)
+            SELECT t.user_id, t.client_event_id, t.deck_id, t.card_id, t.event_type, t.grade, t.duration_ms, t.occurred_at
+            FROM unnest(
+                CAST(? AS UUID[]), CAST(? AS UUID[]), CAST(? AS UUID[]), CAST(? AS UUID[]),
+                CAST(? AS TEXT[]), CAST(? AS SMALLINT[]), CAST(? AS INT[]), CAST(? AS TIMESTAMP[])
+            ) AS t(user_id, client_event_id, deck_id, card_id, event_type, grade, duration_ms, occurred_at)
+            ON CONFLICT (user_id, client_event_id) DO NOTHING
+            RETURNING user_id, deck_id, card_id, event_type, grade, duration_ms, CAST(occurred_at AS DATE) AS day
+        ),
+        answers AS (
+            -- Primera respuesta del día a la tarjeta: la primera del lote y
+            -- sin otra antes en la tabla (la sentencia no ve sus propias filas)
+            SELECT a.user_id, a.deck_id, a.grade, a.duration_ms, a.day,
+                CASE WHEN a.nth = 1 THEN NOT EXISTS (
+                    SELECT 1 FROM review_events e
+                    WHERE e.user_id = a.user_id
+                    AND e.card_id = a.card_id
+                    AND e.event_type = 'ANSWER'
+                    AND e.occurred_at >= a.day AND e.occurred_at < a.day + 1
+                ) ELSE false END AS first_of_day
+            FROM (
+                SELECT i.*, row_number() OVER (PARTITION BY i.user_id, i.card_id, i.day) AS nth
+                FROM inserted i
+                WHERE i.event_type = 'ANSWER'
+            ) a
+        ),
+        daily AS (
+            SELECT user_id,
+                COALESCE(deck_id, '00000000-0000-0000-0000-000000000000') AS deck_id,
+                day,
+                count(*) AS reviews,
+                count(*) FILTER (WHERE grade >= 3) AS correct,
+                count(*) FILTER (WHERE first_of_day) AS cards_studied,
+                COALESCE(sum(duration_ms), 0) AS study_ms
+            FROM answers
+            GROUP BY GROUPING SETS ((user_id, deck_id, day), (user_id, day))
+        ),
+        totals AS (
+            INSERT INTO study_totals AS s (user_id, deck_id, reviews, correct, study_ms, first_day, last_day)
+            SELECT user_id, deck_id, sum(reviews), sum(correct), sum(study_ms), min(day), max(day)
+            FROM daily
+            GROUP BY user_id, deck_id
+            ON CONFLICT (user_id, deck_id) DO UPDATE
+            SET reviews = s.reviews + EXCLUDED.reviews,
+                correct = s.correct + EXCLUDED.correct,
+                study_ms = s.study_ms + EXCLUDED.study_ms,
+                first_day = LEAST(s.first_day, EXCLUDED.first_day),
+                last_day = GREATEST(s.last_day, EXCLUDED.last_day)
+        ),
+        days AS (
+            INSERT INTO study_daily_stats AS s (user_id, deck_id, day, reviews, correct, cards_studied, study_ms)
+            SELECT user_id, deck_id, day, reviews, correct, cards_studied, study_ms
+            FROM daily
+            ON CONFLICT (user_id, deck_id, day) DO UPDATE
+            SET reviews = s.reviews + EXCLUDED.reviews,
+                correct = s.correct + EXCLUDED.correct,
+                cards_studied = s.cards_studied + EXCLUDED.cards_studied,
+                study_ms = s.study_ms + EXCLUDED.study_ms
+            RETURNING s.streak
+        )
+        SELECT count(*) FILTER (WHERE streak IS NULL) FROM days
+        """;
+
+    /*
+     * Calcula la racha de los días nuevos (streak IS NULL). Dentro de cada
+     * usuario y mazo, los días seguidos comparten day - row_number(); se
+     * recorre desde el día anterior al primer pendiente, cuya racha ya es
+     * correcta y sirve de base. Lo normal es un día nuevo al final (2 filas);
+     * un día atrasado que une dos rachas recalcula las posteriores.
+     */
+    private static final String UPDATE_STREAKS = """
+        WITH pending AS (
+            SELECT user_id, deck_id, min(day) AS since
+            FROM study_daily_stats
+            WHERE streak IS NULL
+            GROUP BY user_id, deck_id
+        ),
+        runs AS (
+            SELECT d.user_id, d.deck_id, d.day, d.streak, p.since,
+                d.day - CAST(row_number() OVER (PARTITION BY d.user_id, d.deck_id ORDER BY d.day) AS INTEGER) AS run
+            FROM study_daily_stats d
+            JOIN pending p ON p.user_id = d.user_id AND p.deck_id = d.deck_id
+            WHERE d.day >= p.since - 1
+        ),
+        streaks AS (
+            SELECT user_id, deck_id, day,
+                row_number() OVER w + first_value(CASE WHEN day < since THEN streak - 1 ELSE 0 END) OVER w AS streak
+            FROM runs
+            WINDOW w AS (PARTITION BY user_id, deck_id, run ORDER BY day)
+        ),
+        updated AS (
+            UPDATE study_daily_stats s
+            SET streak = r.streak
+            FROM streaks r
+            WHERE s.user_id = r.user_id AND s.deck_id = r.deck_id AND s.day = r.day
+            AND s.streak IS DISTINCT FROM r.streak
+            RETURNING s.user_id, s.deck_id, s.streak
+        )
+        UPDATE study_totals t
+        SET longest_streak = GREATEST(t.longest_streak, u.longest)
+        FROM (SELECT user_id, deck_id, max(streak) AS longest FROM updated GROUP BY user_id, deck_id) u
+        WHERE t.user_id = u.user_id AND t.deck_id = u.deck_id
+        """;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int maxBatch;
+    private final Duration linger;
+    private final Duration retryAfter;
+
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter written;
+    private final Counter rejected;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // Solo lo usa el hilo escritor
+    private boolean streaksPending;
+
+    public ReviewEventWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${study.events.queue-capacity:50000}") int capacity,
+            @Value("${study.events.max-batch:2000}") int maxBatch,
+            @Value("${study.events.linger:0ms}") Duration linger,
+            @Value("${study.events.retry-after:2s}") Duration retryAfter
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.linger = linger;
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("study.events.queue.depth", pendingEvents, AtomicInteger::get)
+                .description("Eventos de estudio encolados pendientes de escribir")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("study.events.flush")
+                .description("Latencia de cada escritura de eventos (INSERT + commit)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("study.events.flush.size")
+                .description("Eventos por escritura")
+                .register(meterRegistry);
+        this.written = meterRegistry.counter("study.events.written");
+        this.rejected = meterRegistry.counter("study.events.rejected");
+        this.failed = meterRegistry.counter("study.events.failed");
+    }
+
+    /**
+     * Encola un lote de eventos de un usuario
+     *
+     * @return Se completa cuando el lote está confirmado en la BD (o falla)
+     * @throws ServiceUnavailableException si el lote no cabe en la cola
+     */
+    public CompletableFuture<Void> submit(UUID userId, List<ReviewEventRequest> events) {
+        if (!running) {
+            throw stopping();
+        }
+
+        int size = events.size();
+        int current;
+        do {
+            current = pendingEvents.get();
+            if (current + size > capacity) {
+                rejected.increment(size);
+                throw new ServiceUnavailableException(
+                        "Demasiados eventos pendientes, vuelve a intentarlo más tarde", retryAfter);
+            }
+        } while (!pendingEvents.compareAndSet(current, current + size));
+
+        Submission submission = new Submission(userId, events, new CompletableFuture<>());
+        queue.add(submission);
+        // stop() pudo empezar tras la comprobación de arriba: si el escritor ya
+        // no lo va a ver, se saca de la cola (si no, lo completa stop())
+        if (!running && queue.remove(submission)) {
+            pendingEvents.addAndGet(-size);
+            throw stopping();
+        }
+        return submission.done();
+    }
+
+    /** Eventos encolados pendientes de escribir */
+    public int depth() {
+        return pendingEvents.get();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    flush(collect(first));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el escritor de eventos", e);
+            }
+        }
+    }
+
+    /**
+     * Junta con el primero los lotes ya encolados (y los que lleguen durante
+     * linger) hasta max-batch eventos
+     */
+    private List<Submission> collect(Submission first) throws InterruptedException {
+        List<Submission> batch = new ArrayList<>();
+        batch.add(first);
+        int events = first.events().size();
+
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (events < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            Submission next = remaining > 0
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                    : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            events += next.events().size();
+        }
+        return batch;
+    }
+
+    private void flush(List<Submission> batch) {
+        int events = batch.stream().mapToInt(submission -> submission.events().size()).sum();
+        try {
+            int pendingStreaks = write(batch, events, MAX_ATTEMPTS);
+            if (pendingStreaks > 0 || streaksPending) {
+                updateStreaks();
+            }
+            batch.forEach(submission -> submission.done().complete(null));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // Un lote defectuoso (ej: usuario borrado entre medias) no arrastra a los demás
+                log.warn("Fallo al escribir {} lotes de eventos juntos, se reintentan por separado", batch.size());
+                batch.forEach(submission -> flush(List.of(submission)));
+                return;
+            }
+            log.error("Se descartan {} eventos de estudio del usuario {}", events, batch.getFirst().userId(), e);
+            failed.increment(events);
+            pendingEvents.addAndGet(-events);
+            batch.getFirst().done().completeExceptionally(e);
+            return;
+        }
+        pendingEvents.addAndGet(-events);
+    }
+
+    /**
+     * @return Días de las estadísticas con la racha pendiente de calcular
+     */
+    private int write(List<Submission> batch, int events, int attempts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int pendingStreaks = flushTimer.record(() -> insert(batch, events));
+                flushSize.record(events);
+                written.increment(events);
+                return pendingStreaks;
+            } catch (RuntimeException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                log.warn("Fallo al escribir {} eventos (intento {}/{}): {}", events, attempt, attempts, e.getMessage());
+                sleep(Duration.ofMillis(100L * attempt));
+            }
+        }
+    }
+
+    private int insert(List<Submission> batch, int events) {
+        UUID[] userIds = new UUID[events];
+        UUID[] clientIds = new UUID[events];
+        UUID[] deckIds = new UUID[events];
+        UUID[] cardIds = new UUID[events];
+        String[] types = new String[events];
+        Integer[] grades = new Integer[events];
+        Integer[] durations = new Integer[events];
+        String[] occurredAt = new String[events];
+
+        int i = 0;
+        for (Submission submission : batch) {
+            for (ReviewEventRequest event : submission.events()) {
+                userIds[i] = submission.userId();
+                clientIds[i] = event.id();
+                deckIds[i] = event.deckId();
+                cardIds[i] = event.cardId();
+                types[i] = event.type().name();
+                grades[i] = event.grade();
+                durations[i] = event.durationMs();
+                occurredAt[i] = event.occurredAt().toString();
+                i++;
+            }
+        }
+
+        Integer pendingStreaks = jdbcTemplate.queryForObject(INSERT_EVENTS, Integer.class,
+                userIds, clientIds, deckIds, cardIds, types, grades, durations, occurredAt);
+        return pendingStreaks != null ? pendingStreaks : 0;
+    }
+
+    /**
+     * Los eventos ya están escritos: si esto falla solo se retrasa la racha
+     */
+    private void updateStreaks() {
+        try {
+            jdbcTemplate.update(UPDATE_STREAKS);
+            streaksPending = false;
+        } catch (RuntimeException e) {
+            log.warn("Fallo al calcular las rachas de estudio, se reintenta en la siguiente escritura: {}", e.getMessage());
+            streaksPending = true;
+        }
+    }
+
+    private ServiceUnavailableException stopping() {
+        return new ServiceUnavailableException("El registro de eventos se está deteniendo", retryAfter);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== Ciclo de vida ==========
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("review-event-writer").daemon(false).start(this::drainLoop);
+    }
+
+    /**
+     * Deja de aceptar lotes y espera a que se escriba lo encolado
+     *
+     * Un lote encolado después de que el escritor terminara se completa con
+     * error: su cliente recibe 503 en vez de esperar a sync-timeout.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Submission late;
+        while ((late = queue.poll()) != null) {
+            pendingEvents.addAndGet(-late.events().size());
+            late.done().completeExceptionally(stopping());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Arranca antes y para después que el servidor web: al parar ya no
+     * llegan peticiones nuevas y se vacía la cola
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record Submission(
+        UUID userId,
+        List<ReviewEventRequest> events,
+        CompletableFuture<Void> done
+    ) { }
+}
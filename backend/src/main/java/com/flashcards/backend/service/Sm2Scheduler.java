@@ -0,0 +1,72 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.model.ReviewState;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sm2Scheduler - Planificador de repasos SuperMemo-2
+ *
+ * Cálculo puro (sin BD ni estado): a partir del estado de una tarjeta y la
+ * nota del repaso devuelve el estado siguiente.
+ *
+ * Notas (0-5):
+ * - 0-2: Olvidada. Vuelve a empezar (1 día) y cuenta como lapso
+ * - 3: Correcta con mucho esfuerzo
+ * - 4: Correcta tras dudar
+ * - 5: Correcta sin esfuerzo
+ *
+ * Intervalos: 1 día, 6 días y después el anterior multiplicado por el factor
+ * de facilidad, que sube con las notas altas y baja con las bajas (mínimo 1.3).
+ */
+@Component
+public class Sm2Scheduler {
+
+    public static final int MIN_GRADE = 0;
+    public static final int MAX_GRADE = 5;
+    public static final int PASSING_GRADE = 3;
+    public static final double MIN_EASE_FACTOR = 1.3;
+
+    /**
+     * Estado tras un repaso
+     *
+     * @param state - Estado actual (ReviewState.NEW si es la primera vez)
+     * @param grade - Nota del repaso (0-5)
+     * @throws IllegalArgumentException si la nota está fuera de rango
+     */
+    public ReviewState review(ReviewState state, int grade) {
+        if (grade < MIN_GRADE || grade > MAX_GRADE) {
+            throw new IllegalArgumentException("La nota debe estar entre " + MIN_GRADE + " y " + MAX_GRADE);
+        }
+
+        double easeFactor = nextEaseFactor(state.easeFactor(), grade);
+
+        if (grade < PASSING_GRADE) {
+            return new ReviewState(0, 1, easeFactor, state.lapses() + 1);
+        }
+
+        int interval = switch (state.repetitions()) {
+            case 0 -> 1;
+            case 1 -> 6;
+            default -> (int) Math.round(state.intervalDays() * state.easeFactor());
+        };
+
+        return new ReviewState(state.repetitions() + 1, interval, easeFactor, state.lapses());
+    }
+
+    /**
+     * Cuándo vuelve a tocar la tarjeta
+     */
+    public LocalDateTime dueAt(ReviewState state, LocalDateTime reviewedAt) {
+        return reviewedAt.plusDays(state.intervalDays());
+    }
+
+    // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02))
+    private double nextEaseFactor(double easeFactor, int grade) {
+        int distance = MAX_GRADE - grade;
+        double next = easeFactor + (0.1 - distance * (0.08 + distance * 0.02));
+        return Math.max(MIN_EASE_FACTOR, next);
+    }
+}
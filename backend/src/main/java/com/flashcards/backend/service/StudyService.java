@@ -0,0 +1,206 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.request.KeysetCursor;
+import com.flashcards.backend.dto.request.ReviewRequest;
+import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.dto.response.DueCardResponse;
+import com.flashcards.backend.dto.response.ReviewResponse;
+import com.flashcards.backend.exception.ResourceNotFoundException;
+import com.flashcards.backend.model.CardReview;
+import com.flashcards.backend.model.ReviewState;
+import com.flashcards.backend.repository.CardRepository;
+import com.flashcards.backend.repository.CardReviewRepository;
+import com.flashcards.backend.security.UserPrincipal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * StudyService - Cola de repaso y registro de repasos (SM-2)
+ *
+ * Cada usuario tiene su propio estado por tarjeta en card_reviews. Una tarjeta
+ * entra en el estudio la primera vez que se sirve como nueva (vence en ese
+ * momento) y a partir de ahí la planifica Sm2Scheduler.
+ *
+ * Empezar una sesión no recorre el mazo: las vencidas salen del índice
+ * (user_id, deck_id, due_at) y las nuevas se toman a partir del cursor de
+ * deck_study_progress con el índice (deck_id, created_at, id) de cards.
+ */
+@Service
+@Slf4j
+public class StudyService {
+
+    private static final String INSERT_NEW_REVIEWS = """
+        INSERT INTO card_reviews (user_id, card_id, deck_id, due_at)
+        SELECT ?, t.card_id, ?, ?
+        FROM unnest(CAST(? AS UUID[])) AS t(card_id)
+        ON CONFLICT (user_id, card_id) DO NOTHING
+        RETURNING card_id
+        """;
+
+    // El cursor solo avanza, aunque dos sesiones del mismo usuario se crucen
+    private static final String ADVANCE_PROGRESS = """
+        INSERT INTO deck_study_progress (user_id, deck_id, new_after_created_at, new_after_card_id)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (user_id, deck_id) DO UPDATE
+        SET new_after_created_at = EXCLUDED.new_after_created_at,
+            new_after_card_id = EXCLUDED.new_after_card_id
+        WHERE (deck_study_progress.new_after_created_at, deck_study_progress.new_after_card_id)
+            < (EXCLUDED.new_after_created_at, EXCLUDED.new_after_card_id)
+        """;
+
+    private final CardReviewRepository cardReviewRepository;
+    private final CardRepository cardRepository;
+    private final DeckMetadataCache deckMetadataCache;
+    private final Sm2Scheduler scheduler;
+    private final JdbcTemplate jdbcTemplate;
+    private final int newCardsLimit;
+
+    public StudyService(
+            CardReviewRepository cardReviewRepository,
+            CardRepository cardRepository,
+            DeckMetadataCache deckMetadataCache,
+            Sm2Scheduler scheduler,
+            JdbcTemplate jdbcTemplate,
+            @Value("${study.new-cards-limit:20}") int newCardsLimit
+    ) {
+        this.cardReviewRepository = cardReviewRepository;
+        this.cardRepository = cardRepository;
+        this.deckMetadataCache = deckMetadataCache;
+        this.scheduler = scheduler;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newCardsLimit = newCardsLimit;
+    }
+
+    /**
+     * Tarjetas que tocan ahora en un mazo
+     *
+     * Primero las vencidas (las más atrasadas primero). Si no llenan el
+     * límite, se completan con tarjetas nuevas del mazo en orden de creación,
+     * sin pasar de study.new-cards-limit nuevas pendientes a la vez.
+     *
+     * Accesible si eres el propietario o el mazo es público
+     */
+    @Transactional
+    public List<DueCardResponse> getDueCards(UUID deckId, int limit, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
+
+        LocalDateTime now = now();
+        List<DueCardResponse> due = cardReviewRepository.findDue(principal.id(), deckId, now, Limit.of(limit));
+
+        // Las nuevas vencen al entrar, así que todas las pendientes están en la cola
+        long pendingNew = due.stream().filter(DueCardResponse::isNew).count();
+        int introduce = (int) Math.min(limit - due.size(), newCardsLimit - pendingNew);
+        if (introduce <= 0) {
+            return due;
+        }
+
+        List<DueCardResponse> result = new ArrayList<>(due);
+        result.addAll(introduceNewCards(deckId, principal.id(), introduce, now));
+        return result;
+    }
+
+    /**
+     * Registrar el repaso de una tarjeta y planificar el siguiente
+     *
+     * Una tarjeta que aún no estaba en el estudio entra directamente con
+     * este repaso.
+     */
+    @Transactional
+    public ReviewResponse review(UUID deckId, ReviewRequest request, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
+
+        CardReview review = cardReviewRepository.findById(new CardReview.Key(principal.id(), request.cardId()))
+                .filter(existing -> existing.getDeckId().equals(deckId))
+                .orElseGet(() -> startReview(deckId, request.cardId(), principal.id()));
+
+        LocalDateTime now = now();
+        ReviewState next = scheduler.review(review.state(), request.grade());
+        review.apply(next, now, scheduler.dueAt(next, now));
+
+        CardReview saved = cardReviewRepository.save(review);
+        log.debug("Repaso de card {} por usuario {}: nota {}, siguiente en {} días",
+                request.cardId(), principal.id(), request.grade(), next.intervalDays());
+
+        return new ReviewResponse(saved.getCardId(), next.repetitions(), next.intervalDays(),
+                next.easeFactor(), next.lapses(), saved.getDueAt());
+    }
+
+    private CardReview startReview(UUID deckId, UUID cardId, UUID userId) {
+        if (!cardRepository.existsByIdAndDeck_Id(cardId, deckId)) {
+            throw new ResourceNotFoundException("Card no encontrada en este deck");
+        }
+
+        ReviewState state = ReviewState.NEW;
+        return CardReview.builder()
+                .userId(userId)
+                .cardId(cardId)
+                .deckId(deckId)
+                .repetitions(state.repetitions())
+                .intervalDays(state.intervalDays())
+                .easeFactor(state.easeFactor())
+                .lapses(state.lapses())
+                .build();
+    }
+
+    /**
+     * Mete en el estudio las siguientes tarjetas del mazo a partir del cursor
+     * del usuario y avanza el cursor
+     *
+     * Solo se devuelven las que entran ahora: las que ya estaban en card_reviews
+     * (repasadas antes de entrar por el cursor, u otra sesión a la vez) siguen
+     * su planificación.
+     */
+    private List<DueCardResponse> introduceNewCards(UUID deckId, UUID userId, int count, LocalDateTime now) {
+        KeysetCursor after = newCardsCursor(deckId, userId);
+        List<CardResponse> cards = cardRepository.findResponsesByDeckIdAfter(
+                deckId, after.createdAt(), after.id(), Limit.of(count));
+        if (cards.isEmpty()) {
+            return List.of();
+        }
+
+        UUID[] ids = cards.stream().map(CardResponse::id).toArray(UUID[]::new);
+        Set<UUID> inserted = new HashSet<>(
+                jdbcTemplate.queryForList(INSERT_NEW_REVIEWS, UUID.class, userId, deckId, now, ids));
+
+        CardResponse last = cards.getLast();
+        jdbcTemplate.update(ADVANCE_PROGRESS, userId, deckId, last.createdAt(), last.id());
+
+        return cards.stream()
+                .filter(card -> inserted.contains(card.id()))
+                .map(card -> new DueCardResponse(card.id(), card.front(), card.back(), now, 0, 0, true))
+                .toList();
+    }
+
+    private KeysetCursor newCardsCursor(UUID deckId, UUID userId) {
+        return jdbcTemplate.query("""
+                SELECT new_after_created_at, new_after_card_id
+                FROM deck_study_progress
+                WHERE user_id = ? AND deck_id = ?
+                """,
+                (rs, rowNum) -> new KeysetCursor(
+                        rs.getObject(1, LocalDateTime.class), rs.getObject(2, UUID.class)),
+                userId, deckId)
+                .stream()
+                .findFirst()
+                .orElse(KeysetCursor.FIRST_ASC);
+    }
+
+    // Misma precisión que TIMESTAMP en PostgreSQL
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,134 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.dto.response.DailyStudyStatsResponse;
+import com.flashcards.backend.dto.response.StudyStatsResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * StudyStatsService - Estadísticas de estudio para el dashboard
+ *
+ * Solo lee los agregados que ReviewEventWriter mantiene al escribir los
+ * eventos (V12): un rango de la PK de study_daily_stats (una fila por día con
+ * repasos) y una fila de study_totals. El coste depende de los días pedidos,
+ * no de cuántos repasos tenga el usuario; review_events no se toca.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudyStatsService {
+
+    /** deck_id de las filas con el total de todos los mazos */
+    public static final UUID ALL_DECKS = new UUID(0, 0);
+
+    private final DeckMetadataCache deckMetadataCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Estadísticas de todos los mazos del usuario
+     *
+     * @param days Días del rango, terminando en to (incluido)
+     * @param to   Último día del rango (día local del cliente)
+     */
+    public StudyStatsResponse getStats(int days, LocalDate to, UserPrincipal principal) {
+        return stats(principal.id(), ALL_DECKS, days, to);
+    }
+
+    /**
+     * Estadísticas del usuario en un mazo
+     *
+     * Accesible si eres el propietario o el mazo es público
+     */
+    public StudyStatsResponse getDeckStats(UUID deckId, int days, LocalDate to, UserPrincipal principal) {
+        deckMetadataCache.requireReadable(deckId, principal.id());
+        return stats(principal.id(), deckId, days, to);
+    }
+
+    private StudyStatsResponse stats(UUID userId, UUID deckId, int days, LocalDate to) {
+        LocalDate from = to.minusDays(days - 1L);
+
+        // Un día más al principio: si hoy aún no hay repasos, la racha actual es la de ayer
+        Map<LocalDate, DailyStudyStatsResponse> byDay = new HashMap<>();
+        Map<LocalDate, Integer> streaks = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT day, reviews, correct, cards_studied, study_ms, streak
+                FROM study_daily_stats
+                WHERE user_id = ? AND deck_id = ? AND day BETWEEN ? AND ?
+                """,
+                rs -> {
+                    LocalDate day = rs.getObject("day", LocalDate.class);
+                    byDay.put(day, new DailyStudyStatsResponse(day, rs.getInt("reviews"), rs.getInt("correct"),
+                            rs.getInt("cards_studied"), rs.getLong("study_ms")));
+                    // null: día recién escrito cuya racha aún no se ha calculado
+                    int streak = rs.getInt("streak");
+                    streaks.put(day, rs.wasNull() ? null : streak);
+                },
+                userId, deckId, from.minusDays(1), to);
+
+        // Racha pendiente: la del día anterior más uno (también si el cálculo
+        // falló y se reintenta en la siguiente escritura). En orden, así una
+        // serie de días pendientes se apoya en el último ya calculado
+        for (LocalDate day = from.minusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+            if (streaks.containsKey(day) && streaks.get(day) == null) {
+                Integer previous = streaks.get(day.minusDays(1));
+                streaks.put(day, previous != null ? previous + 1 : 1);
+            }
+        }
+
+        List<DailyStudyStatsResponse> series = new ArrayList<>(days);
+        int reviews = 0;
+        int correct = 0;
+        int cardsStudied = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyStudyStatsResponse stats = byDay.getOrDefault(day, DailyStudyStatsResponse.empty(day));
+            series.add(stats);
+            reviews += stats.reviews();
+            correct += stats.correct();
+            cardsStudied += stats.cardsStudied();
+        }
+
+        int currentStreak = streaks.getOrDefault(to, streaks.getOrDefault(to.minusDays(1), 0));
+
+        Totals totals = jdbcTemplate.query("""
+                SELECT reviews, correct, longest_streak
+                FROM study_totals
+                WHERE user_id = ? AND deck_id = ?
+                """,
+                (rs, rowNum) -> new Totals(rs.getLong("reviews"), rs.getLong("correct"), rs.getInt("longest_streak")),
+                userId, deckId)
+                .stream()
+                .findFirst()
+                .orElse(Totals.NONE);
+
+        return new StudyStatsResponse(
+                ALL_DECKS.equals(deckId) ? null : deckId,
+                from,
+                to,
+                series,
+                reviews,
+                cardsStudied,
+                ratio(correct, reviews),
+                currentStreak,
+                Math.max(totals.longestStreak(), currentStreak),
+                totals.reviews(),
+                ratio(totals.correct(), totals.reviews()));
+    }
+
+    private static Double ratio(long correct, long reviews) {
+        return reviews == 0 ? null : (double) correct / reviews;
+    }
+
+    private record Totals(long reviews, long correct, int longestStreak) {
+        static final Totals NONE = new Totals(0, 0, 0);
+    }
+}
@@ -4,6 +4,7 @@ import com.flashcards.backend.dto.response.UserResponse;
 import com.flashcards.backend.exception.ResourceNotFoundException;
 import com.flashcards.backend.model.User;
 import com.flashcards.backend.repository.UserRepository;
+import com.flashcards.backend.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,10 +16,10 @@ public class UserService {
     private final UserRepository userRepository;
 
     @Transactional(readOnly = true)
-    public UserResponse getUserResponseByEmail(String email) {
-        User user = userRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + email));
-        
+    public UserResponse getCurrentUser(UserPrincipal principal) {
+        User user = userRepository.findById(principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con id: " + principal.id()));
+
         return mapToUserResponse(user);
     }
 
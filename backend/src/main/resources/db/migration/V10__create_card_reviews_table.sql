@@ -0,0 +1,60 @@
+-- Estado de repaso (SM-2) de cada tarjeta para cada usuario
+-- Una fila aparece cuando la tarjeta entra en el estudio del usuario
+CREATE TABLE card_reviews (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    card_id UUID NOT NULL REFERENCES cards(id) ON DELETE CASCADE,
+    deck_id UUID NOT NULL,
+    repetitions INTEGER NOT NULL DEFAULT 0,
+    interval_days INTEGER NOT NULL DEFAULT 0,
+    ease_factor DOUBLE PRECISION NOT NULL DEFAULT 2.5,
+    lapses INTEGER NOT NULL DEFAULT 0,
+    due_at TIMESTAMP NOT NULL,
+    last_reviewed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, card_id)
+);
+
+-- Cola de repaso: tarjetas vencidas de un usuario en un mazo, por fecha.
+-- Empezar una sesión lee solo las filas vencidas, no el mazo entero
+CREATE INDEX idx_card_reviews_user_deck_due ON card_reviews(user_id, deck_id, due_at);
+
+-- Borrado en cascada desde cards (la PK empieza por user_id)
+CREATE INDEX idx_card_reviews_card_id ON card_reviews(card_id);
+
+-- deck_id está denormalizado para el índice de la cola: sigue a la tarjeta
+-- si cambia de mazo (el borrado del mazo ya llega en cascada por cards)
+CREATE FUNCTION card_reviews_follow_card_deck() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE card_reviews r
+    SET deck_id = n.deck_id
+    FROM new_cards n
+    JOIN old_cards o ON o.id = n.id
+    WHERE r.card_id = n.id
+      AND n.deck_id <> o.deck_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_card_reviews_follow_card_deck
+    AFTER UPDATE ON cards
+    REFERENCING OLD TABLE AS old_cards NEW TABLE AS new_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION card_reviews_follow_card_deck();
+
+-- Hasta qué tarjeta (created_at, id) ha entrado cada usuario en cada mazo:
+-- las tarjetas nuevas se toman a partir de aquí con idx_cards_deck_created_at_id
+CREATE TABLE deck_study_progress (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    deck_id UUID NOT NULL REFERENCES decks(id) ON DELETE CASCADE,
+    new_after_created_at TIMESTAMP NOT NULL,
+    new_after_card_id UUID NOT NULL,
+    PRIMARY KEY (user_id, deck_id)
+);
+
+CREATE INDEX idx_deck_study_progress_deck_id ON deck_study_progress(deck_id);
+
+COMMENT ON TABLE card_reviews IS 'Estado SM-2 de cada tarjeta para cada usuario';
+COMMENT ON COLUMN card_reviews.repetitions IS 'Repasos correctos seguidos';
+COMMENT ON COLUMN card_reviews.interval_days IS 'Días hasta el siguiente repaso';
+COMMENT ON COLUMN card_reviews.ease_factor IS 'Factor de facilidad SM-2 (mínimo 1.3)';
+COMMENT ON COLUMN card_reviews.due_at IS 'Cuándo vuelve a tocar repasar la tarjeta';
+COMMENT ON TABLE deck_study_progress IS 'Última tarjeta nueva que ha entrado en el estudio de cada usuario y mazo';
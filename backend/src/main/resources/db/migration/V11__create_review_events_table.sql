@@ -0,0 +1,22 @@
+-- Historial de eventos de estudio (cada respuesta o giro de tarjeta)
+-- Solo se inserta: lo escribe en lotes ReviewEventWriter
+CREATE TABLE review_events (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    -- Sin FK: el historial se conserva aunque se borre el mazo o la tarjeta
+    deck_id UUID NOT NULL,
+    card_id UUID NOT NULL,
+    event_type VARCHAR(16) NOT NULL CHECK (event_type IN ('FLIP', 'ANSWER')),
+    grade SMALLINT CHECK (grade BETWEEN 0 AND 5),
+    duration_ms INTEGER CHECK (duration_ms >= 0),
+    occurred_at TIMESTAMP NOT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Id generado por el cliente: reenviar un lote (tras un 503) no duplica eventos
+    client_event_id UUID NOT NULL,
+    CONSTRAINT uq_review_events_client_event UNIQUE (user_id, client_event_id),
+    CONSTRAINT chk_review_events_answer_grade CHECK (event_type <> 'ANSWER' OR grade IS NOT NULL)
+);
+
+COMMENT ON TABLE review_events IS 'Eventos de estudio (respuestas y giros), insertados en lotes';
+COMMENT ON COLUMN review_events.occurred_at IS 'Cuándo ocurrió en el cliente';
+COMMENT ON COLUMN review_events.received_at IS 'Cuándo se escribió en la BD';
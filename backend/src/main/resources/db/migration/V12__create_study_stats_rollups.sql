@@ -0,0 +1,81 @@
+-- Estadísticas de estudio agregadas por día, mantenidas al escribir los eventos
+-- (ReviewEventWriter las actualiza en la misma sentencia que inserta en
+-- review_events). El dashboard solo lee estas tablas: su coste depende de los
+-- días que muestra, no de los repasos acumulados.
+--
+-- deck_id = '00000000-0000-0000-0000-000000000000' es la fila con el total de
+-- todos los mazos del usuario.
+
+CREATE TABLE study_daily_stats (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    deck_id UUID NOT NULL,
+    day DATE NOT NULL,
+    reviews INTEGER NOT NULL DEFAULT 0,
+    correct INTEGER NOT NULL DEFAULT 0,
+    cards_studied INTEGER NOT NULL DEFAULT 0,
+    study_ms BIGINT NOT NULL DEFAULT 0,
+    -- Días seguidos con repasos terminando en este; NULL hasta que lo calcula el escritor
+    streak INTEGER,
+    PRIMARY KEY (user_id, deck_id, day)
+);
+
+-- Días cuya racha falta por calcular (normalmente vacío)
+CREATE INDEX idx_study_daily_stats_pending_streak ON study_daily_stats(user_id, deck_id, day)
+    WHERE streak IS NULL;
+
+-- Totales históricos: retención global y racha más larga sin recorrer todos los días
+CREATE TABLE study_totals (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    deck_id UUID NOT NULL,
+    reviews BIGINT NOT NULL DEFAULT 0,
+    correct BIGINT NOT NULL DEFAULT 0,
+    study_ms BIGINT NOT NULL DEFAULT 0,
+    longest_streak INTEGER NOT NULL DEFAULT 0,
+    first_day DATE NOT NULL,
+    last_day DATE NOT NULL,
+    PRIMARY KEY (user_id, deck_id)
+);
+
+-- "Tarjetas estudiadas" cuenta cada tarjeta una vez por día: al agregar un lote
+-- se mira si la tarjeta ya tenía una respuesta ese día
+CREATE INDEX idx_review_events_user_card_answered ON review_events(user_id, card_id, occurred_at)
+    WHERE event_type = 'ANSWER';
+
+COMMENT ON TABLE study_daily_stats IS 'Repasos por usuario, mazo y día (deck_id 00000000-... = todos los mazos)';
+COMMENT ON COLUMN study_daily_stats.day IS 'Día local del cliente (occurred_at::date)';
+COMMENT ON COLUMN study_daily_stats.correct IS 'Respuestas con nota >= 3';
+COMMENT ON COLUMN study_daily_stats.cards_studied IS 'Tarjetas distintas respondidas ese día';
+COMMENT ON COLUMN study_daily_stats.streak IS 'Racha de días seguidos que termina en este día';
+COMMENT ON TABLE study_totals IS 'Totales históricos por usuario y mazo (deck_id 00000000-... = todos los mazos)';
+
+-- Eventos anteriores a esta migración
+INSERT INTO study_daily_stats (user_id, deck_id, day, reviews, correct, cards_studied, study_ms)
+SELECT user_id,
+       COALESCE(deck_id, '00000000-0000-0000-0000-000000000000'),
+       CAST(occurred_at AS DATE),
+       count(*),
+       count(*) FILTER (WHERE grade >= 3),
+       count(DISTINCT card_id),
+       COALESCE(sum(duration_ms), 0)
+FROM review_events
+WHERE event_type = 'ANSWER'
+GROUP BY GROUPING SETS ((user_id, deck_id, CAST(occurred_at AS DATE)), (user_id, CAST(occurred_at AS DATE)));
+
+-- Rachas: los días seguidos comparten day - row_number()
+UPDATE study_daily_stats s
+SET streak = r.streak
+FROM (
+    SELECT user_id, deck_id, day,
+           row_number() OVER (PARTITION BY user_id, deck_id, run ORDER BY day) AS streak
+    FROM (
+        SELECT user_id, deck_id, day,
+               day - CAST(row_number() OVER (PARTITION BY user_id, deck_id ORDER BY day) AS INTEGER) AS run
+        FROM study_daily_stats
+    ) t
+) r
+WHERE s.user_id = r.user_id AND s.deck_id = r.deck_id AND s.day = r.day;
+
+INSERT INTO study_totals (user_id, deck_id, reviews, correct, study_ms, longest_streak, first_day, last_day)
+SELECT user_id, deck_id, sum(reviews), sum(correct), sum(study_ms), max(streak), min(day), max(day)
+FROM study_daily_stats
+GROUP BY user_id, deck_id;
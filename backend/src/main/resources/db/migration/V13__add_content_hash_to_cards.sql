@@ -0,0 +1,22 @@
+-- Huella del contenido de cada tarjeta para detectar duplicados dentro de un mazo
+-- Normalizada: sin espacios al principio ni al final, espacios internos
+-- colapsados a uno y en minúsculas, así "Hola  mundo " y "hola mundo" son
+-- la misma tarjeta. El separador (chr(31)) evita que "ab"+"c" choque con "a"+"bc".
+CREATE OR REPLACE FUNCTION card_content_hash(front TEXT, back TEXT) RETURNS BYTEA AS $$
+    SELECT sha256(convert_to(
+        lower(regexp_replace(btrim(front), '\s+', ' ', 'g'))
+        || chr(31) ||
+        lower(regexp_replace(btrim(back), '\s+', ' ', 'g')),
+        'UTF8'))
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+-- Columna generada: la BD la mantiene en cada INSERT y UPDATE (JPA, JDBC
+-- masivo o copia de mazos) sin que la aplicación tenga que calcularla
+ALTER TABLE cards
+    ADD COLUMN content_hash BYTEA GENERATED ALWAYS AS (card_content_hash(front, back)) STORED;
+
+-- Comprobar si una tarjeta ya existe en el mazo es una búsqueda en este
+-- índice; el informe de duplicados agrupa leyendo solo el rango del mazo
+CREATE INDEX idx_cards_deck_content_hash ON cards(deck_id, content_hash);
+
+COMMENT ON COLUMN cards.content_hash IS 'SHA-256 del frente y reverso normalizados (duplicados dentro del mazo)';
@@ -0,0 +1,26 @@
+-- Claves UUIDv7 (RFC 9562): los primeros 48 bits son los milisegundos desde
+-- epoch, así que cada id nuevo va al final del índice de la clave primaria en
+-- lugar de a una página aleatoria. Con v4 cada inserción parte páginas al azar,
+-- el índice se hincha y deja de caber en memoria mucho antes que la tabla.
+-- Las entidades JPA generan v7 en la aplicación (Hibernate, @UuidGenerator);
+-- este DEFAULT cubre las inserciones por SQL (creación masiva, copia de mazos).
+-- PostgreSQL 15 no tiene uuidv7() (llega en 18): se parte de gen_random_uuid(),
+-- se sobrescriben los 6 primeros bytes con el instante y la versión pasa de 4 a 7.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID
+$$ LANGUAGE sql VOLATILE PARALLEL SAFE;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE decks ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE cards ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+
+-- Los ids v4 existentes se conservan: ambas versiones conviven en el índice
+-- y las filas nuevas se añaden a su extremo derecho
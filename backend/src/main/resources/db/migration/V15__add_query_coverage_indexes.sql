@@ -0,0 +1,21 @@
+-- Índices que necesitan las queries de los repositorios (ver QueryPlanRegressionTests)
+
+-- findByEmailIgnoreCase / existsByEmailIgnoreCase y los de username:
+-- Spring Data los traduce a upper(columna) = upper(?), que no puede usar los
+-- índices sobre la columna tal cual. Únicos: el registro ya comprueba los
+-- duplicados sin distinguir mayúsculas y así dos registros simultáneos
+-- tampoco pueden colarlos (el segundo recibe DataIntegrityViolation → 409).
+CREATE UNIQUE INDEX idx_users_email_upper ON users (upper(email));
+CREATE UNIQUE INDEX idx_users_username_upper ON users (upper(username));
+
+-- Redundantes: duplican los índices de las restricciones UNIQUE de V1
+DROP INDEX idx_users_email;
+DROP INDEX idx_users_username;
+
+-- Redundante: user_id es el prefijo de idx_decks_user_created_at_id (V5),
+-- que también sirve al ON DELETE CASCADE desde users
+DROP INDEX idx_decks_user_id;
+
+-- Un índice B-tree sobre un booleano no filtra casi nada; las queries de
+-- mazos públicos usan el parcial idx_decks_public_created_at_id (V5)
+DROP INDEX idx_decks_is_public;
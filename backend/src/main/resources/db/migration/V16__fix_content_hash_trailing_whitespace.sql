@@ -0,0 +1,23 @@
+-- card_content_hash de V13 recortaba con btrim(x), que solo quita espacios, y
+-- colapsaba después: "hola\r", "hola\n" o "hola\t" quedaban como "hola " y no
+-- coincidían con "hola" (reimportar un CSV con CRLF no detectaba duplicados).
+-- Ahora se colapsa primero todo espacio en blanco (\s: espacio, tabulador,
+-- saltos de línea) a un espacio y luego se recorta.
+CREATE OR REPLACE FUNCTION card_content_hash(front TEXT, back TEXT) RETURNS BYTEA AS $$
+    SELECT sha256(convert_to(
+        lower(btrim(regexp_replace(front, '\s+', ' ', 'g')))
+        || chr(31) ||
+        lower(btrim(regexp_replace(back, '\s+', ' ', 'g'))),
+        'UTF8'))
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+-- Cambiar la función no recalcula lo guardado: se vuelve a crear la columna
+-- generada (reescribe cards sin disparar los triggers de UPDATE) y su índice
+ALTER TABLE cards DROP COLUMN content_hash;
+
+ALTER TABLE cards
+    ADD COLUMN content_hash BYTEA GENERATED ALWAYS AS (card_content_hash(front, back)) STORED;
+
+CREATE INDEX idx_cards_deck_content_hash ON cards(deck_id, content_hash);
+
+COMMENT ON COLUMN cards.content_hash IS 'SHA-256 del frente y reverso normalizados (duplicados dentro del mazo)';
@@ -0,0 +1,88 @@
+-- Contador desnormalizado de tarjetas por mazo
+-- Evita un COUNT(*) sobre cards por cada mazo listado
+ALTER TABLE decks ADD COLUMN card_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill con el número real de tarjetas de cada mazo
+UPDATE decks d
+SET card_count = c.total
+FROM (
+    SELECT deck_id, COUNT(*) AS total
+    FROM cards
+    GROUP BY deck_id
+) c
+WHERE d.id = c.deck_id;
+
+ALTER TABLE decks ADD CONSTRAINT chk_decks_card_count CHECK (card_count >= 0);
+
+-- Triggers a nivel de sentencia con tablas de transición:
+-- una sola actualización por mazo afectado, también en inserciones/borrados masivos
+-- y en el borrado en cascada. El UPDATE bloquea la fila del mazo, así que
+-- escritores concurrentes se serializan y el contador nunca se desvía.
+CREATE OR REPLACE FUNCTION cards_count_after_insert() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE decks d
+    SET card_count = d.card_count + n.total
+    FROM (
+        SELECT deck_id, COUNT(*) AS total
+        FROM new_cards
+        GROUP BY deck_id
+    ) n
+    WHERE d.id = n.deck_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION cards_count_after_delete() RETURNS TRIGGER AS $$
+BEGIN
+    -- En un borrado en cascada el mazo ya no existe y el UPDATE no afecta filas
+    UPDATE decks d
+    SET card_count = d.card_count - o.total
+    FROM (
+        SELECT deck_id, COUNT(*) AS total
+        FROM old_cards
+        GROUP BY deck_id
+    ) o
+    WHERE d.id = o.deck_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION cards_count_after_update() RETURNS TRIGGER AS $$
+BEGIN
+    -- Solo importa si alguna tarjeta cambia de mazo
+    UPDATE decks d
+    SET card_count = d.card_count + delta.total
+    FROM (
+        SELECT deck_id, SUM(diff) AS total
+        FROM (
+            SELECT n.deck_id, 1 AS diff
+            FROM new_cards n JOIN old_cards o ON o.id = n.id
+            WHERE n.deck_id <> o.deck_id
+            UNION ALL
+            SELECT o.deck_id, -1 AS diff
+            FROM new_cards n JOIN old_cards o ON o.id = n.id
+            WHERE n.deck_id <> o.deck_id
+        ) moved
+        GROUP BY deck_id
+    ) delta
+    WHERE d.id = delta.deck_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_cards_count_insert
+    AFTER INSERT ON cards
+    REFERENCING NEW TABLE AS new_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION cards_count_after_insert();
+
+CREATE TRIGGER trg_cards_count_delete
+    AFTER DELETE ON cards
+    REFERENCING OLD TABLE AS old_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION cards_count_after_delete();
+
+CREATE TRIGGER trg_cards_count_update
+    AFTER UPDATE ON cards
+    REFERENCING OLD TABLE AS old_cards NEW TABLE AS new_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION cards_count_after_update();
+
+COMMENT ON COLUMN decks.card_count IS 'Número de tarjetas del mazo (mantenido por triggers sobre cards)';
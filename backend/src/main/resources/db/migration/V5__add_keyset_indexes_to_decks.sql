@@ -0,0 +1,12 @@
+-- Índices compuestos para la paginación por cursor (created_at, id)
+-- Permiten recorrer los mazos en orden descendente sin OFFSET ni ordenación
+
+-- Mis mazos + públicos (el OR se resuelve recorriendo este índice en orden)
+CREATE INDEX idx_decks_created_at_id ON decks(created_at DESC, id DESC);
+
+-- Catálogo público: índice parcial, solo contiene mazos públicos
+CREATE INDEX idx_decks_public_created_at_id ON decks(created_at DESC, id DESC)
+    WHERE is_public = true;
+
+-- Mazos de un usuario en orden de creación
+CREATE INDEX idx_decks_user_created_at_id ON decks(user_id, created_at DESC, id DESC);
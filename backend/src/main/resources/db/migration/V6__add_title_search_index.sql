@@ -0,0 +1,20 @@
+-- Búsqueda de mazos por título insensible a mayúsculas y acentos
+-- ("matematicas" encuentra "Matemáticas") servida por un índice de trigramas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() es STABLE porque depende del diccionario configurado.
+-- Fijando el diccionario se puede declarar IMMUTABLE y usar en un índice.
+CREATE OR REPLACE FUNCTION immutable_unaccent(text) RETURNS text AS $$
+    SELECT public.unaccent('public.unaccent'::regdictionary, $1)
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+-- Normalización común para indexar y para buscar: sin acentos y en minúsculas
+CREATE OR REPLACE FUNCTION search_normalize(text) RETURNS text AS $$
+    SELECT lower(public.immutable_unaccent($1))
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+-- GIN de trigramas: sirve LIKE '%x%' y el operador de similitud <%
+CREATE INDEX idx_decks_title_trgm ON decks USING GIN (search_normalize(title) gin_trgm_ops);
+
+COMMENT ON FUNCTION search_normalize(text) IS 'Normaliza texto para búsqueda (unaccent + lower), usada por idx_decks_title_trgm';
@@ -0,0 +1,4 @@
+-- Versión de los tokens de cada usuario
+-- Los JWT llevan la versión con la que se emitieron; al subirla (cambio de
+-- credenciales, cierre de sesiones) todos los tokens anteriores dejan de valer
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
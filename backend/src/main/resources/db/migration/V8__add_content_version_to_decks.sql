@@ -0,0 +1,54 @@
+-- Versión del contenido de cada mazo para GET condicionales (ETag / Last-Modified)
+-- Cambia con cualquier modificación visible del mazo o de sus tarjetas,
+-- así un 304 se decide con una sola lectura por clave primaria de decks
+ALTER TABLE decks ADD COLUMN content_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE decks ADD COLUMN content_updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Backfill: la última modificación del mazo o de cualquiera de sus tarjetas
+UPDATE decks d
+SET content_updated_at = GREATEST(d.updated_at, COALESCE(c.last_card_update, d.updated_at))
+FROM (
+    SELECT dd.id, MAX(cc.updated_at) AS last_card_update
+    FROM decks dd
+    LEFT JOIN cards cc ON cc.deck_id = dd.id
+    GROUP BY dd.id
+) c
+WHERE d.id = c.id;
+
+-- Cambios en el propio mazo, incluido card_count (inserciones, borrados y
+-- movimientos de tarjetas pasan por los triggers de V4). Si la sentencia ya
+-- sube la versión explícitamente no se vuelve a subir.
+CREATE OR REPLACE FUNCTION decks_bump_content_version() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.content_version = OLD.content_version
+       AND ROW(NEW.title, NEW.description, NEW.tags, NEW.is_public, NEW.user_id, NEW.card_count)
+           IS DISTINCT FROM ROW(OLD.title, OLD.description, OLD.tags, OLD.is_public, OLD.user_id, OLD.card_count) THEN
+        NEW.content_version := OLD.content_version + 1;
+        NEW.content_updated_at := CURRENT_TIMESTAMP;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_decks_content_version
+    BEFORE UPDATE ON decks
+    FOR EACH ROW EXECUTE FUNCTION decks_bump_content_version();
+
+-- Ediciones de tarjetas que no cambian card_count (front/back)
+CREATE OR REPLACE FUNCTION cards_touch_deck_after_update() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE decks d
+    SET content_version = d.content_version + 1,
+        content_updated_at = CURRENT_TIMESTAMP
+    WHERE d.id IN (SELECT DISTINCT deck_id FROM new_cards);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_cards_touch_deck_update
+    AFTER UPDATE ON cards
+    REFERENCING NEW TABLE AS new_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION cards_touch_deck_after_update();
+
+COMMENT ON COLUMN decks.content_version IS 'Versión del contenido del mazo y sus tarjetas (ETag), mantenida por triggers';
+COMMENT ON COLUMN decks.content_updated_at IS 'Última modificación del mazo o sus tarjetas (Last-Modified)';
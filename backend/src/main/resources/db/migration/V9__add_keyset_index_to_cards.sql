@@ -0,0 +1,7 @@
+-- Índice compuesto para listar las tarjetas de un mazo por cursor (created_at, id)
+-- La primera página de un mazo de 100.000 tarjetas lee las mismas filas del
+-- índice que la de un mazo de 10, sin ordenar ni contar
+CREATE INDEX idx_cards_deck_created_at_id ON cards(deck_id, created_at, id);
+
+-- Redundante: deck_id es el prefijo del índice nuevo
+DROP INDEX idx_cards_deck_id;
@@ -0,0 +1,69 @@
+package com.flashcards.backend;
+
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.AuthService;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * UserFixture - Usuarios registrados para un test y borrados al terminar
+ *
+ *   @RegisterExtension
+ *   final UserFixture users = new UserFixture("prefijo");
+ *
+ * Cada register() da de alta un usuario nuevo (email y username únicos con
+ * el prefijo) por AuthService, como el endpoint de registro. Después de cada
+ * test (y de sus @AfterEach) se borran los usuarios registrados y, en
+ * cascada, sus mazos, tarjetas y eventos.
+ */
+public class UserFixture implements BeforeEachCallback, AfterEachCallback {
+
+    private final String prefix;
+    private final List<String> emails = new ArrayList<>();
+    private ApplicationContext context;
+
+    public UserFixture(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) {
+        context = SpringExtension.getApplicationContext(extensionContext);
+    }
+
+    public TestUser register() {
+        String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String email = name + "@test.com";
+        AuthResponse auth = context.getBean(AuthService.class)
+                .register(new RegisterRequest(email, name, "password123"));
+        emails.add(email);
+        return new TestUser(email, auth.token(),
+                new UserPrincipal(auth.user().id(), auth.user().email(), auth.user().username(), null));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        emails.forEach(email -> jdbcTemplate.update("DELETE FROM users WHERE email = ?", email));
+        emails.clear();
+    }
+
+    public record TestUser(String email, String token, UserPrincipal principal) {
+
+        public UUID id() {
+            return principal.id();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.service.AuthService;
+
+import com.jayway.jsonpath.JsonPath;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rendimiento de la creación masiva de tarjetas, de extremo a extremo (HTTP + BD)
+ *
+ * ./mvnw test -Pbenchmark -Dtest=BulkCardInsertBenchmark [-Dbenchmark.cards=100000] [-Dbenchmark.chunk=10000]
+ *
+ * Importa benchmark.cards tarjetas en peticiones de benchmark.chunk con
+ * POST /cards/bulk y, como referencia, unas pocas con POST /cards una a una.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.com.flashcards=WARN",
+                "logging.level.com.flashcards.backend.benchmark=INFO" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class BulkCardInsertBenchmark {
+
+    private static final int CARDS = Integer.getInteger("benchmark.cards", 100_000);
+    private static final int CHUNK = Integer.getInteger("benchmark.chunk", 10_000);
+    private static final int SINGLE_CARDS = Integer.getInteger("benchmark.single", 1_000);
+    private static final double MIN_CARDS_PER_SECOND = Double.parseDouble(System.getProperty("benchmark.minRate", "20000"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private String email;
+    private String token;
+
+    @BeforeAll
+    void register() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        email = "bench-bulk-" + suffix + "@test.com";
+        AuthResponse auth = authService.register(new RegisterRequest(email, "bench-bulk-" + suffix, "password123"));
+        token = auth.token();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", email);
+    }
+
+    @Test
+    void bulkInsertThroughput() throws Exception {
+        // Calentamiento: JIT, pool de conexiones y plan de la sentencia
+        String warmupDeck = createDeck("Calentamiento");
+        for (int i = 0; i < 3; i++) {
+            postBulk(warmupDeck, bulkBody(0, CHUNK));
+        }
+
+        String deckId = createDeck("Importación");
+        String[] bodies = new String[CARDS / CHUNK];
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = bulkBody(i * CHUNK, CHUNK);
+        }
+
+        long start = System.nanoTime();
+        for (String body : bodies) {
+            postBulk(deckId, body);
+        }
+        double bulkSeconds = (System.nanoTime() - start) / 1e9;
+        int imported = bodies.length * CHUNK;
+        double bulkRate = imported / bulkSeconds;
+
+        String singleDeck = createDeck("Una a una");
+        start = System.nanoTime();
+        for (int i = 0; i < SINGLE_CARDS; i++) {
+            post("/api/decks/" + singleDeck + "/cards", "{\"front\": \"f" + i + "\", \"back\": \"b\"}", 201);
+        }
+        double singleRate = SINGLE_CARDS / ((System.nanoTime() - start) / 1e9);
+
+        log.info("bulk: {} tarjetas en {} s = {} tarjetas/s (peticiones de {})",
+                imported, String.format("%.2f", bulkSeconds), String.format("%.0f", bulkRate), CHUNK);
+        log.info("una a una: {} tarjetas/s ({}x más lento)",
+                String.format("%.0f", singleRate), String.format("%.0f", bulkRate / singleRate));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT card_count FROM decks WHERE id = ?::uuid", Integer.class, deckId)).isEqualTo(imported);
+        assertThat(bulkRate).isGreaterThanOrEqualTo(MIN_CARDS_PER_SECOND);
+    }
+
+    private String createDeck(String title) throws Exception {
+        return JsonPath.read(post("/api/decks", "{\"title\": \"" + title + "\"}", 201), "$.id");
+    }
+
+    private void postBulk(String deckId, String body) throws Exception {
+        post("/api/decks/" + deckId + "/cards/bulk", body, 201);
+    }
+
+    /** Tarjetas de vocabulario de tamaño realista */
+    private String bulkBody(int from, int count) {
+        StringBuilder body = new StringBuilder(count * 96).append("{\"cards\": [");
+        for (int i = from; i < from + count; i++) {
+            body.append(i == from ? "" : ",")
+                    .append("{\"front\": \"palabra ").append(i)
+                    .append("\", \"back\": \"definición de la palabra ").append(i).append(" con un ejemplo de uso\"}");
+        }
+        return body.append("]}").toString();
+    }
+
+    private String post(String path, String body, int expectedStatus) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(path).isEqualTo(expectedStatus);
+        return response.body();
+    }
+}
@@ -0,0 +1,134 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.repository.DeckRepository;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.AuthService;
+import com.flashcards.backend.service.DeckService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la búsqueda por título sobre 1M+ mazos
+ *
+ * ./mvnw test -Pbenchmark -Dtest=DeckTitleSearchBenchmark [-Dbenchmark.decks=2000000]
+ *
+ * Compara el plan de la query indexada (trigramas + unaccent) con el
+ * antiguo LOWER(title) LIKE '%x%' y mide la latencia del servicio.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class DeckTitleSearchBenchmark {
+
+    private static final int DECKS = Integer.getInteger("benchmark.decks", 1_000_000);
+    private static final Pattern EXECUTION_TIME = Pattern.compile("\"Execution Time\"\\s*:\\s*([0-9.]+)");
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private String email;
+    private UserPrincipal principal;
+    private UUID userId;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        email = "bench-search-" + suffix + "@test.com";
+        AuthResponse auth = authService.register(new RegisterRequest(email, "bench-search-" + suffix, "password123"));
+        principal = new UserPrincipal(auth.user().id(), auth.user().email(), auth.user().username(), null);
+        userId = auth.user().id();
+
+        long start = System.nanoTime();
+        jdbcTemplate.update("""
+                INSERT INTO decks (user_id, title, is_public, created_at)
+                SELECT ?,
+                       (ARRAY['Matemáticas', 'Física', 'Química', 'Biología', 'Historia', 'Geografía',
+                              'Economía', 'Filosofía', 'Inglés', 'Programación', 'Estadística', 'Música'])[1 + g % 12]
+                       || ' ' ||
+                       (ARRAY['básicas', 'avanzadas', 'para selectividad', 'de primero', 'de repaso',
+                              'del examen final', 'aplicadas', 'teóricas', 'prácticas', 'resumidas'])[1 + (g / 12) % 10]
+                       || CASE WHEN g % 1000 = 0 THEN ' termodinámica' ELSE '' END
+                       || ' #' || g,
+                       g % 3 = 0,
+                       TIMESTAMP '2020-01-01' + g * INTERVAL '1 second'
+                FROM generate_series(1, ?) g
+                """, userId, DECKS);
+        jdbcTemplate.execute("ANALYZE decks");
+        log.info("Sembrados {} mazos en {} ms", DECKS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", email);
+    }
+
+    @Test
+    void indexedSearchUsesTrigramIndex() {
+        for (String search : new String[] { "termodinamica", "matematicas avanzadas", "quimica practicas #4242" }) {
+            String plan = explain(DeckRepository.TITLE_SEARCH_QUERY + " LIMIT 20", search);
+            String legacy = explain("""
+                    SELECT d.id FROM decks d
+                    WHERE (d.user_id = :userId OR d.is_public = true)
+                    AND LOWER(d.title) LIKE LOWER('%' || :search || '%')
+                    ORDER BY d.created_at DESC
+                    LIMIT 20
+                    """, search);
+
+            log.info("'{}': trigramas {} ms, LOWER LIKE {} ms", search, executionTime(plan), executionTime(legacy));
+            assertThat(plan).contains("idx_decks_title_trgm");
+        }
+    }
+
+    @Test
+    void serviceLatency() {
+        int iterations = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            deckService.getDecks(principal, 0, 20, "termodinamica", null, null);
+        }
+        double avgMs = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+        log.info("getDecks(search='termodinamica') sobre {} mazos: {} ms de media", DECKS, String.format("%.2f", avgMs));
+    }
+
+    private String explain(String sql, String search) {
+        return namedJdbcTemplate.queryForObject(
+                "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql,
+                Map.of("userId", userId, "search", search),
+                String.class);
+    }
+
+    private String executionTime(String plan) {
+        Matcher matcher = EXECUTION_TIME.matcher(plan);
+        return matcher.find() ? matcher.group(1) : "?";
+    }
+}
@@ -0,0 +1,117 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.model.User;
+import com.flashcards.backend.security.JwtTokenProvider;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark (JMH) de la verificación de JWT en el filtro
+ *
+ * ./mvnw test -Pbenchmark -Dtest=JwtVerificationBenchmark
+ *
+ * - legacy: lo que hacía el filtro antes, clave y parser nuevos y dos parseos por petición
+ * - singleParse: clave y parser precalculados, un parseo (caché desactivada)
+ * - cached: camino actual, los tokens repetidos salen de la caché de verificados
+ *
+ * Se ejecuta con 1, 8 y 32 hilos sobre un pool de tokens de distintos usuarios.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "miClaveSecretaPorDefectoParaDesarrolloLocalMuyLarga123";
+    private static final long EXPIRATION = 86_400_000L;
+    private static final int TOKENS = 1_000;
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new JwtTokenProvider(SECRET, EXPIRATION, 10_000);
+        uncachedProvider = new JwtTokenProvider(SECRET, EXPIRATION, 0);
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cachedProvider.generateToken(user("user" + i + "@test.com"));
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        String token = nextToken();
+        // validateToken(): clave + parser + parseo
+        Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token);
+        // getEmailFromToken(): otra vez clave + parser + parseo
+        return Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncachedProvider.parseClaims(nextToken());
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return cachedProvider.parseClaims(nextToken());
+    }
+
+    private SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(TOKENS)];
+    }
+
+    @Test
+    void run() throws Exception {
+        for (int threads : new int[] { 1, 8, 32 }) {
+            Options options = new OptionsBuilder()
+                    .include(JwtVerificationBenchmark.class.getName() + "\\.(legacy|singleParse|cached)$")
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(2))
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .username(email.substring(0, email.indexOf('@')))
+                .build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.service.AuthService;
+import com.flashcards.backend.service.PublicCatalog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga del catálogo público a ritmo constante (open loop)
+ *
+ * ./mvnw test -Pbenchmark -Dtest=PublicCatalogLoadBenchmark [-Dbenchmark.rps=1000] [-Dbenchmark.seconds=20]
+ *
+ * Lanza peticiones a un ritmo fijo sin esperar respuestas y mide la latencia
+ * desde el instante en que cada petición debía salir (sin omisión coordinada).
+ * Compara la portada (snapshot en memoria) con una página fuera del snapshot
+ * (misma query contra la BD).
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.com.flashcards=WARN",
+                "logging.level.com.flashcards.backend.benchmark=INFO" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class PublicCatalogLoadBenchmark {
+
+    private static final int DECKS = Integer.getInteger("benchmark.decks", 100_000);
+    private static final int RPS = Integer.getInteger("benchmark.rps", 1_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 10);
+    private static final long P99_BUDGET_MS = Long.getLong("benchmark.p99ms", 50);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PublicCatalog publicCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private String email;
+    private String token;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        email = "bench-catalog-" + suffix + "@test.com";
+        AuthResponse auth = authService.register(new RegisterRequest(email, "bench-catalog-" + suffix, "password123"));
+        token = auth.token();
+
+        jdbcTemplate.update("""
+                INSERT INTO decks (user_id, title, tags, is_public, created_at)
+                SELECT ?, 'Catálogo #' || g, ARRAY['bench'], true, TIMESTAMP '2020-01-01' + g * INTERVAL '1 second'
+                FROM generate_series(1, ?) g
+                """, auth.user().id(), DECKS);
+        jdbcTemplate.execute("ANALYZE decks");
+        publicCatalog.requestRebuild();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", email);
+        publicCatalog.requestRebuild();
+    }
+
+    @Test
+    void catalogP99UnderConstantLoad() throws Exception {
+        // Página 0: snapshot en memoria. Página 5 (offset 100): fuera del snapshot, va a la BD
+        run("/api/decks?onlyPublic=true&size=20", WARMUP_SECONDS);
+        Result snapshot = run("/api/decks?onlyPublic=true&size=20", SECONDS);
+        run("/api/decks?onlyPublic=true&size=20&page=5", WARMUP_SECONDS);
+        Result database = run("/api/decks?onlyPublic=true&size=20&page=5", SECONDS);
+
+        report("snapshot", snapshot);
+        report("base de datos", database);
+
+        assertThat(snapshot.errors()).as("respuestas con error o timeout").isZero();
+        assertThat(percentile(snapshot.latencies(), 99.0) / 1_000_000).isLessThanOrEqualTo(P99_BUDGET_MS);
+    }
+
+    /** Latencias ordenadas (ns) y número de respuestas no 200 o sin respuesta a tiempo */
+    private record Result(long[] latencies, int errors) { }
+
+    /** Lanza RPS peticiones/s durante los segundos indicados */
+    private Result run(String path, int seconds) throws InterruptedException {
+        int total = RPS * seconds;
+        long periodNanos = 1_000_000_000L / RPS;
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(TIMEOUT)
+                .build();
+
+        AtomicLongArray latencies = new AtomicLongArray(total);
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(total);
+        long start = System.nanoTime();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(() -> {
+            // Si el planificador se retrasa, recupera enviando las que tocaban
+            long due = Math.min(total, (System.nanoTime() - start) / periodNanos + 1);
+            for (int i = sent.get(); i < due; i = sent.incrementAndGet()) {
+                int index = i;
+                long intended = start + index * periodNanos;
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, ex) -> {
+                            if (ex != null || response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                            latencies.set(index, System.nanoTime() - intended);
+                            done.countDown();
+                        });
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        // Las que no terminan a tiempo cuentan como error con la latencia del timeout
+        boolean finished = done.await(seconds + TIMEOUT.toSeconds() + 30, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+
+        int unfinished = finished ? 0 : (int) done.getCount();
+        long[] result = new long[total];
+        for (int i = 0; i < total; i++) {
+            long latency = latencies.get(i);
+            result[i] = latency > 0 ? latency : TIMEOUT.toNanos();
+        }
+        Arrays.sort(result);
+        return new Result(result, errors.get() + unfinished);
+    }
+
+    private void report(String label, Result result) {
+        long[] sorted = result.latencies();
+        log.info("{} @ {} rps: p50 {} ms, p90 {} ms, p99 {} ms, p99.9 {} ms, max {} ms, errores {}",
+                label, RPS,
+                millis(percentile(sorted, 50.0)),
+                millis(percentile(sorted, 90.0)),
+                millis(percentile(sorted, 99.0)),
+                millis(percentile(sorted, 99.9)),
+                millis(sorted[sorted.length - 1]),
+                result.errors());
+    }
+
+    private long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,192 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.service.AuthService;
+
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga de POST /api/study/events con muchos estudiantes a la vez (ack síncrono)
+ *
+ * ./mvnw test -Pbenchmark -Dtest=ReviewEventIngestionBenchmark [-Dbenchmark.learners=200] [-Dbenchmark.requests=50] [-Dbenchmark.batch=10]
+ *
+ * Cada estudiante envía benchmark.requests lotes de benchmark.batch eventos
+ * seguidos, esperando la respuesta de cada uno (bucle cerrado). Mide eventos
+ * por segundo, latencia de las peticiones y cuántos eventos comparten cada
+ * commit: con un commit por petición serían benchmark.batch.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.com.flashcards=WARN",
+                "logging.level.com.flashcards.backend.benchmark=INFO" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class ReviewEventIngestionBenchmark {
+
+    private static final int LEARNERS = Integer.getInteger("benchmark.learners", 200);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 50);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private String email;
+    private String token;
+    private String deckId;
+    private String cardId;
+
+    @BeforeAll
+    void register() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        email = "bench-events-" + suffix + "@test.com";
+        AuthResponse auth = authService.register(new RegisterRequest(email, "bench-events-" + suffix, "password123"));
+        token = auth.token();
+        deckId = JsonPath.read(post("/api/decks", "{\"title\": \"Eventos\"}", 201), "$.id");
+        cardId = JsonPath.read(post("/api/decks/" + deckId + "/cards", "{\"front\": \"a\", \"back\": \"b\"}", 201), "$.id");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", email);
+    }
+
+    @Test
+    void concurrentLearners() throws Exception {
+        // Calentamiento: JIT, pool de conexiones, plan del INSERT
+        for (int i = 0; i < 200; i++) {
+            post("/api/study/events", body(), 200);
+        }
+        jdbcTemplate.update("DELETE FROM review_events WHERE deck_id = ?::uuid", deckId);
+
+        Timer flushTimer = meterRegistry.get("study.events.flush").timer();
+        DistributionSummary flushSize = meterRegistry.get("study.events.flush.size").summary();
+        long flushesBefore = flushTimer.count();
+        double flushMillisBefore = flushTimer.totalTime(TimeUnit.MILLISECONDS);
+        double eventsBefore = flushSize.totalAmount();
+
+        int total = LEARNERS * REQUESTS;
+        AtomicLongArray latencies = new AtomicLongArray(total);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService learners = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int l = 0; l < LEARNERS; l++) {
+                learners.submit(() -> {
+                    for (int r = 0; r < REQUESTS; r++) {
+                        long sent = System.nanoTime();
+                        try {
+                            post("/api/study/events", body(), 200);
+                            latencies.set(next.getAndIncrement(), System.nanoTime() - sent);
+                        } catch (Throwable e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            learners.shutdown();
+            assertThat(learners.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long flushes = flushTimer.count() - flushesBefore;
+        double flushedEvents = flushSize.totalAmount() - eventsBefore;
+        double flushMillis = flushTimer.totalTime(TimeUnit.MILLISECONDS) - flushMillisBefore;
+        long[] sorted = new long[next.get()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+
+        int events = total * BATCH;
+        log.info("{} estudiantes x {} lotes de {}: {} eventos en {} s = {} eventos/s ({} peticiones/s)",
+                LEARNERS, REQUESTS, BATCH, events, String.format("%.2f", seconds),
+                String.format("%.0f", events / seconds), String.format("%.0f", total / seconds));
+        log.info("latencia p50 {} ms, p99 {} ms; {} commits, {} eventos por commit (sin agrupar: {}), {} ms por commit, escritor ocupado {}%",
+                String.format("%.1f", percentile(sorted, 0.50) / 1e6), String.format("%.1f", percentile(sorted, 0.99) / 1e6),
+                flushes, String.format("%.1f", flushedEvents / flushes), BATCH,
+                String.format("%.1f", flushMillis / flushes), String.format("%.0f", 100 * flushMillis / (seconds * 1000)));
+
+        assertThat(errors.get()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM review_events WHERE deck_id = ?::uuid", Integer.class, deckId)).isEqualTo(events);
+        assertThat(flushes).isLessThan(total);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private String body() {
+        StringBuilder body = new StringBuilder("{\"events\": [");
+        for (int i = 0; i < BATCH; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"id\": \"").append(UUID.randomUUID())
+                    .append("\", \"deckId\": \"").append(deckId)
+                    .append("\", \"cardId\": \"").append(cardId)
+                    .append("\", \"type\": \"ANSWER\", \"grade\": ").append(i % 6)
+                    .append(", \"durationMs\": 3000, \"occurredAt\": \"2024-02-10T10:00:00\"}");
+        }
+        return body.append("]}").toString();
+    }
+
+    private String post(String path, String body, int expectedStatus) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(path).isEqualTo(expectedStatus);
+        return response.body();
+    }
+}
@@ -0,0 +1,159 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.BackendApplication;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.security.CustomUserDetailsService;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.AuthService;
+import com.flashcards.backend.service.DeckService;
+import com.flashcards.backend.service.UserService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentencias SQL con y sin la caché de segundo nivel (perfil l2cache)
+ *
+ * ./mvnw test -Pbenchmark -Dtest=SecondLevelCacheBenchmark [-Dbenchmark.users=200] [-Dbenchmark.rounds=20]
+ *
+ * Arranca la aplicación dos veces (sin caché, con caché). En cada una,
+ * benchmark.users usuarios con un mazo repiten benchmark.rounds veces lo que
+ * hace una sesión: /users/me, resolver el usuario por email (login, tokens
+ * antiguos), abrir el mazo para editarlo (PATCH sin cambios) y, una vez de
+ * cada diez, renombrarlo. Cuenta las sentencias que ejecuta Hibernate y el
+ * tiempo; la primera vuelta (caché vacía) no se mide.
+ */
+@Tag("benchmark")
+@Slf4j
+class SecondLevelCacheBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 200);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 20);
+
+    private static final String[] COMMON = {
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.properties.hibernate.generate_statistics=true",
+            "--logging.level.root=WARN",
+            "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=OFF",
+            "--logging.level.com.flashcards.backend.benchmark=INFO" };
+
+    @Test
+    void statementsWithAndWithoutSecondLevelCache() {
+        Result off = run("sin caché");
+        Result on = run("l2cache", "--spring.profiles.active=l2cache");
+
+        log.info("{} usuarios x {} vueltas ({} operaciones)", USERS, ROUNDS, off.operations());
+        for (Result result : List.of(off, on)) {
+            log.info("{}: {} sentencias ({} por operación), {} ms, aciertos en caché {}",
+                    result.label(),
+                    result.statements(),
+                    String.format("%.2f", (double) result.statements() / result.operations()),
+                    result.millis(),
+                    result.hits());
+        }
+        log.info("Reducción de sentencias: {}%",
+                String.format("%.1f", 100.0 * (off.statements() - on.statements()) / off.statements()));
+
+        assertThat(on.statements()).isLessThan(off.statements());
+    }
+
+    private record Result(String label, long operations, long statements, long millis, long hits) { }
+
+    private Result run(String label, String... args) {
+        String[] allArgs = Stream.concat(Stream.of(COMMON), Stream.of(args)).toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(allArgs)) {
+            String prefix = "bench-l2-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+            try {
+                List<Session> sessions = new ArrayList<>();
+                for (int i = 0; i < USERS; i++) {
+                    String email = prefix + i + "@test.com";
+                    AuthResponse auth = context.getBean(AuthService.class)
+                            .register(new RegisterRequest(email, prefix + i, "password123"));
+                    UserPrincipal principal = new UserPrincipal(
+                            auth.user().id(), auth.user().email(), auth.user().username(), null);
+                    UUID deckId = context.getBean(DeckService.class)
+                            .createDeck(new DeckRequest("Mazo " + i, null, null, false), principal).id();
+                    sessions.add(new Session(principal, deckId));
+                }
+
+                // Primera vuelta: llena la caché (si la hay) y calienta la JVM
+                round(context, sessions, 0);
+
+                Statistics statistics = context.getBean(EntityManagerFactory.class)
+                        .unwrap(SessionFactory.class).getStatistics();
+                double hitsBefore = hits(context);
+                long statementsBefore = statistics.getPrepareStatementCount();
+                long start = System.nanoTime();
+                long operations = 0;
+                for (int r = 1; r <= ROUNDS; r++) {
+                    operations += round(context, sessions, r);
+                }
+                long millis = (System.nanoTime() - start) / 1_000_000;
+
+                log.info("{}: terminado", label);
+                return new Result(label, operations, statistics.getPrepareStatementCount() - statementsBefore,
+                        millis, (long) (hits(context) - hitsBefore));
+            } finally {
+                context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE email LIKE ? || '%'", prefix);
+            }
+        }
+    }
+
+    private record Session(UserPrincipal principal, UUID deckId) { }
+
+    private static long round(ConfigurableApplicationContext context, List<Session> sessions, int round) {
+        UserService userService = context.getBean(UserService.class);
+        CustomUserDetailsService userDetailsService = context.getBean(CustomUserDetailsService.class);
+        DeckService deckService = context.getBean(DeckService.class);
+
+        long operations = 0;
+        for (Session session : sessions) {
+            userService.getCurrentUser(session.principal());
+            userDetailsService.loadUserByUsername(session.principal().email());
+            deckService.updateDeck(session.deckId(), new UpdateDeckRequest(null, null, null, null), session.principal());
+            operations += 3;
+            if (round % 10 == 0) {
+                deckService.updateDeck(session.deckId(),
+                        new UpdateDeckRequest("Mazo " + round, null, null, null), session.principal());
+                operations++;
+            }
+        }
+        return operations;
+    }
+
+    /** cache.gets{result=hit} de las regiones de Hibernate (JCacheMetrics); 0 sin el perfil */
+    private static double hits(ConfigurableApplicationContext context) {
+        return context.getBean(MeterRegistry.class).find("cache.gets").tag("result", "hit").meters().stream()
+                .filter(meter -> meter instanceof FunctionCounter)
+                .mapToDouble(meter -> ((FunctionCounter) meter).count())
+                .sum();
+    }
+}
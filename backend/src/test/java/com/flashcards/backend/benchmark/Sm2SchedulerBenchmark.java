@@ -0,0 +1,84 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.model.ReviewState;
+import com.flashcards.backend.service.Sm2Scheduler;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark (JMH) del planificador SM-2
+ *
+ * ./mvnw test -Pbenchmark -Dtest=Sm2SchedulerBenchmark
+ *
+ * - review: un repaso sobre estados y notas variados
+ * - reviewAndDue: repaso más cálculo de la fecha, lo que hace cada POST /study/reviews
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class Sm2SchedulerBenchmark {
+
+    private static final int STATES = 1_024;
+
+    private final Sm2Scheduler scheduler = new Sm2Scheduler();
+    private final LocalDateTime now = LocalDateTime.of(2024, 2, 10, 10, 0);
+    private ReviewState[] states;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        states = new ReviewState[STATES];
+        for (int i = 0; i < STATES; i++) {
+            ReviewState state = ReviewState.NEW;
+            int reviews = random.nextInt(12);
+            for (int j = 0; j < reviews; j++) {
+                state = scheduler.review(state, random.nextInt(2, 6));
+            }
+            states[i] = state;
+        }
+    }
+
+    @Benchmark
+    public ReviewState review() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return scheduler.review(states[random.nextInt(STATES)], random.nextInt(6));
+    }
+
+    @Benchmark
+    public LocalDateTime reviewAndDue() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ReviewState next = scheduler.review(states[random.nextInt(STATES)], random.nextInt(6));
+        return scheduler.dueAt(next, now);
+    }
+
+    @Test
+    void run() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(Sm2SchedulerBenchmark.class.getName() + "\\.(review|reviewAndDue)$")
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.flashcards.backend.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de inserciones con claves UUIDv4 frente a UUIDv7
+ *
+ * ./mvnw test -Pbenchmark -Dtest=UuidPrimaryKeyInsertBenchmark [-Dbenchmark.rows=10000000] [-Dbenchmark.batch=10000]
+ *
+ * Llena dos tablas con la forma de cards (clave primaria + índice
+ * (deck_id, created_at, id)), una con DEFAULT gen_random_uuid() y otra con
+ * uuid_generate_v7(), con INSERT ... SELECT de benchmark.batch filas por
+ * mazo como la creación masiva. Mide inserciones/s por tramos (para ver
+ * cómo cae v4 cuando el índice deja de caber en memoria) y el tamaño final
+ * de la clave primaria.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.flashcards=WARN",
+        "logging.level.com.flashcards.backend.benchmark=INFO" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class UuidPrimaryKeyInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 10_000);
+    private static final int SEGMENTS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterAll
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_uuid_v4, bench_uuid_v7");
+    }
+
+    @Test
+    void v7KeysInsertFasterIntoASmallerIndex() {
+        Result v4 = fill("bench_uuid_v4", "gen_random_uuid()");
+        Result v7 = fill("bench_uuid_v7", "uuid_generate_v7()");
+
+        log.info("{} filas en lotes de {}", ROWS, BATCH);
+        for (Result result : new Result[] { v4, v7 }) {
+            log.info("{}: {} filas/s (primer tramo {}, último {}), pkey {} MB, tabla {} MB",
+                    result.table(),
+                    String.format("%.0f", result.rate()),
+                    String.format("%.0f", result.firstSegmentRate()),
+                    String.format("%.0f", result.lastSegmentRate()),
+                    result.pkeyBytes() / (1024 * 1024),
+                    result.tableBytes() / (1024 * 1024));
+        }
+        log.info("v7/v4: {}x inserciones/s, pkey {}x",
+                String.format("%.2f", v7.rate() / v4.rate()),
+                String.format("%.2f", (double) v7.pkeyBytes() / v4.pkeyBytes()));
+
+        assertThat(v7.pkeyBytes()).isLessThan(v4.pkeyBytes());
+    }
+
+    private Result fill(String table, String idDefault) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("""
+                CREATE TABLE %s (
+                    id UUID PRIMARY KEY DEFAULT %s,
+                    deck_id UUID NOT NULL,
+                    front TEXT NOT NULL,
+                    back TEXT NOT NULL,
+                    created_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+                )
+                """.formatted(table, idDefault));
+        jdbcTemplate.execute("CREATE INDEX %s_deck_created_at_id ON %s(deck_id, created_at, id)".formatted(table, table));
+
+        String insert = """
+                INSERT INTO %s (deck_id, front, back)
+                SELECT ?, 'palabra ' || g, 'definición de la palabra ' || g
+                FROM generate_series(1, ?) g
+                """.formatted(table);
+
+        int batches = ROWS / BATCH;
+        int perSegment = Math.max(1, batches / SEGMENTS);
+        double firstSegmentRate = 0;
+        double lastSegmentRate = 0;
+
+        long start = System.nanoTime();
+        long segmentStart = start;
+        for (int i = 1; i <= batches; i++) {
+            jdbcTemplate.update(insert, UUID.randomUUID(), BATCH);
+
+            if (i % perSegment == 0 || i == batches) {
+                long now = System.nanoTime();
+                int rows = (i % perSegment == 0 ? perSegment : i % perSegment) * BATCH;
+                double segmentRate = rows / ((now - segmentStart) / 1e9);
+                if (firstSegmentRate == 0) {
+                    firstSegmentRate = segmentRate;
+                }
+                lastSegmentRate = segmentRate;
+                segmentStart = now;
+            }
+        }
+        double rate = (double) batches * BATCH / ((System.nanoTime() - start) / 1e9);
+
+        return new Result(table, rate, firstSegmentRate, lastSegmentRate,
+                jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, table + "_pkey"),
+                jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, table));
+    }
+
+    private record Result(
+            String table,
+            double rate,
+            double firstSegmentRate,
+            double lastSegmentRate,
+            long pkeyBytes,
+            long tableBytes) { }
+}
@@ -0,0 +1,195 @@
+package com.flashcards.backend.benchmark;
+
+import com.flashcards.backend.BackendApplication;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.RegisterRequest;
+import com.flashcards.backend.dto.response.AuthResponse;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.AuthService;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hilos de plataforma frente a hilos virtuales con muchos clientes a la vez
+ *
+ * ./mvnw test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark [-Dbenchmark.clients=2000] [-Dbenchmark.seconds=20]
+ *
+ * Arranca la aplicación tres veces (plataforma, virtuales con bulkhead,
+ * virtuales sin bulkhead) y en cada una benchmark.clients clientes piden
+ * sin pausa una página de tarjetas (lectura en la BD). Ante un 503 el
+ * cliente espera lo que dice Retry-After, como haría el frontend. Mide
+ * respuestas 200/s y su latencia, los 503 (y lo que tardan) y los errores
+ * (500, timeouts). Clientes y servidor comparten la máquina.
+ */
+@Tag("benchmark")
+@Slf4j
+class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 2_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 10);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] COMMON = {
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.flashcards.backend.benchmark=INFO" };
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = run("plataforma", "--spring.threads.virtual.enabled=false");
+        Result virtual = run("virtuales + bulkhead", "--spring.threads.virtual.enabled=true");
+        Result unbounded = run("virtuales sin bulkhead",
+                "--spring.threads.virtual.enabled=true", "--bulkhead.max-concurrent=100000");
+
+        log.info("{} clientes, {} s medidos tras {} s de calentamiento", CLIENTS, SECONDS, WARMUP_SECONDS);
+        for (Result result : List.of(platform, virtual, unbounded)) {
+            report(result);
+        }
+
+        // Con el bulkhead la sobrecarga se resuelve con 503 rápidos, no con timeouts ni 500
+        assertThat(virtual.errors()).isZero();
+        assertThat(virtual.ok().length).isPositive();
+    }
+
+    /**
+     * @param ok      latencias ordenadas (ns) de las respuestas 200
+     * @param rejected latencias ordenadas (ns) de los 503
+     * @param errors  otras respuestas, excepciones y timeouts
+     */
+    private record Result(String label, long[] ok, long[] rejected, long errors) { }
+
+    private Result run(String label, String... args) throws Exception {
+        String[] allArgs = Stream.concat(Stream.of(COMMON), Stream.of(args)).toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class).run(allArgs)) {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            String email = "bench-vt-" + suffix + "@test.com";
+            AuthResponse auth = context.getBean(AuthService.class)
+                    .register(new RegisterRequest(email, "bench-vt-" + suffix, "password123"));
+            UserPrincipal principal = new UserPrincipal(auth.user().id(), auth.user().email(), auth.user().username(), null);
+            DeckResponse deck = context.getBean(DeckService.class)
+                    .createDeck(new DeckRequest("Carga", null, null, false), principal);
+            context.getBean(CardService.class).createCards(deck.id(), IntStream.range(0, 100)
+                    .mapToObj(i -> new CardRequest("palabra " + i, "definición " + i))
+                    .toList(), principal);
+
+            try {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/decks/" + deck.id() + "/cards?size=20"))
+                        .header("Authorization", "Bearer " + auth.token())
+                        .timeout(TIMEOUT)
+                        .build();
+                return load(label, request);
+            } finally {
+                context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE email = ?", email);
+            }
+        }
+    }
+
+    private Result load(String label, HttpRequest request) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> ok = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> rejected = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+
+        long measureFrom = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long measureUntil = measureFrom + SECONDS * 1_000_000_000L;
+
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        long start = System.nanoTime();
+                        int status;
+                        long retryAfter = 0;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            status = response.statusCode();
+                            retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        long end = System.nanoTime();
+
+                        if (start >= measureFrom && end <= measureUntil) {
+                            switch (status) {
+                                case 200 -> ok.add(end - start);
+                                case 503 -> rejected.add(end - start);
+                                default -> errors.increment();
+                            }
+                        }
+                        if (status == 503) {
+                            Thread.sleep(Duration.ofSeconds(retryAfter));
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        log.info("{}: terminado", label);
+        return new Result(label, sorted(ok), sorted(rejected), errors.sum());
+    }
+
+    private void report(Result result) {
+        long[] ok = result.ok();
+        long[] rejected = result.rejected();
+        log.info("{}: {} ok/s, p50 {} ms, p99 {} ms, max {} ms | 503: {} (p99 {} ms) | errores: {}",
+                result.label(),
+                ok.length / SECONDS,
+                millis(percentile(ok, 50.0)),
+                millis(percentile(ok, 99.0)),
+                millis(ok.length > 0 ? ok[ok.length - 1] : 0),
+                rejected.length,
+                millis(percentile(rejected, 99.0)),
+                result.errors());
+    }
+
+    private static long[] sorted(ConcurrentLinkedQueue<Long> values) {
+        return new ArrayList<>(values).stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.flashcards.backend.config;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulkhead: con todos los permisos ocupados, /api responde 503 + Retry-After
+ * pasado max-wait, sin esperar a una conexión de la BD, y con cabeceras CORS
+ * para que el frontend pueda leerlo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DatabaseBulkheadTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("bulkhead");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseBulkheadFilter bulkheadFilter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private String email;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        email = user.email();
+        token = user.token();
+    }
+
+    @Test
+    void saturatedBulkheadFailsFastWith503AndRetryAfter() throws Exception {
+        // Un permiso por conexión del pool
+        int permits = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        CountDownLatch holding = new CountDownLatch(permits);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < permits; i++) {
+                executor.submit(() -> {
+                    bulkheadFilter.doFilter(
+                            new MockHttpServletRequest("GET", "/api/users/me"),
+                            new MockHttpServletResponse(),
+                            (request, response) -> {
+                                holding.countDown();
+                                try {
+                                    release.await();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            });
+                    return null;
+                });
+            }
+            // En finally: si algo falla, los hilos que ocupan los permisos terminan igual
+            try {
+                assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+                long start = System.nanoTime();
+                me().andExpect(status().isServiceUnavailable())
+                        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                        .andExpect(jsonPath("$.error").exists());
+                assertThat(Duration.ofNanos(System.nanoTime() - start))
+                        .isGreaterThanOrEqualTo(Duration.ofMillis(450))
+                        .isLessThan(Duration.ofSeconds(2));
+
+                // Desde el frontend (otro origen): el navegador tiene que poder leer el 503 y Retry-After
+                mockMvc.perform(get("/api/users/me")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .header(HttpHeaders.ORIGIN, "http://localhost:5173"))
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "http://localhost:5173"))
+                        .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                                containsString(HttpHeaders.RETRY_AFTER)));
+
+                // Fuera de /api no hay límite (health usa una conexión libre del pool)
+                mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+            } finally {
+                release.countDown();
+            }
+        }
+
+        me().andExpect(status().isOk()).andExpect(jsonPath("$.email").value(email));
+    }
+
+    private ResultActions me() throws Exception {
+        return mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,299 @@
+package com.flashcards.backend.config;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.config.ReplicaRoutingDataSource.Balancing;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.exception.ResourceNotFoundException;
+import com.flashcards.backend.model.Deck;
+import com.flashcards.backend.model.User;
+import com.flashcards.backend.repository.DeckRepository;
+import com.flashcards.backend.security.TokenVersionService;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+import com.flashcards.backend.service.UserService;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reparto de conexiones entre primario y réplicas
+ *
+ * Las "réplicas" son la misma BD local con otro ApplicationName en la URL,
+ * que es lo que se consulta para saber qué pool dio la conexión. Su
+ * search_path empieza por el esquema replica_lag: las tablas que se copien
+ * ahí hacen de réplica atrasada (sin prepareThreshold, cada sentencia se
+ * vuelve a resolver contra el search_path).
+ */
+@SpringBootTest(properties = {
+        "replicas.urls=" + ReplicaRoutingTests.REPLICA_A + "," + ReplicaRoutingTests.REPLICA_B,
+        "replicas.read-your-writes=1s",
+        // Tres pools en un contexto más de la caché de tests: que no agoten max_connections
+        "spring.datasource.hikari.maximum-pool-size=3" })
+@ActiveProfiles("l2cache")
+class ReplicaRoutingTests {
+
+    private static final String LAGGING = "&currentSchema=replica_lag%2Cpublic&prepareThreshold=0";
+    static final String REPLICA_A = "jdbc:postgresql://localhost:5432/flashcards?ApplicationName=replica-a" + LAGGING;
+    static final String REPLICA_B = "jdbc:postgresql://localhost:5432/flashcards?ApplicationName=replica-b" + LAGGING;
+    private static final String DEAD = "jdbc:postgresql://localhost:1/flashcards?ApplicationName=dead";
+
+    private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("replica");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private DeckRepository deckRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String email;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        email = user.email();
+        principal = user.principal();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicasAndTheRestUsesThePrimary() {
+        List<String> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(readOnly(() -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class)));
+        }
+        assertThat(reads).containsAnyOf("replica-a", "replica-b");
+        assertThat(reads.get(0)).isNotEqualTo(reads.get(1));
+        assertThat(reads.get(1)).isNotEqualTo(reads.get(2));
+
+        // JPA y JDBC comparten la conexión de la transacción; la réplica no admite escrituras
+        List<Object> sameTransaction = readOnly(() -> List.of(
+                entityManager.createNativeQuery(APPLICATION_NAME).getSingleResult(),
+                jdbcTemplate.queryForObject(APPLICATION_NAME, String.class),
+                jdbcTemplate.queryForObject("SHOW transaction_read_only", String.class)));
+        assertThat(sameTransaction.get(0)).isEqualTo(sameTransaction.get(1)).asString().startsWith("replica-");
+        assertThat(sameTransaction.get(2)).isEqualTo("on");
+
+        String readWrite = new TransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+        assertThat(readWrite).doesNotStartWith("replica-");
+        assertThat(jdbcTemplate.queryForObject(APPLICATION_NAME, String.class)).doesNotStartWith("replica-");
+    }
+
+    @Test
+    void serviceReadsGoToReplicasUntilTheUserWrites() throws Exception {
+        // El registro deja al usuario en la caché de segundo nivel: que la lectura llegue a la BD
+        entityManagerFactory.getCache().evict(User.class, principal.id());
+        double before = replicaReads();
+        assertThat(userService.getCurrentUser(principal).email()).isEqualTo(email);
+        assertThat(replicaReads()).isEqualTo(before + 1);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        deckService.createDeck(new DeckRequest("Réplicas", null, null, false), principal);
+
+        // Justo después de escribir, el mismo usuario lee del primario (y ve su mazo)
+        assertThat(readOnly(() -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class)))
+                .doesNotStartWith("replica-");
+        assertThat(deckService.getDecks(principal, 0, 20, null, null, false).content()).hasSize(1);
+
+        // Otros usuarios siguen en las réplicas
+        SecurityContextHolder.clearContext();
+        assertThat(readOnly(() -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class)))
+                .startsWith("replica-");
+
+        // Pasada la ventana, el usuario vuelve a las réplicas
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        Thread.sleep(1_100);
+        assertThat(readOnly(() -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class)))
+                .startsWith("replica-");
+    }
+
+    @Test
+    void sharedCachesAreLoadedFromThePrimaryWhenTheReplicaLags() {
+        UserPrincipal reader = users.register().principal();
+        UUID deckId = deckService.createDeck(new DeckRequest("Atrasado", null, null, true), principal).id();
+
+        // La réplica se queda con el mazo público y la versión de token 0
+        jdbcTemplate.execute("CREATE SCHEMA replica_lag");
+        try {
+            jdbcTemplate.execute("CREATE TABLE replica_lag.decks (LIKE public.decks)");
+            jdbcTemplate.update("INSERT INTO replica_lag.decks SELECT * FROM public.decks WHERE id = ?", deckId);
+            jdbcTemplate.execute("CREATE TABLE replica_lag.users (LIKE public.users)");
+            jdbcTemplate.update("INSERT INTO replica_lag.users SELECT * FROM public.users WHERE id = ?", principal.id());
+
+            deckService.updateDeck(deckId, new UpdateDeckRequest(null, null, null, false), principal);
+            tokenVersionService.revokeTokens(principal.id());
+            assertThat(readOnly(() -> jdbcTemplate.queryForObject(
+                    "SELECT is_public FROM decks WHERE id = ?", Boolean.class, deckId))).isTrue();
+
+            // Otro usuario, en una lectura readOnly (réplica): los permisos salen del primario
+            assertThatThrownBy(() -> cardService.getCards(deckId, reader))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            assertThat(tokenVersionService.isCurrent(principal.id(), 0)).isFalse();
+            assertThat(tokenVersionService.isCurrent(principal.id(), 1)).isTrue();
+
+            // Lo leído de la réplica no entra en la caché de segundo nivel
+            assertThat(readOnly(() -> deckRepository.findById(deckId)).map(Deck::isPublic)).contains(true);
+            assertThat(entityManagerFactory.getCache().contains(Deck.class, deckId)).isFalse();
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA replica_lag CASCADE");
+        }
+    }
+
+    @Test
+    void unreachableReplicasAreSkippedAndThePrimaryIsTheLastResort() throws Exception {
+        try (ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, DEAD, REPLICA_A)) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(applicationName(routing)).isEqualTo("replica-a");
+            }
+        }
+
+        try (ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, DEAD)) {
+            assertThat(applicationName(routing)).isEqualTo("primary");
+
+            // Marcada como caída, no se vuelve a esperar por ella
+            long start = System.nanoTime();
+            assertThat(applicationName(routing)).isEqualTo("primary");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+        }
+    }
+
+    @Test
+    void leastLoadedPicksTheReplicaWithFewerConnectionsInUse() throws Exception {
+        try (ReplicaRoutingDataSource routing = routing(Balancing.LEAST_LOADED, REPLICA_A, REPLICA_B);
+             Connection first = routing.getConnection()) {
+            String busy = applicationName(first);
+
+            // Mientras first siga abierta, todas las demás van a la otra réplica
+            for (int i = 0; i < 3; i++) {
+                assertThat(applicationName(routing)).isNotEqualTo(busy).startsWith("replica-");
+            }
+        }
+    }
+
+    private <T> T readOnly(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private double replicaReads() {
+        return meterRegistry.find("datasource.reads").counters().stream()
+                .filter(counter -> counter.getId().getTag("target").startsWith("replica-"))
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private ReplicaRoutingDataSource routing(Balancing balancing, String... urls) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariConfig replica = pool("replica-" + i, urls[i]);
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(250);
+            replicas.add(new HikariDataSource(replica));
+        }
+        HikariDataSource primary = new HikariDataSource(pool("primary",
+                dataSourceProperties.determineUrl() + "&ApplicationName=primary"));
+
+        return new ReplicaRoutingDataSource(primary, replicas, balancing,
+                Duration.ZERO, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    private HikariConfig pool(String name, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        config.setMaximumPoolSize(2);
+        return config;
+    }
+
+    private static String applicationName(ReplicaRoutingDataSource routing) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return applicationName(connection);
+        }
+    }
+
+    private static String applicationName(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(APPLICATION_NAME)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.service.DeckService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Creación masiva de tarjetas: errores por posición sin bloquear las válidas,
+ * orden de la petición, contador del mazo y permisos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkCardInsertTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("bulk");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String ownerToken;
+    private String otherToken;
+    private DeckResponse deck;
+
+    @BeforeEach
+    void setUp() {
+        TestUser owner = users.register();
+        ownerToken = owner.token();
+        otherToken = users.register().token();
+
+        deck = deckService.createDeck(new DeckRequest("Importación", null, null, false), owner.principal());
+    }
+
+    @Test
+    void insertsValidCardsInOrderAndReportsInvalidOnes() throws Exception {
+        bulk(ownerToken, """
+                {"cards": [
+                    {"front": "uno", "back": "1"},
+                    {"front": "", "back": "2"},
+                    {"front": "tres", "back": "3"},
+                    null,
+                    {"front": "cinco"},
+                    {"front": "seis", "back": "6"}
+                ]}
+                """)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors", hasSize(3)))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].errors.front").value("El frente de la tarjeta es obligatorio"))
+                .andExpect(jsonPath("$.errors[1].index").value(3))
+                .andExpect(jsonPath("$.errors[2].index").value(4))
+                .andExpect(jsonPath("$.errors[2].errors.back").value("El reverso de la tarjeta es obligatorio"));
+
+        List<String> fronts = jdbcTemplate.queryForList(
+                "SELECT front FROM cards WHERE deck_id = ? ORDER BY created_at, id", String.class, deck.id());
+        assertThat(fronts).containsExactly("uno", "tres", "seis");
+        assertThat(cardCount()).isEqualTo(3);
+    }
+
+    @Test
+    void largeImportSpansSeveralBatches() throws Exception {
+        StringBuilder body = new StringBuilder("{\"cards\": [");
+        for (int i = 0; i < 2_500; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"front\": \"f").append(i).append("\", \"back\": \"b\"}");
+        }
+        body.append("]}");
+
+        bulk(ownerToken, body.toString())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2_500))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        assertThat(cardCount()).isEqualTo(2_500);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT front FROM cards WHERE deck_id = ? ORDER BY created_at DESC, id DESC LIMIT 1",
+                String.class, deck.id())).isEqualTo("f2499");
+    }
+
+    @Test
+    void rejectsEmptyAllInvalidAndForeignDecks() throws Exception {
+        bulk(ownerToken, "{\"cards\": []}").andExpect(status().isBadRequest());
+
+        bulk(ownerToken, "{\"cards\": [{\"front\": \"\", \"back\": \"\"}]}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.rejected").value(1));
+
+        bulk(otherToken, "{\"cards\": [{\"front\": \"a\", \"back\": \"b\"}]}")
+                .andExpect(status().isForbidden());
+
+        assertThat(cardCount()).isZero();
+    }
+
+    private int cardCount() {
+        return jdbcTemplate.queryForObject("SELECT card_count FROM decks WHERE id = ?", Integer.class, deck.id());
+    }
+
+    private ResultActions bulk(String token, String body) throws Exception {
+        return mockMvc.perform(post("/api/decks/" + deck.id() + "/cards/bulk")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
@@ -0,0 +1,204 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Edición y borrado masivos de tarjetas: resultado por id en el orden de la
+ * petición, cambios parciales, tarjetas de otros mazos intactas, contador
+ * del mazo y permisos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkCardMutationTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("bulk-mut");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String ownerToken;
+    private String otherToken;
+    private UserPrincipal owner;
+    private DeckResponse deck;
+    private UUID card1;
+    private UUID card2;
+    private UUID card3;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        ownerToken = user.token();
+        owner = user.principal();
+        otherToken = users.register().token();
+
+        deck = deckService.createDeck(new DeckRequest("Edición masiva", null, null, false), owner);
+        card1 = cardService.createCard(deck.id(), new CardRequest("uno", "1"), owner).id();
+        card2 = cardService.createCard(deck.id(), new CardRequest("dos", "2"), owner).id();
+        card3 = cardService.createCard(deck.id(), new CardRequest("tres", "3"), owner).id();
+    }
+
+    @Test
+    void updatesValidPatchesAndReportsEveryId() throws Exception {
+        UUID foreign = otherDeckCard();
+
+        send(patch(url()), ownerToken, """
+                {"cards": [
+                    {"id": "%s", "front": "UNO"},
+                    {"id": "%s", "front": "ajena", "back": "ajena"},
+                    {"id": "%s", "back": " "},
+                    {"id": "%s", "front": "TRES", "back": "three"},
+                    {"id": "%s", "back": "repetida"},
+                    {"front": "sin id"}
+                ]}
+                """.formatted(card1, foreign, card2, card3, card1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.results", hasSize(6)))
+                .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[0].errors").doesNotExist())
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[2].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.results[2].errors.back").value("El reverso de la tarjeta es obligatorio"))
+                .andExpect(jsonPath("$.results[3].id").value(card3.toString()))
+                .andExpect(jsonPath("$.results[3].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[4].errors.id").value("Tarjeta repetida en la petición"))
+                .andExpect(jsonPath("$.results[5].errors.id").value("El id de la tarjeta es obligatorio"));
+
+        assertThat(cards(deck.id())).containsExactly(
+                Map.of("front", "UNO", "back", "1"),
+                Map.of("front", "dos", "back", "2"),
+                Map.of("front", "TRES", "back", "three"));
+        assertThat(jdbcTemplate.queryForObject("SELECT front FROM cards WHERE id = ?", String.class, foreign))
+                .isEqualTo("otra");
+    }
+
+    @Test
+    void deletesInOneRequestAndKeepsCardCount() throws Exception {
+        UUID foreign = otherDeckCard();
+
+        send(delete(url()), ownerToken, """
+                {"ids": ["%s", "%s", "%s", "%s", null]}
+                """.formatted(card1, foreign, card3, card1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].outcome").value("DELETED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[2].outcome").value("DELETED"))
+                .andExpect(jsonPath("$.results[3].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.results[4].outcome").value("INVALID"));
+
+        assertThat(cards(deck.id())).containsExactly(Map.of("front", "dos", "back", "2"));
+        assertThat(jdbcTemplate.queryForObject("SELECT card_count FROM decks WHERE id = ?", Integer.class, deck.id()))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM cards WHERE id = ?", Integer.class, foreign))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void largeBatchesSpanSeveralStatements() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back)
+                SELECT ?, 'f' || g, 'b' || g FROM generate_series(1, 2500) g
+                """, deck.id());
+        List<UUID> ids = jdbcTemplate.queryForList("SELECT id FROM cards WHERE deck_id = ?", UUID.class, deck.id());
+
+        StringBuilder patches = new StringBuilder("{\"cards\": [");
+        StringBuilder deletes = new StringBuilder("{\"ids\": [");
+        for (int i = 0; i < ids.size(); i++) {
+            patches.append(i == 0 ? "" : ",").append("{\"id\": \"").append(ids.get(i)).append("\", \"back\": \"nuevo\"}");
+            deletes.append(i == 0 ? "" : ",").append('"').append(ids.get(i)).append('"');
+        }
+
+        send(patch(url()), ownerToken, patches.append("]}").toString())
+                .andExpect(jsonPath("$.applied").value(ids.size()));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM cards WHERE deck_id = ? AND back = 'nuevo'", Integer.class, deck.id()))
+                .isEqualTo(ids.size());
+
+        send(delete(url()), ownerToken, deletes.append("]}").toString())
+                .andExpect(jsonPath("$.applied").value(ids.size()));
+        assertThat(jdbcTemplate.queryForObject("SELECT card_count FROM decks WHERE id = ?", Integer.class, deck.id()))
+                .isZero();
+    }
+
+    @Test
+    void rejectsEmptyListsAndForeignDecks() throws Exception {
+        send(patch(url()), ownerToken, "{\"cards\": []}").andExpect(status().isBadRequest());
+        send(delete(url()), ownerToken, "{\"ids\": []}").andExpect(status().isBadRequest());
+
+        send(patch(url()), otherToken, "{\"cards\": [{\"id\": \"%s\", \"front\": \"x\"}]}".formatted(card1))
+                .andExpect(status().isForbidden());
+        send(delete(url()), otherToken, "{\"ids\": [\"%s\"]}".formatted(card1))
+                .andExpect(status().isForbidden());
+
+        assertThat(cards(deck.id())).hasSize(3);
+    }
+
+    /** Tarjeta de otro mazo del mismo propietario */
+    private UUID otherDeckCard() {
+        DeckResponse other = deckService.createDeck(new DeckRequest("Otro", null, null, false), owner);
+        return cardService.createCard(other.id(), new CardRequest("otra", "otra"), owner).id();
+    }
+
+    private List<Map<String, Object>> cards(UUID deckId) {
+        return jdbcTemplate.queryForList(
+                "SELECT front, back FROM cards WHERE deck_id = ? ORDER BY created_at, id", deckId);
+    }
+
+    private String url() {
+        return "/api/decks/" + deck.id() + "/cards/bulk";
+    }
+
+    private ResultActions send(MockHttpServletRequestBuilder request, String token, String body) throws Exception {
+        return mockMvc.perform(request
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
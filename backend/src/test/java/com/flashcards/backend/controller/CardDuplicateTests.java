@@ -0,0 +1,246 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.exception.DuplicateResourceException;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Duplicados por content_hash: modo dedup al crear una o muchas tarjetas,
+ * informe de duplicados del mazo y comprobación por índice.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CardDuplicateTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("dup");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private UserPrincipal owner;
+    private DeckResponse deck;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        token = user.token();
+        owner = user.principal();
+        deck = deckService.createDeck(new DeckRequest("Duplicados", null, null, false), owner);
+    }
+
+    @Test
+    void singleCreateRejectsNormalizedDuplicatesOnlyInDedupMode() throws Exception {
+        cardService.createCard(deck.id(), new CardRequest("Hola mundo", "hello world"), owner);
+
+        String same = "{\"front\": \"  hola   MUNDO \", \"back\": \"Hello World\"}";
+        send("/cards?dedup=true", same)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("La tarjeta ya existe en el mazo"));
+        send("/cards?dedup=true", "{\"front\": \"hola mundo\", \"back\": \"hello, world\"}")
+                .andExpect(status().isCreated());
+        send("/cards", same).andExpect(status().isCreated());
+
+        assertThat(cardCount()).isEqualTo(3);
+    }
+
+    @Test
+    void lineBreaksAndTabsAtTheEdgesDoNotMakeADifferentCard() throws Exception {
+        cardService.createCard(deck.id(), new CardRequest("hola", "hello world"), owner);
+
+        // Reimportación de un CSV con CRLF y celdas con tabuladores
+        send("/cards?dedup=true", "{\"front\": \"hola\\r\\n\", \"back\": \"\\thello\\tworld\\r\\n\"}")
+                .andExpect(status().isConflict());
+        send("/cards/bulk?dedup=true", """
+                {"cards": [
+                    {"front": "hola\\n", "back": "hello world\\t"},
+                    {"front": "\\r\\nhola", "back": "hello \\r\\n world"}
+                ]}
+                """)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.skipped").value(2));
+
+        assertThat(cardCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDedupImportsIntoTheSameDeckDoNotDuplicate() throws Exception {
+        List<CardRequest> words = IntStream.range(0, 50)
+                .mapToObj(i -> new CardRequest("palabra " + i, "word " + i))
+                .toList();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // La misma importación, a la vez, por lotes y tarjeta a tarjeta
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> imports = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                imports.add(executor.submit(() -> {
+                    start.await();
+                    return cardService.createCards(deck.id(), words, true, owner);
+                }));
+                imports.add(executor.submit(() -> {
+                    start.await();
+                    for (CardRequest word : words) {
+                        try {
+                            cardService.createCard(deck.id(), word, true, owner);
+                        } catch (DuplicateResourceException e) {
+                            // Ya la insertó otra importación
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : imports) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(cardCount()).isEqualTo(words.size());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM cards WHERE deck_id = ?", Integer.class, deck.id())).isEqualTo(words.size());
+    }
+
+    @Test
+    void bulkDedupSkipsCardsAlreadyInTheDeckOrRepeatedInTheRequest() throws Exception {
+        cardService.createCard(deck.id(), new CardRequest("perro", "dog"), owner);
+
+        String body = """
+                {"cards": [
+                    {"front": "Perro", "back": "dog "},
+                    {"front": "gato", "back": "cat"},
+                    {"front": "GATO", "back": "Cat"},
+                    {"front": "", "back": "vacía"},
+                    {"front": "pez", "back": "fish"}
+                ]}
+                """;
+
+        send("/cards/bulk?dedup=true", body)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(3))
+                .andExpect(jsonPath("$.skipped").value(2))
+                .andExpect(jsonPath("$.duplicates[0]").value(0))
+                .andExpect(jsonPath("$.duplicates[1]").value(2));
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT front FROM cards WHERE deck_id = ? ORDER BY created_at, id", String.class, deck.id()))
+                .containsExactly("perro", "gato", "pez");
+
+        // Reimportar el mismo fichero no crea nada
+        send("/cards/bulk?dedup=true", body)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.skipped").value(4));
+
+        // Sin dedup se crean todas las válidas, como siempre
+        send("/cards/bulk", body)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(4))
+                .andExpect(jsonPath("$.skipped").value(0))
+                .andExpect(jsonPath("$.duplicates", hasSize(0)));
+
+        assertThat(cardCount()).isEqualTo(7);
+    }
+
+    @Test
+    void reportGroupsDuplicatesIncludingEditedCards() throws Exception {
+        CardResponse perro = cardService.createCard(deck.id(), new CardRequest("perro", "dog"), owner);
+        CardResponse gato = cardService.createCard(deck.id(), new CardRequest("gato", "cat"), owner);
+        CardResponse perro2 = cardService.createCard(deck.id(), new CardRequest("PERRO", "dog"), owner);
+        CardResponse pez = cardService.createCard(deck.id(), new CardRequest("pez", "fish"), owner);
+        cardService.createCard(deck.id(), new CardRequest("unica", "unique"), owner);
+
+        // La huella se recalcula al editar: pez pasa a ser copia de gato
+        cardService.updateCard(deck.id(), pez.id(), new CardRequest("Gato", "cat"), owner);
+
+        mockMvc.perform(get("/api/decks/" + deck.id() + "/cards/duplicates")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].original.id").value(perro.id().toString()))
+                .andExpect(jsonPath("$[0].duplicates[0].id").value(perro2.id().toString()))
+                .andExpect(jsonPath("$[1].original.id").value(gato.id().toString()))
+                .andExpect(jsonPath("$[1].duplicates[0].id").value(pez.id().toString()))
+                .andExpect(jsonPath("$[1].duplicates[0].front").value("Gato"));
+    }
+
+    @Test
+    void duplicateCheckIsAnIndexProbe() {
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back)
+                SELECT ?, 'palabra ' || g, 'definición ' || g FROM generate_series(1, 20000) g
+                """, deck.id());
+        jdbcTemplate.execute("ANALYZE cards");
+
+        // Misma forma que la comprobación de CardService
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN (ANALYZE, BUFFERS)
+                SELECT id FROM cards
+                WHERE deck_id = ? AND content_hash = card_content_hash(?, ?)
+                LIMIT 1
+                """, String.class, deck.id(), "Palabra 12345", "definición 12345"));
+
+        assertThat(plan).as(plan).contains("idx_cards_deck_content_hash").contains("rows=1 ");
+        assertThat(plan).as(plan).doesNotContain("Seq Scan");
+    }
+
+    private int cardCount() {
+        return jdbcTemplate.queryForObject("SELECT card_count FROM decks WHERE id = ?", Integer.class, deck.id());
+    }
+
+    private ResultActions send(String path, String body) throws Exception {
+        return mockMvc.perform(post("/api/decks/" + deck.id() + path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
@@ -0,0 +1,201 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardExportFormat;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardExportService;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+
+import com.jayway.jsonpath.JsonPath;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exportación de tarjetas en streaming: formato NDJSON/CSV, permisos antes de
+ * empezar a responder, y memoria plana con un mazo de 200.000 tarjetas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Slf4j
+class CardExportTests {
+
+    private static final int LARGE_DECK = 200_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("export");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardExportService cardExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String ownerToken;
+    private String otherToken;
+    private UserPrincipal owner;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        ownerToken = user.token();
+        owner = user.principal();
+        otherToken = users.register().token();
+    }
+
+    @Test
+    void exportsNdjsonInCreationOrder() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Export", null, null, false), owner);
+        cardService.createCard(deck.id(), new CardRequest("uno", "1"), owner);
+        cardService.createCard(deck.id(), new CardRequest("dos", "línea\n\"dos\""), owner);
+
+        MvcResult result = export(deck.id(), "ndjson", ownerToken);
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .contains("deck-" + deck.id() + ".ndjson");
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(JsonPath.<String>read(lines[0], "$.front")).isEqualTo("uno");
+        assertThat(JsonPath.<String>read(lines[1], "$.back")).isEqualTo("línea\n\"dos\"");
+        assertThat(JsonPath.<String>read(lines[1], "$.deckId")).isEqualTo(deck.id().toString());
+    }
+
+    @Test
+    void exportsCsvWithQuotedFields() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Export", null, null, false), owner);
+        String id = cardService.createCard(deck.id(), new CardRequest("a, b", "di \"hola\"\nadiós"), owner).id().toString();
+
+        MvcResult result = export(deck.id(), "CSV", ownerToken);
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .startsWith("id,front,back,createdAt,updatedAt\n" + id + ",\"a, b\",\"di \"\"hola\"\"\nadiós\",");
+    }
+
+    @Test
+    void checksPermissionsAndFormatBeforeStreaming() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Privado", null, null, false), owner);
+
+        mockMvc.perform(get("/api/decks/" + deck.id() + "/cards/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/decks/" + deck.id() + "/cards/export?format=xml")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void heapStaysFlatForALargeDeck() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Vocabulario", null, null, false), owner);
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back)
+                SELECT ?, 'palabra ' || g, repeat('definición ', 10) || g
+                FROM generate_series(1, ?) g
+                """, deck.id(), LARGE_DECK);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        HeapSamplingSink sink = new HeapSamplingSink(memory, LARGE_DECK / 4);
+
+        cardExportService.exportCards(deck.id(), CardExportFormat.NDJSON, owner).writeTo(sink);
+
+        log.info("Exportación de {} tarjetas: {} MB escritos, crecimiento máximo del heap {} KB",
+                sink.lines, sink.bytes / (1024 * 1024), (sink.peakUsed - baseline) / 1024);
+        assertThat(sink.lines).isEqualTo(LARGE_DECK);
+        assertThat(sink.samples).isGreaterThanOrEqualTo(3);
+        assertThat(sink.peakUsed - baseline).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private MvcResult export(UUID deckId, String format, String token) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/decks/" + deckId + "/cards/export?format=" + format)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION))
+                .andReturn();
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Descarta lo escrito y, cada N líneas, mide el heap vivo tras un GC
+     * mientras el cursor sigue abierto
+     */
+    private static final class HeapSamplingSink extends OutputStream {
+
+        private final MemoryMXBean memory;
+        private final int sampleEvery;
+        private long lines;
+        private long bytes;
+        private int samples;
+        private long peakUsed;
+
+        HeapSamplingSink(MemoryMXBean memory, int sampleEvery) {
+            this.memory = memory;
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n' && ++lines % sampleEvery == 0) {
+                    peakUsed = Math.max(peakUsed, usedHeapAfterGc(memory));
+                    samples++;
+                }
+            }
+        }
+    }
+}
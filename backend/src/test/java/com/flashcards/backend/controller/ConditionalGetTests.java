@@ -0,0 +1,173 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.service.PublicCatalog;
+
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * GET condicionales de mazos y tarjetas: ETag y Last-Modified en cada 200,
+ * 304 sin cuerpo con una sola sentencia, y ETag nuevo tras cualquier cambio
+ * en el mazo o en sus tarjetas (también los hechos directamente en la BD).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+    // Las reconstrucciones del catálogo en segundo plano ensuciarían las estadísticas globales
+    @MockitoBean
+    private PublicCatalog publicCatalog;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("etag");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String token;
+    private String deckUrl;
+    private String cardsUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = users.register().token();
+
+        String deckId = JsonPath.read(send(post("/api/decks").content("""
+                {"title": "Condicional"}
+                """)).getResponse().getContentAsString(), "$.id");
+        deckUrl = "/api/decks/" + deckId;
+        cardsUrl = deckUrl + "/cards";
+    }
+
+    @Test
+    void unchangedDeckAndCardsAnswer304WithOneStatement() throws Exception {
+        String cardId = JsonPath.read(send(post(cardsUrl).content("""
+                {"front": "a", "back": "b"}
+                """)).getResponse().getContentAsString(), "$.id");
+
+        for (String url : new String[] { deckUrl, cardsUrl, cardsUrl + "/" + cardId, deckUrl + "/bundle" }) {
+            MvcResult ok = send(get(url));
+            assertThat(ok.getResponse().getStatus()).isEqualTo(200);
+            String etag = ok.getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(etag).as(url).isNotBlank().doesNotStartWith("W/");
+            assertThat(ok.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).as(url).isNotBlank();
+            assertThat(ok.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).as(url).contains("no-cache");
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            MvcResult notModified = send(get(url).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+            assertThat(notModified.getResponse().getStatus()).as(url).isEqualTo(304);
+            assertThat(notModified.getResponse().getContentAsByteArray()).as(url).isEmpty();
+            assertThat(statistics.getPrepareStatementCount()).as(url).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void ifModifiedSinceAnswers304UntilTheDeckChanges() throws Exception {
+        String lastModified = send(get(cardsUrl)).getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        assertThat(send(get(cardsUrl).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .getResponse().getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void everyChangeProducesANewEtag() throws Exception {
+        String deckEtag = etag(deckUrl);
+        String cardsEtag = etag(cardsUrl);
+
+        // Alta de tarjeta: cambia card_count
+        String cardId = JsonPath.read(send(post(cardsUrl).content("""
+                {"front": "a", "back": "b"}
+                """)).getResponse().getContentAsString(), "$.id");
+        cardsEtag = assertChanged(cardsUrl, cardsEtag);
+        deckEtag = assertChanged(deckUrl, deckEtag);
+
+        // Edición de tarjeta: card_count no cambia
+        send(put(cardsUrl + "/" + cardId).content("""
+                {"front": "c", "back": "d"}
+                """));
+        cardsEtag = assertChanged(cardsUrl, cardsEtag);
+
+        // Edición del mazo
+        send(patch(deckUrl).content("""
+                {"title": "Condicional editado"}
+                """));
+        deckEtag = assertChanged(deckUrl, deckEtag);
+
+        // Escritura fuera de la aplicación: la versión la mantienen los triggers
+        jdbcTemplate.update("UPDATE cards SET back = 'e' WHERE id = ?", UUID.fromString(cardId));
+        cardsEtag = assertChanged(cardsUrl, cardsEtag);
+
+        // Baja de tarjeta
+        send(delete(cardsUrl + "/" + cardId));
+        assertChanged(cardsUrl, cardsEtag);
+        assertChanged(deckUrl, deckEtag);
+    }
+
+    @Test
+    void withoutPermissionIs404NotA304() throws Exception {
+        String etag = etag(deckUrl);
+
+        // send() usa token: las mismas peticiones, ahora de otro usuario
+        token = users.register().token();
+        assertThat(send(get(deckUrl).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .getResponse().getStatus()).isEqualTo(404);
+        assertThat(send(get(cardsUrl).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .getResponse().getStatus()).isEqualTo(404);
+    }
+
+    private String assertChanged(String url, String previous) throws Exception {
+        assertThat(send(get(url).header(HttpHeaders.IF_NONE_MATCH, previous)).getResponse().getStatus())
+                .as(url).isEqualTo(200);
+        String current = etag(url);
+        assertThat(current).as(url).isNotEqualTo(previous);
+        return current;
+    }
+
+    private String etag(String url) throws Exception {
+        return send(get(url)).getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+    }
+}
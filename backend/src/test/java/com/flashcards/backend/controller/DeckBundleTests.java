@@ -0,0 +1,115 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+
+import com.jayway.jsonpath.JsonPath;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/decks/{id}/bundle: mismo mazo que GET /{id}, primera página de
+ * tarjetas que se continúa con GET /cards?cursor=, ETag según el tamaño de
+ * página y 404 sin permiso.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DeckBundleTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("bundle");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String ownerToken;
+    private String otherToken;
+    private String deckUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ownerToken = users.register().token();
+        otherToken = users.register().token();
+
+        String deckId = JsonPath.read(send(post("/api/decks").content("""
+                {"title": "Bundle", "tags": ["sql"]}
+                """), ownerToken).andReturn().getResponse().getContentAsString(), "$.id");
+        deckUrl = "/api/decks/" + deckId;
+
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+                SELECT ?, 'front ' || g, 'back ' || g, TIMESTAMP '2020-01-01' + g * INTERVAL '1 second', now()
+                FROM generate_series(1, 5) g
+                """, UUID.fromString(deckId));
+    }
+
+    @Test
+    void returnsDeckAndFirstPageThatContinuesWithTheCardsCursor() throws Exception {
+        String deck = send(get(deckUrl), ownerToken).andReturn().getResponse().getContentAsString();
+
+        String bundle = send(get(deckUrl + "/bundle?size=3"), ownerToken)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deck.title").value("Bundle"))
+                .andExpect(jsonPath("$.deck.cardCount").value(5))
+                .andExpect(jsonPath("$.cards.content", hasSize(3)))
+                .andExpect(jsonPath("$.cards.content[0].front").value("front 1"))
+                .andExpect(jsonPath("$.cards.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(JsonPath.<Object>read(bundle, "$.deck")).isEqualTo(JsonPath.read(deck, "$"));
+
+        String cursor = JsonPath.read(bundle, "$.cards.nextCursor");
+        List<String> rest = JsonPath.read(send(get(deckUrl + "/cards?size=3&cursor=" + cursor), ownerToken)
+                .andReturn().getResponse().getContentAsString(), "$.content[*].front");
+        assertThat(rest).containsExactly("front 4", "front 5");
+    }
+
+    @Test
+    void etagDependsOnPageSize() throws Exception {
+        String etag = send(get(deckUrl + "/bundle?size=3"), ownerToken)
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        send(get(deckUrl + "/bundle?size=3").header(HttpHeaders.IF_NONE_MATCH, etag), ownerToken)
+                .andExpect(status().isNotModified());
+        send(get(deckUrl + "/bundle?size=4").header(HttpHeaders.IF_NONE_MATCH, etag), ownerToken)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void privateDeckIs404ForOtherUsers() throws Exception {
+        send(get(deckUrl + "/bundle"), otherToken).andExpect(status().isNotFound());
+    }
+
+    private ResultActions send(MockHttpServletRequestBuilder request, String token) throws Exception {
+        return mockMvc.perform(request
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+}
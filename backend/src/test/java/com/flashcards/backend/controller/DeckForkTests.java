@@ -0,0 +1,169 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+
+import com.jayway.jsonpath.JsonPath;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Copia de mazos: copia privada del usuario con las mismas tarjetas en el
+ * mismo orden, permisos, y un mazo de 100.000 tarjetas copiado sin que las
+ * tarjetas pasen por la JVM.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Slf4j
+class DeckForkTests {
+
+    private static final int LARGE_DECK = 100_000;
+    private static final long MAX_ALLOCATED = 16L * 1024 * 1024;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("fork");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String otherToken;
+    private UserPrincipal owner;
+    private UserPrincipal other;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.register().principal();
+        TestUser user = users.register();
+        otherToken = user.token();
+        other = user.principal();
+    }
+
+    @Test
+    void forkOfAPublicDeckIsAPrivateCopyWithTheSameCards() throws Exception {
+        DeckResponse source = deckService.createDeck(
+                new DeckRequest("Vocabulario", "Popular", new String[] { "inglés" }, true), owner);
+        cardService.createCard(source.id(), new CardRequest("uno", "1"), owner);
+        cardService.createCard(source.id(), new CardRequest("dos", "2"), owner);
+        cardService.createCard(source.id(), new CardRequest("tres", "3"), owner);
+
+        String forkId = JsonPath.read(fork(source.id(), otherToken)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title").value("Vocabulario"))
+                .andExpect(jsonPath("$.description").value("Popular"))
+                .andExpect(jsonPath("$.tags[0]").value("inglés"))
+                .andExpect(jsonPath("$.isPublic").value(false))
+                .andExpect(jsonPath("$.cardCount").value(3))
+                .andExpect(jsonPath("$.owner.id").value(other.id().toString()))
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        assertThat(forkId).isNotEqualTo(source.id().toString());
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT front FROM cards WHERE deck_id = ?::uuid ORDER BY created_at, id", String.class, forkId))
+                .containsExactly("uno", "dos", "tres");
+
+        // La copia es independiente del original
+        cardService.createCard(source.id(), new CardRequest("cuatro", "4"), owner);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT card_count FROM decks WHERE id = ?::uuid", Integer.class, forkId)).isEqualTo(3);
+    }
+
+    @Test
+    void privateDecksCanOnlyBeForkedByTheirOwner() throws Exception {
+        DeckResponse source = deckService.createDeck(new DeckRequest("Privado", null, null, false), owner);
+
+        fork(source.id(), otherToken).andExpect(status().isNotFound());
+        fork(UUID.randomUUID(), otherToken).andExpect(status().isNotFound());
+
+        assertThat(deckService.forkDeck(source.id(), owner).title()).isEqualTo("Privado");
+    }
+
+    @Test
+    void deckMadePrivateOrDeletedAfterBeingCachedIsNotForked() throws Exception {
+        DeckResponse source = deckService.createDeck(new DeckRequest("Público", null, null, true), owner);
+        cardService.createCard(source.id(), new CardRequest("secreto", "s"), owner);
+        fork(source.id(), otherToken).andExpect(status().isCreated());
+
+        // Por debajo del servicio: la caché de metadatos sigue viéndolo público
+        jdbcTemplate.update("UPDATE decks SET is_public = false WHERE id = ?", source.id());
+        fork(source.id(), otherToken).andExpect(status().isNotFound());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM decks WHERE user_id = ?", Integer.class, other.id())).isEqualTo(1);
+
+        jdbcTemplate.update("DELETE FROM decks WHERE id = ?", source.id());
+        fork(source.id(), otherToken).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void largeDeckIsCopiedInsideTheDatabase() {
+        DeckResponse source = deckService.createDeck(new DeckRequest("Enorme", null, null, true), owner);
+        // created_at empatados de diez en diez: el orden lo decide el id
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+                SELECT ?, 'palabra ' || g, repeat('definición ', 10) || g,
+                       TIMESTAMP '2020-01-01' + (g / 10) * INTERVAL '1 second', now()
+                FROM generate_series(1, ?) g
+                """, source.id(), LARGE_DECK);
+        jdbcTemplate.execute("ANALYZE cards");
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        DeckResponse fork = deckService.forkDeck(source.id(), other);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        log.info("Copia de {} tarjetas en {} s, {} KB reservados en la JVM",
+                LARGE_DECK, String.format("%.2f", seconds), allocated / 1024);
+
+        assertThat(fork.cardCount()).isEqualTo(LARGE_DECK);
+        assertThat(allocated).isLessThan(MAX_ALLOCATED);
+        assertThat(orderedContentHash(fork.id())).isEqualTo(orderedContentHash(source.id()));
+    }
+
+    private String orderedContentHash(UUID deckId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT md5(string_agg(front || back, '|' ORDER BY created_at, id)) FROM cards WHERE deck_id = ?",
+                String.class, deckId);
+    }
+
+    private ResultActions fork(UUID deckId, String token) throws Exception {
+        return mockMvc.perform(post("/api/decks/" + deckId + "/fork")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
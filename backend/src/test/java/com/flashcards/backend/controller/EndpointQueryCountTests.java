@@ -0,0 +1,139 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fija cuántas sentencias SQL cuesta cada endpoint autenticado, filtro JWT
+ * incluido. El filtro autentica solo con los claims del token (sin BD) y los
+ * services reciben el usuario ya resuelto; si alguien vuelve a buscarlo por
+ * email, estos números suben.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EndpointQueryCountTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("endpoints");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String email;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        email = user.email();
+        token = user.token();
+    }
+
+    @Test
+    void currentUserEndpoint() throws Exception {
+        // perfil
+        assertStatements(get("/api/users/me"), 1);
+    }
+
+    @Test
+    void deckEndpoints() throws Exception {
+        // INSERT
+        String deckId = JsonPath.read(assertStatements(post("/api/decks").content("""
+                {"title": "Conteo", "tags": ["sql"], "isPublic": false}
+                """), 1), "$.id");
+
+        // versión (ETag) + mazo proyectado
+        assertStatements(get("/api/decks/" + deckId), 2);
+        // página proyectada + COUNT (size=1 para que la página
+        // venga llena y Spring Data no pueda ahorrarse el COUNT)
+        assertStatements(get("/api/decks?size=1"), 2);
+        // página por cursor (sin COUNT)
+        assertStatements(get("/api/decks?cursor="), 1);
+        // mazo + UPDATE
+        assertStatements(patch("/api/decks/" + deckId).content("""
+                {"title": "Conteo editado"}
+                """), 2);
+        // comprobación de propiedad + DELETE
+        assertStatements(delete("/api/decks/" + deckId), 2);
+    }
+
+    @Test
+    void cardEndpoints() throws Exception {
+        String deckId = JsonPath.read(send(post("/api/decks").content("""
+                {"title": "Tarjetas"}
+                """)).getResponse().getContentAsString(), "$.id");
+        String cardsUrl = "/api/decks/" + deckId + "/cards";
+
+        // Los permisos salen de DeckMetadataCache: el mazo recién creado ya está
+        // en ella y cada escritura de tarjetas la invalida
+
+        // INSERT (permiso en caché)
+        String cardId = JsonPath.read(assertStatements(post(cardsUrl).content("""
+                {"front": "a", "back": "b"}
+                """), 1), "$.id");
+
+        // versión (ETag) + recarga del mazo en caché + tarjetas
+        assertStatements(get(cardsUrl), 3);
+        // mazo con versión y permisos + tarjetas (sin pasar por la caché)
+        assertStatements(get("/api/decks/" + deckId + "/bundle"), 2);
+        // versión (ETag) + tarjeta (permiso en caché)
+        assertStatements(get(cardsUrl + "/" + cardId), 2);
+        // tarjeta + UPDATE (permiso en caché)
+        assertStatements(put(cardsUrl + "/" + cardId).content("""
+                {"front": "c", "back": "d"}
+                """), 2);
+        // recarga del mazo en caché + tarjeta + DELETE
+        assertStatements(delete(cardsUrl + "/" + cardId), 3);
+    }
+
+    private String assertStatements(MockHttpServletRequestBuilder request, long expected) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult result = send(request);
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("%s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+        return result.getResponse().getContentAsString();
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+    }
+}
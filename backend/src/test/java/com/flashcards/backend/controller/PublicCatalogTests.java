@@ -0,0 +1,163 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+import com.flashcards.backend.service.CardService;
+import com.flashcards.backend.service.DeckService;
+import com.flashcards.backend.service.PublicCatalog;
+
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catálogo público servido desde el snapshot en memoria: mismo contenido que
+ * la BD, sin sentencias SQL, y actualizado tras publicar, despublicar o borrar.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class PublicCatalogTests {
+
+    private static final String CATALOG = "/api/decks?onlyPublic=true&size=20";
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("catalog");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private PublicCatalog publicCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String token;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        token = user.token();
+        principal = user.principal();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publicCatalog.requestRebuild();
+    }
+
+    @Test
+    void snapshotMatchesDatabaseAndCostsNoStatements() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Catálogo", null, null, true), principal);
+        awaitCatalog(ids -> ids.contains(deck.id().toString()));
+
+        // Las estadísticas son globales y una reconstrucción en curso también cuenta:
+        // basta con ver una petición sin sentencias (si la petición fuera a la BD, nunca)
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        await(() -> {
+            statistics.clear();
+            catalog(CATALOG);
+            return statistics.getPrepareStatementCount() == 0;
+        });
+        String body = catalog(CATALOG);
+
+        List<String> expected = deckService.getDecks(principal, 0, 20, null, null, true).content().stream()
+                .map(d -> d.id().toString())
+                .toList();
+        assertThat(JsonPath.<List<String>>read(body, "$.content[*].id")).isEqualTo(expected);
+        assertThat(JsonPath.<Integer>read(body, "$.page")).isZero();
+        assertThat(JsonPath.<Integer>read(body, "$.size")).isEqualTo(20);
+
+        // Tamaños no preserializados se recortan del mismo snapshot
+        String small = catalog("/api/decks?onlyPublic=true&page=1&size=7");
+        List<String> expectedSmall = deckService.getDecks(principal, 1, 7, null, null, true).content().stream()
+                .map(d -> d.id().toString())
+                .toList();
+        assertThat(JsonPath.<List<String>>read(small, "$.content[*].id")).isEqualTo(expectedSmall);
+    }
+
+    @Test
+    void snapshotFollowsPublishUnpublishCardsAndDelete() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Borrador", null, null, false), principal);
+        String id = deck.id().toString();
+
+        deckService.updateDeck(deck.id(), new UpdateDeckRequest(null, null, null, true), principal);
+        awaitCatalog(ids -> ids.contains(id));
+
+        cardService.createCard(deck.id(), new CardRequest("a", "b"), principal);
+        awaitCardCount(id, 1);
+
+        deckService.updateDeck(deck.id(), new UpdateDeckRequest(null, null, null, false), principal);
+        awaitCatalog(ids -> !ids.contains(id));
+
+        deckService.updateDeck(deck.id(), new UpdateDeckRequest(null, null, null, true), principal);
+        awaitCatalog(ids -> ids.contains(id));
+
+        deckService.deleteDeck(deck.id(), principal);
+        awaitCatalog(ids -> !ids.contains(id));
+    }
+
+    private void awaitCatalog(Predicate<List<String>> condition) throws Exception {
+        await(() -> condition.test(JsonPath.read(catalog(CATALOG), "$.content[*].id")));
+    }
+
+    private void awaitCardCount(String deckId, int cardCount) throws Exception {
+        await(() -> JsonPath.<List<Integer>>read(catalog(CATALOG), "$.content[?(@.id == '" + deckId + "')].cardCount")
+                .contains(cardCount));
+    }
+
+    // La reconstrucción es asíncrona: esperar a que el snapshot la refleje
+    private void await(CheckedCondition condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.holds()) {
+            assertThat(System.currentTimeMillis()).as("el catálogo no se actualizó a tiempo").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private String catalog(String url) throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    @FunctionalInterface
+    private interface CheckedCondition {
+        boolean holds() throws Exception;
+    }
+}
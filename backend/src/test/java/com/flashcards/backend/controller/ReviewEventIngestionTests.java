@@ -0,0 +1,143 @@
+package com.flashcards.backend.controller;
+
+import com.flashcards.backend.UserFixture;
+
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Eventos de estudio en lotes (ack síncrono): guardados al responder,
+ * reenvíos sin duplicados, validación y permisos, y 503 + Retry-After
+ * cuando el lote no cabe en la cola.
+ */
+@SpringBootTest(properties = "study.events.queue-capacity=5")
+@AutoConfigureMockMvc
+class ReviewEventIngestionTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("events");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String ownerToken;
+    private String otherToken;
+    private String deckId;
+    private String cardId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ownerToken = users.register().token();
+        otherToken = users.register().token();
+
+        deckId = JsonPath.read(send(ownerToken, "/api/decks", """
+                {"title": "Eventos"}
+                """).andReturn().getResponse().getContentAsString(), "$.id");
+        cardId = JsonPath.read(send(ownerToken, "/api/decks/" + deckId + "/cards", """
+                {"front": "a", "back": "b"}
+                """).andReturn().getResponse().getContentAsString(), "$.id");
+    }
+
+    @Test
+    void syncAckMeansEventsAreStoredAndResendsAreIgnored() throws Exception {
+        String body = events(event("FLIP", null), event("ANSWER", 4), event("ANSWER", 1));
+
+        sendEvents(ownerToken, body)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.durable").value(true));
+        assertThat(storedEvents()).isEqualTo(3);
+
+        // Reenvío del mismo lote (ej: tras un timeout del cliente)
+        sendEvents(ownerToken, body).andExpect(status().isOk());
+        assertThat(storedEvents()).isEqualTo(3);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT grade FROM review_events WHERE deck_id = ?::uuid AND event_type = 'ANSWER' ORDER BY grade",
+                Integer.class, deckId)).containsExactly(1, 4);
+        assertThat(meterRegistry.get("study.events.flush").timer().count()).isPositive();
+        assertThat(meterRegistry.get("study.events.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void invalidEventsAndForeignDecksAreRejected() throws Exception {
+        sendEvents(ownerToken, events(event("ANSWER", null))).andExpect(status().isBadRequest());
+        sendEvents(ownerToken, events(event("ANSWER", 7))).andExpect(status().isBadRequest());
+        sendEvents(ownerToken, "{\"events\": []}").andExpect(status().isBadRequest());
+        sendEvents(otherToken, events(event("FLIP", null))).andExpect(status().isNotFound());
+
+        assertThat(storedEvents()).isZero();
+    }
+
+    @Test
+    void batchThatDoesNotFitInTheQueueGets503WithRetryAfter() throws Exception {
+        List<String> six = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            six.add(event("FLIP", null));
+        }
+
+        sendEvents(ownerToken, events(six.toArray(String[]::new)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+
+        assertThat(storedEvents()).isZero();
+        assertThat(meterRegistry.get("study.events.rejected").counter().count()).isGreaterThanOrEqualTo(6);
+    }
+
+    private int storedEvents() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM review_events WHERE deck_id = ?::uuid", Integer.class, deckId);
+    }
+
+    private String event(String type, Integer grade) {
+        return """
+                {"id": "%s", "deckId": "%s", "cardId": "%s", "type": "%s", "grade": %s,
+                 "durationMs": 1200, "occurredAt": "2024-02-10T10:00:00"}
+                """.formatted(UUID.randomUUID(), deckId, cardId, type, grade);
+    }
+
+    private static String events(String... events) {
+        return "{\"events\": [" + String.join(",", events) + "]}";
+    }
+
+    private ResultActions sendEvents(String token, String body) throws Exception {
+        return send(token, "/api/study/events", body);
+    }
+
+    private ResultActions send(String token, String url, String body) throws Exception {
+        return mockMvc.perform(post(url)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
@@ -0,0 +1,371 @@
+package com.flashcards.backend.repository;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regresiones de planes de ejecución de los repositorios
+ *
+ * Siembra un conjunto de datos con forma de producción (decenas de miles de
+ * usuarios y mazos, cientos de miles de tarjetas), llama a cada
+ * método de DeckRepository, CardRepository y UserRepository, captura el SQL
+ * que ejecuta con sus parámetros y lo repite con EXPLAIN (FORMAT JSON).
+ * Falla si algún plan recorre entera una tabla grande (Seq Scan) u ordena
+ * más de MAX_SORTED_ROWS filas. Un método nuevo sin caso aquí también falla.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class QueryPlanRegressionTests {
+
+    private static final int USERS = 20_000;
+    private static final int DECKS = 60_000;
+    private static final int DECKS_WITH_CARDS = 2_000;
+    private static final int CARDS_PER_DECK = 100;
+
+    /** Tablas con más filas que esto no se pueden recorrer enteras; ordenaciones más grandes tampoco */
+    private static final int MAX_SORTED_ROWS = 1_000;
+    private static final int MAX_SEQ_SCAN_ROWS = 1_000;
+
+    private static final ThreadLocal<List<CapturedStatement>> CAPTURE = new ThreadLocal<>();
+
+    @Autowired
+    private DeckRepository deckRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String prefix;
+    private UUID userId;
+    private String email;
+    private String username;
+    private UUID deckId;
+    private UUID cardId;
+    private LocalDateTime deckCursor;
+    private LocalDateTime cardCursor;
+
+    @BeforeAll
+    void seed() {
+        prefix = "plans-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+        jdbcTemplate.update("""
+                INSERT INTO users (email, username, password_hash)
+                SELECT ? || g || '@test.com', ? || g, 'x'
+                FROM generate_series(1, ?) g
+                """, prefix, prefix, USERS);
+
+        // ~3 mazos por usuario, 10 % públicos, 1-3 tags de 40 (más 'idiomas' en un tercio), dos años
+        jdbcTemplate.update("""
+                INSERT INTO decks (user_id, title, tags, is_public, created_at, updated_at)
+                SELECT u.ids[1 + g % array_length(u.ids, 1)],
+                       (ARRAY['Matemáticas', 'Física', 'Química', 'Historia', 'Inglés', 'Programación'])[1 + g % 6]
+                           || ' ' || g,
+                       CASE WHEN g % 3 = 0 THEN ARRAY['tag' || g % 40, 'idiomas']
+                            WHEN g % 3 = 1 THEN ARRAY['tag' || g % 40, 'tag' || (g * 7) % 40]
+                            ELSE ARRAY['tag' || g % 40, 'tag' || (g * 7) % 40, 'tag' || (g * 13) % 40] END,
+                       g % 10 = 0,
+                       TIMESTAMP '2023-01-01' + g * INTERVAL '17 minutes',
+                       TIMESTAMP '2023-01-01' + g * INTERVAL '17 minutes'
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM users WHERE email LIKE ? || '%') u
+                """, DECKS, prefix);
+
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+                SELECT d.id, 'palabra ' || g, 'definición ' || g,
+                       d.created_at + g * INTERVAL '1 second', d.created_at + g * INTERVAL '1 second'
+                FROM (SELECT d.id, d.created_at FROM decks d JOIN users u ON u.id = d.user_id
+                      WHERE u.email LIKE ? || '%' ORDER BY d.id LIMIT ?) d,
+                     generate_series(1, ?) g
+                """, prefix, DECKS_WITH_CARDS, CARDS_PER_DECK);
+
+        // Solo estadísticas al día: nada que bloquee a otros tests o a la aplicación en la misma BD
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE decks");
+        jdbcTemplate.execute("ANALYZE cards");
+
+        email = prefix + "42@test.com";
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", UUID.class, email);
+        username = prefix + "42";
+        deckId = jdbcTemplate.queryForObject(
+                "SELECT deck_id FROM cards c JOIN decks d ON d.id = c.deck_id WHERE d.user_id = ? LIMIT 1",
+                UUID.class, userId);
+        cardId = jdbcTemplate.queryForObject(
+                "SELECT id FROM cards WHERE deck_id = ? ORDER BY created_at OFFSET 50 LIMIT 1", UUID.class, deckId);
+        deckCursor = LocalDateTime.of(2024, 1, 1, 0, 0);
+        cardCursor = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM cards WHERE id = ?", LocalDateTime.class, cardId);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ? || '%'", prefix);
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() throws Exception {
+        Map<String, Runnable> calls = calls();
+
+        Set<String> declared = declaredMethods(DeckRepository.class, CardRepository.class, UserRepository.class);
+        assertThat(calls.keySet()).as("métodos de repositorio sin caso en este test").containsAll(declared);
+
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+            List<CapturedStatement> statements = capture(call.getValue());
+            assertThat(statements).as(call.getKey() + " no ejecutó SQL").isNotEmpty();
+
+            for (CapturedStatement statement : statements) {
+                JsonNode plan = explain(statement);
+                List<String> found = new ArrayList<>();
+                check(plan.get(0).get("Plan"), found);
+                if (!found.isEmpty()) {
+                    problems.add(call.getKey() + ": " + found + "\n    " + statement.sql()
+                            + "\n    " + plan.toPrettyString().replace("\n", "\n    "));
+                }
+            }
+        }
+
+        assertThat(problems).as(String.join("\n\n", problems)).isEmpty();
+    }
+
+    /** Una llamada realista por método de repositorio, con los mismos argumentos que usan los services */
+    private Map<String, Runnable> calls() {
+        PageRequest page = PageRequest.of(0, 20);
+        String[] tags = { "tag7" };
+        String[] popularTags = { "idiomas" };
+        Limit limit = Limit.of(21);
+
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+
+        calls.put("DeckRepository.findByUser_Id/2", () -> deckRepository.findByUser_Id(userId, page));
+        calls.put("DeckRepository.findPublicResponses/1", () -> deckRepository.findPublicResponses(page));
+        calls.put("DeckRepository.findResponsesByUserIdOrPublic/2",
+                () -> deckRepository.findResponsesByUserIdOrPublic(userId, page));
+        calls.put("DeckRepository.searchResponsesByTitle/3",
+                () -> deckRepository.searchResponsesByTitle(userId, "química 12", page));
+        calls.put("DeckRepository.findResponsesByUserIdOrPublicAndTags/3",
+                () -> deckRepository.findResponsesByUserIdOrPublicAndTags(userId, tags, page));
+        calls.put("DeckRepository.findResponsesByUserIdOrPublicAndTags/3 (tag frecuente)",
+                () -> deckRepository.findResponsesByUserIdOrPublicAndTags(userId, popularTags, page));
+        calls.put("DeckRepository.findPublicResponsesAfter/3",
+                () -> deckRepository.findPublicResponsesAfter(deckCursor, UUID.randomUUID(), limit));
+        calls.put("DeckRepository.findResponsesByUserIdOrPublicAfter/4",
+                () -> deckRepository.findResponsesByUserIdOrPublicAfter(userId, deckCursor, UUID.randomUUID(), limit));
+        calls.put("DeckRepository.searchResponsesByTitleAfter/5",
+                () -> deckRepository.searchResponsesByTitleAfter(userId, "química 12", deckCursor, UUID.randomUUID(), 21));
+        calls.put("DeckRepository.findResponsesByUserIdOrPublicAndTagsAfter/5",
+                () -> deckRepository.findResponsesByUserIdOrPublicAndTagsAfter(userId, tags, deckCursor, UUID.randomUUID(), 21));
+        calls.put("DeckRepository.findResponsesByUserIdOrPublicAndTagsAfter/5 (tag frecuente)",
+                () -> deckRepository.findResponsesByUserIdOrPublicAndTagsAfter(userId, popularTags, deckCursor, UUID.randomUUID(), 21));
+        calls.put("DeckRepository.findResponseByIdAndUserIdOrPublic/2",
+                () -> deckRepository.findResponseByIdAndUserIdOrPublic(deckId, userId));
+        calls.put("DeckRepository.findMetadataById/1", () -> deckRepository.findMetadataById(deckId));
+        calls.put("DeckRepository.findVersionByIdAndUserIdOrPublic/2",
+                () -> deckRepository.findVersionByIdAndUserIdOrPublic(deckId, userId));
+        calls.put("DeckRepository.findSnapshotByIdAndUserIdOrPublic/2",
+                () -> deckRepository.findSnapshotByIdAndUserIdOrPublic(deckId, userId));
+        calls.put("DeckRepository.findCardCountById/1", () -> deckRepository.findCardCountById(deckId));
+        calls.put("DeckRepository.existsByIdAndUser_Id/2", () -> deckRepository.existsByIdAndUser_Id(deckId, userId));
+
+        calls.put("CardRepository.findByDeck_Id/2", () -> cardRepository.findByDeck_Id(deckId, page));
+        calls.put("CardRepository.findByDeck_Id/1", () -> cardRepository.findByDeck_Id(deckId));
+        calls.put("CardRepository.findResponsesByDeckIdAfter/4",
+                () -> cardRepository.findResponsesByDeckIdAfter(deckId, cardCursor, cardId, limit));
+        calls.put("CardRepository.countByDeck_Id/1", () -> cardRepository.countByDeck_Id(deckId));
+        calls.put("CardRepository.findByIdAndDeckId/2", () -> cardRepository.findByIdAndDeckId(cardId, deckId));
+        calls.put("CardRepository.existsByIdAndDeck_Id/2", () -> cardRepository.existsByIdAndDeck_Id(cardId, deckId));
+
+        calls.put("UserRepository.findByEmailIgnoreCase/1", () -> userRepository.findByEmailIgnoreCase(email.toUpperCase()));
+        calls.put("UserNaturalIdRepository.findByNaturalId/1", () -> userRepository.findByNaturalId(email));
+        calls.put("UserRepository.findByUsernameIgnoreCase/1",
+                () -> userRepository.findByUsernameIgnoreCase(username.toUpperCase()));
+        calls.put("UserRepository.existsByEmailIgnoreCase/1", () -> userRepository.existsByEmailIgnoreCase(email));
+        calls.put("UserRepository.existsByUsernameIgnoreCase/1", () -> userRepository.existsByUsernameIgnoreCase(username));
+        calls.put("UserRepository.findTokenVersionById/1", () -> userRepository.findTokenVersionById(userId));
+        calls.put("UserRepository.incrementTokenVersion/1", () -> transactionTemplate.executeWithoutResult(status -> {
+            userRepository.incrementTokenVersion(userId);
+            status.setRollbackOnly();
+        }));
+
+        return calls;
+    }
+
+    private static Set<String> declaredMethods(Class<?>... repositories) {
+        return Arrays.stream(repositories)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isSynthetic() && !method.isDefault())
+                        .map(method -> repository.getSimpleName() + "." + method.getName() + "/" + method.getParameterCount()))
+                .collect(Collectors.toSet());
+    }
+
+    private List<CapturedStatement> capture(Runnable call) {
+        List<CapturedStatement> statements = new ArrayList<>();
+        CAPTURE.set(statements);
+        try {
+            call.run();
+        } finally {
+            CAPTURE.remove();
+        }
+        return statements;
+    }
+
+    /** Repite la sentencia capturada con EXPLAIN y los mismos parámetros */
+    private JsonNode explain(CapturedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (ParameterCall parameter : statement.parameters()) {
+                parameter.method().invoke(explain, parameter.args());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return objectMapper.readTree(rs.getString(1));
+            }
+        }
+    }
+
+    /** Seq Scan de tablas grandes y Sort de muchas filas, recorriendo todo el árbol del plan */
+    private void check(JsonNode node, List<String> found) {
+        String type = node.get("Node Type").asString();
+        if (type.equals("Seq Scan")) {
+            String relation = node.get("Relation Name").asString();
+            long rows = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::BIGINT FROM pg_class WHERE relname = ?", Long.class, relation);
+            if (rows > MAX_SEQ_SCAN_ROWS) {
+                found.add("Seq Scan on " + relation + " (" + rows + " filas)");
+            }
+        }
+        if (type.equals("Sort") || type.equals("Incremental Sort")) {
+            long rows = node.get("Plans").get(0).get("Plan Rows").asLong();
+            if (rows > MAX_SORTED_ROWS) {
+                found.add(type + " de " + rows + " filas por " + node.get("Sort Key"));
+            }
+        }
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> check(child, found));
+        }
+    }
+
+    // ========== CAPTURA DE SENTENCIAS ==========
+
+    private record ParameterCall(Method method, Object[] args) { }
+
+    private record CapturedStatement(String sql, List<ParameterCall> parameters) { }
+
+    /**
+     * Envuelve el DataSource: mientras CAPTURE está activo en el hilo, cada
+     * PreparedStatement ejecutado se guarda con sus llamadas set*
+     */
+    @TestConfiguration
+    static class CaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target) {
+                        return proxy(DataSource.class, target, (method, args) -> {
+                            Object result = method.invoke(target, args);
+                            return result instanceof Connection connection ? capturing(connection) : result;
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection capturing(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return capturing(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            List<ParameterCall> parameters = new ArrayList<>();
+            return proxy(PreparedStatement.class, statement, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.add(new ParameterCall(method, args));
+                }
+                if (method.getName().startsWith("execute") && (args == null || args.length == 0)) {
+                    List<CapturedStatement> captured = CAPTURE.get();
+                    if (captured != null) {
+                        captured.add(new CapturedStatement(sql, List.copyOf(parameters)));
+                    }
+                }
+                return method.invoke(statement, args);
+            });
+        }
+
+        private interface Handler {
+            Object handle(Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler handler) {
+            InvocationHandler invocation = (proxy, method, args) -> {
+                try {
+                    return handler.handle(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocation);
+        }
+    }
+}
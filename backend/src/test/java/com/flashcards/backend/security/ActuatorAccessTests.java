@@ -0,0 +1,41 @@
+package com.flashcards.backend.security;
+
+import com.flashcards.backend.UserFixture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /actuator/health es pública; las métricas (colas, réplicas, bulkhead, cachés) piden token.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActuatorAccessTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("actuator");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthIsPublicAndMetricsRequireAToken() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics/bulkhead.rejected")).andExpect(status().isUnauthorized());
+
+        String token = users.register().token();
+
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,58 @@
+package com.flashcards.backend.security;
+
+import com.flashcards.backend.model.User;
+
+import io.jsonwebtoken.Claims;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verificación de tokens con la caché de tokens ya verificados.
+ */
+class JwtTokenProviderTests {
+
+    private static final String SECRET = "miClaveSecretaPorDefectoParaDesarrolloLocalMuyLarga123";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+
+    @Test
+    void repeatedTokenIsServedFromCache() {
+        String token = provider.generateToken(user("jwt@test.com"));
+
+        Claims first = provider.parseClaims(token);
+        assertThat(first.getSubject()).isEqualTo("jwt@test.com");
+        assertThat(provider.parseClaims(token)).isSameAs(first);
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenIfOriginalIsCached() {
+        String token = provider.generateToken(user("jwt@test.com"));
+        provider.parseClaims(token);
+
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        assertThat(provider.parseClaims(tampered)).isNull();
+    }
+
+    @Test
+    void expiredOrForeignTokensAreRejected() {
+        JwtTokenProvider expired = new JwtTokenProvider(SECRET, -1_000, 100);
+        assertThat(provider.parseClaims(expired.generateToken(user("jwt@test.com")))).isNull();
+
+        JwtTokenProvider foreign = new JwtTokenProvider(SECRET + "otra", 60_000, 100);
+        assertThat(provider.parseClaims(foreign.generateToken(user("jwt@test.com")))).isNull();
+        assertThat(provider.parseClaims("no-es-un-jwt")).isNull();
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .username(email.substring(0, email.indexOf('@')))
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.flashcards.backend.security;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.LoginRequest;
+import com.flashcards.backend.service.AuthService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Autenticación sin BD a partir de los claims del token y revocación
+ * por versión de token.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenRevocationTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("revoke");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private TestUser user;
+
+    @BeforeEach
+    void setUp() {
+        user = users.register();
+    }
+
+    @Test
+    void revokedTokensStopWorkingAndNewLoginIsAccepted() throws Exception {
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.id().toString()));
+
+        tokenVersionService.revokeTokens(user.id());
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token()))
+                .andExpect(status().isUnauthorized());
+
+        String newToken = authService.login(new LoginRequest(user.email(), "password123")).token();
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + newToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void tokensOfDeletedUsersAreRejected() throws Exception {
+        // Otra instancia no tendría la versión en memoria: forzar la recarga desde la BD
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", user.email());
+        tokenVersionService.revokeTokens(user.id());
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void legacyTokensWithoutClaimsFallBackToEmailLookup() throws Exception {
+        Date now = new Date();
+        String legacyToken = Jwts.builder()
+                .subject(user.email())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + legacyToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(user.email()));
+    }
+}
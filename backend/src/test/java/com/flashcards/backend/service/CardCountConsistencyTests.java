@@ -0,0 +1,136 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que decks.card_count coincide siempre con COUNT(*) de cards,
+ * por cualquier camino de escritura (servicio, SQL masivo, cascadas).
+ */
+@SpringBootTest
+class CardCountConsistencyTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("count");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String email;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        email = user.email();
+        principal = user.principal();
+    }
+
+    @Test
+    void cardCountFollowsSingleCardCreateAndDelete() {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Conteo", null, null, false), principal);
+        assertThat(deck.cardCount()).isZero();
+
+        CardResponse first = cardService.createCard(deck.id(), new CardRequest("a", "b"), principal);
+        cardService.createCard(deck.id(), new CardRequest("c", "d"), principal);
+        assertThat(deckService.getDeckById(deck.id(), principal).cardCount()).isEqualTo(2);
+
+        cardService.deleteCard(deck.id(), first.id(), principal);
+        assertThat(deckService.getDeckById(deck.id(), principal).cardCount()).isEqualTo(1);
+        assertNoDrift();
+    }
+
+    @Test
+    void cardCountStaysExactUnderConcurrentWriters() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Concurrente", null, null, false), principal);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CardResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 80; i++) {
+                CardRequest request = new CardRequest("front " + i, "back " + i);
+                futures.add(executor.submit(() -> cardService.createCard(deck.id(), request, principal)));
+            }
+
+            List<Future<?>> deletions = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i += 2) {
+                UUID cardId = futures.get(i).get().id();
+                deletions.add(executor.submit(() -> cardService.deleteCard(deck.id(), cardId, principal)));
+            }
+            for (Future<?> deletion : deletions) {
+                deletion.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(deckService.getDeckById(deck.id(), principal).cardCount()).isEqualTo(40);
+        assertNoDrift();
+    }
+
+    @Test
+    void cardCountFollowsBulkStatementsAndCascades() {
+        DeckResponse source = deckService.createDeck(new DeckRequest("Origen", null, null, false), principal);
+        DeckResponse target = deckService.createDeck(new DeckRequest("Destino", null, null, false), principal);
+
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back)
+                SELECT ?, 'f' || g, 'b' || g FROM generate_series(1, 500) g
+                """, source.id());
+        assertThat(deckService.getDeckById(source.id(), principal).cardCount()).isEqualTo(500);
+
+        // Mover tarjetas entre mazos también debe ajustar ambos contadores
+        jdbcTemplate.update("""
+                UPDATE cards SET deck_id = ?
+                WHERE id IN (SELECT id FROM cards WHERE deck_id = ? LIMIT 120)
+                """, target.id(), source.id());
+        assertThat(deckService.getDeckById(source.id(), principal).cardCount()).isEqualTo(380);
+        assertThat(deckService.getDeckById(target.id(), principal).cardCount()).isEqualTo(120);
+
+        jdbcTemplate.update("DELETE FROM cards WHERE deck_id = ? AND front LIKE 'f1%'", source.id());
+        assertNoDrift();
+
+        // El borrado en cascada del mazo no debe fallar ni dejar contadores huérfanos
+        deckService.deleteDeck(source.id(), principal);
+        assertThat(deckService.getDeckById(target.id(), principal).cardCount()).isEqualTo(120);
+        assertNoDrift();
+    }
+
+    private void assertNoDrift() {
+        Integer drifted = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM decks d
+                JOIN users u ON u.id = d.user_id
+                WHERE u.email = ?
+                AND d.card_count <> (SELECT COUNT(*) FROM cards c WHERE c.deck_id = d.id)
+                """, Integer.class, email);
+        assertThat(drifted).isZero();
+    }
+}
@@ -0,0 +1,140 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.CardResponse;
+import com.flashcards.backend.dto.response.CursorPageResponse;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.exception.BadRequestException;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Listado de tarjetas por cursor: recorre el mazo entero sin perder ni repetir
+ * tarjetas (con created_at empatados), total solo bajo petición, y la primera
+ * página de un mazo enorme sale del índice sin ordenar.
+ */
+@SpringBootTest
+class CardCursorPaginationTests {
+
+    private static final int CARDS = 25;
+    private static final int LARGE_DECK = 100_000;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("card-cursor");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        principal = users.register().principal();
+    }
+
+    @Test
+    void cursorWalksEveryCardOnceInCreationOrder() {
+        DeckResponse deck = seedDeck(CARDS, "TIMESTAMP '2020-01-01 10:00' + (g / 10) * INTERVAL '1 minute'");
+
+        List<CardResponse> all = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageResponse<CardResponse> page = cardService.getCardsByCursor(deck.id(), cursor, 7, false, principal);
+            assertThat(page.content().size()).isLessThanOrEqualTo(7);
+            assertThat(page.totalElements()).isNull();
+            all.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(all).hasSize(CARDS);
+        assertThat(all).extracting(CardResponse::id).doesNotHaveDuplicates();
+        assertThat(all).extracting(CardResponse::createdAt).isSorted();
+    }
+
+    @Test
+    void totalIsOptIn() {
+        DeckResponse deck = seedDeck(CARDS, "now()");
+
+        CursorPageResponse<CardResponse> page = cardService.getCardsByCursor(deck.id(), null, 10, true, principal);
+
+        assertThat(page.content()).hasSize(10);
+        assertThat(page.totalElements()).isEqualTo(CARDS);
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        DeckResponse deck = seedDeck(1, "now()");
+
+        assertThatThrownBy(() -> cardService.getCardsByCursor(deck.id(), "no-es-un-cursor", 7, false, principal))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void firstPageOfALargeDeckReadsOnlyThePage() {
+        DeckResponse small = seedDeck(10, "now()");
+        DeckResponse large = seedDeck(LARGE_DECK, "TIMESTAMP '2020-01-01' + g * INTERVAL '1 second'");
+        jdbcTemplate.execute("ANALYZE cards");
+
+        assertThat(cardService.getCardsByCursor(large.id(), null, 20, false, principal).content()).hasSize(20);
+
+        // Misma forma que la query de CardRepository.findResponsesByDeckIdAfter
+        for (DeckResponse deck : List.of(small, large)) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("""
+                    EXPLAIN (ANALYZE, BUFFERS)
+                    SELECT c.id, c.deck_id, c.front, c.back, c.created_at, c.updated_at
+                    FROM cards c
+                    WHERE c.deck_id = ? AND (c.created_at, c.id) > (TIMESTAMP '0001-01-01', '00000000-0000-0000-0000-000000000000'::uuid)
+                    ORDER BY c.created_at, c.id
+                    LIMIT 21
+                    """, String.class, deck.id()));
+
+            assertThat(plan).as(plan).contains("idx_cards_deck_created_at_id").doesNotContain("Sort");
+            assertThat(sharedBuffers(plan)).as(plan).isLessThan(50);
+        }
+    }
+
+    private DeckResponse seedDeck(int cards, String createdAt) {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Cursor", null, null, false), principal);
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+                SELECT ?, 'front ' || g, 'back ' || g, %s, now()
+                FROM generate_series(1, ?) g
+                """.formatted(createdAt), deck.id(), cards);
+        return deck;
+    }
+
+    /** Bloques leídos por el nodo raíz del plan (hit + read) */
+    private int sharedBuffers(String plan) {
+        Matcher matcher = Pattern
+                .compile("Buffers: shared(?: hit=(\\d+))?(?: read=(\\d+))?")
+                .matcher(plan);
+        if (!matcher.find()) {
+            return 0;
+        }
+        int hit = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : 0;
+        int read = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+        return hit + read;
+    }
+}
@@ -0,0 +1,107 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.response.CursorPageResponse;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.exception.BadRequestException;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Recorre el listado de mazos por cursor en todas sus variantes y comprueba
+ * que no se pierden ni repiten mazos, incluso con created_at empatados.
+ */
+@SpringBootTest
+class DeckCursorPaginationTests {
+
+    private static final int DECKS = 25;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("cursor");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal principal;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        TestUser user = users.register();
+        principal = user.principal();
+        UUID userId = user.id();
+
+        // Todos con el mismo created_at para forzar el desempate por id
+        jdbcTemplate.update("""
+                INSERT INTO decks (user_id, title, tags, is_public, created_at, updated_at)
+                SELECT ?, 'Cursor ' || ? || ' ' || g, ARRAY[?], true, TIMESTAMP '2020-01-01 10:00', now()
+                FROM generate_series(1, ?) g
+                """, userId, suffix, "tag-" + suffix, DECKS);
+    }
+
+    @Test
+    void ownAndPublicCursorWalksEveryDeckOnce() {
+        List<DeckResponse> decks = walk(cursor -> deckService.getDecksByCursor(principal, cursor, 7, null, null, null));
+        assertThat(decks).filteredOn(deck -> deck.title().contains(suffix)).hasSize(DECKS);
+    }
+
+    @Test
+    void publicCursorWalksEveryDeckOnce() {
+        List<DeckResponse> decks = walk(cursor -> deckService.getDecksByCursor(principal, cursor, 7, null, null, true));
+        assertThat(decks).filteredOn(deck -> deck.title().contains(suffix)).hasSize(DECKS);
+    }
+
+    @Test
+    void titleSearchCursorWalksEveryDeckOnce() {
+        List<DeckResponse> decks = walk(cursor -> deckService.getDecksByCursor(principal, cursor, 7, suffix, null, null));
+        assertThat(decks).hasSize(DECKS);
+    }
+
+    @Test
+    void tagFilterCursorWalksEveryDeckOnce() {
+        String[] tags = { "tag-" + suffix };
+        List<DeckResponse> decks = walk(cursor -> deckService.getDecksByCursor(principal, cursor, 7, null, tags, null));
+        assertThat(decks).hasSize(DECKS);
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThatThrownBy(() -> deckService.getDecksByCursor(principal, "no-es-un-cursor", 7, null, null, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private List<DeckResponse> walk(Function<String, CursorPageResponse<DeckResponse>> fetch) {
+        List<DeckResponse> all = new ArrayList<>();
+        String cursor = "";
+
+        do {
+            CursorPageResponse<DeckResponse> page = fetch.apply(cursor);
+            assertThat(page.content().size()).isLessThanOrEqualTo(7);
+            all.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(all).extracting(DeckResponse::id).doesNotHaveDuplicates();
+        return all;
+    }
+}
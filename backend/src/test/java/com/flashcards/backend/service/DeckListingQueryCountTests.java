@@ -0,0 +1,108 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.dto.response.PageResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el listado de mazos cuesta un número fijo de sentencias SQL
+ * por página, sin importar cuántos mazos contenga la página.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DeckListingQueryCountTests {
+
+    private static final int DECKS = 60;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("listing");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Las estadísticas de Hibernate son globales: sin reconstrucciones del catálogo en segundo plano
+    @MockitoBean
+    private PublicCatalog publicCatalog;
+
+    private UserPrincipal principal;
+    private String tag;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        tag = "tag-" + suffix;
+        principal = users.register().principal();
+
+        for (int i = 0; i < DECKS; i++) {
+            deckService.createDeck(
+                    new DeckRequest("Listado " + suffix + " " + i, null, new String[] { tag }, true),
+                    principal);
+        }
+    }
+
+    @Test
+    void ownAndPublicListingUsesConstantStatements() {
+        assertConstantStatements(size -> deckService.getDecks(principal, 0, size, null, null, null));
+    }
+
+    @Test
+    void publicListingUsesConstantStatements() {
+        assertConstantStatements(size -> deckService.getDecks(principal, 0, size, null, null, true));
+    }
+
+    @Test
+    void titleSearchUsesConstantStatements() {
+        assertConstantStatements(size -> deckService.getDecks(principal, 0, size, "listado", null, null));
+    }
+
+    @Test
+    void tagFilterUsesConstantStatements() {
+        assertConstantStatements(size -> deckService.getDecks(principal, 0, size, null, new String[] { tag }, null));
+
+        PageResponse<DeckResponse> page = deckService.getDecks(principal, 0, 5, null, new String[] { tag }, null);
+        assertThat(page.totalElements()).isEqualTo(DECKS);
+        assertThat(page.content()).allSatisfy(deck -> assertThat(deck.tags()).containsExactly(tag));
+    }
+
+    private void assertConstantStatements(IntFunction<PageResponse<DeckResponse>> listing) {
+        long small = countStatements(listing, 5);
+        long large = countStatements(listing, 50);
+
+        assertThat(large).isEqualTo(small);
+        // página proyectada + COUNT: el usuario llega ya resuelto en el principal
+        assertThat(large).isLessThanOrEqualTo(2);
+    }
+
+    private long countStatements(IntFunction<PageResponse<DeckResponse>> listing, int size) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageResponse<DeckResponse> page = listing.apply(size);
+
+        assertThat(page.content()).hasSize(size);
+        assertThat(page.content()).allSatisfy(deck -> assertThat(deck.owner().username()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+}
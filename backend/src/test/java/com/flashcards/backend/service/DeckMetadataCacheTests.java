@@ -0,0 +1,99 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.exception.ResourceNotFoundException;
+import com.flashcards.backend.security.UserPrincipal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Permisos de tarjetas resueltos desde DeckMetadataCache: las escrituras
+ * sobre el mazo se ven al instante y se publican métricas de aciertos/fallos.
+ */
+@SpringBootTest
+class DeckMetadataCacheTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("meta");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserPrincipal owner;
+    private UserPrincipal other;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.register().principal();
+        other = users.register().principal();
+    }
+
+    @Test
+    void visibilityChangesApplyImmediately() {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Público", null, null, true), owner);
+        cardService.createCard(deck.id(), new CardRequest("a", "b"), owner);
+
+        assertThat(cardService.getCards(deck.id(), other)).hasSize(1);
+
+        deckService.updateDeck(deck.id(), new UpdateDeckRequest(null, null, null, false), owner);
+        assertThatThrownBy(() -> cardService.getCards(deck.id(), other))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        deckService.updateDeck(deck.id(), new UpdateDeckRequest(null, null, null, true), owner);
+        assertThat(cardService.getCards(deck.id(), other)).hasSize(1);
+    }
+
+    @Test
+    void onlyTheOwnerWritesAndDeletedDecksAreGone() {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Privado", null, null, false), owner);
+
+        assertThatThrownBy(() -> cardService.createCard(deck.id(), new CardRequest("a", "b"), other))
+                .isInstanceOf(AccessDeniedException.class);
+
+        deckService.deleteDeck(deck.id(), owner);
+        assertThatThrownBy(() -> cardService.getCards(deck.id(), owner))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void repeatedReadsAreCacheHits() {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Lecturas", null, null, true), owner);
+        double hitsBefore = gets("hit");
+
+        for (int i = 0; i < 5; i++) {
+            cardService.getCards(deck.id(), other);
+        }
+
+        assertThat(gets("hit") - hitsBefore).isEqualTo(5);
+        assertThat(gets("miss")).isPositive();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "deckMetadata")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.dto.response.PageResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda de mazos por título: insensible a acentos y mayúsculas
+ * y ordenada por similitud.
+ */
+@SpringBootTest
+class DeckTitleSearchTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("search");
+
+    @Autowired
+    private DeckService deckService;
+
+    private UserPrincipal principal;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        principal = users.register().principal();
+
+        deckService.createDeck(new DeckRequest("Matemáticas " + suffix, null, null, false), principal);
+        deckService.createDeck(new DeckRequest("Ejercicios de matemáticas " + suffix + " discretas", null, null, false), principal);
+        deckService.createDeck(new DeckRequest("Física " + suffix, null, null, false), principal);
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        assertThat(titles("matematicas " + suffix)).hasSize(2);
+        assertThat(titles("MATEMÁTICAS " + suffix)).hasSize(2);
+        assertThat(titles("fisica " + suffix)).containsExactly("Física " + suffix);
+    }
+
+    @Test
+    void searchRanksBySimilarityNotRecency() {
+        // El más reciente es "Ejercicios...", pero el título exacto va primero
+        assertThat(titles("matematicas " + suffix))
+                .containsExactly("Matemáticas " + suffix, "Ejercicios de matemáticas " + suffix + " discretas");
+    }
+
+    @Test
+    void cursorSearchUsesTheSameFilter() {
+        assertThat(deckService.getDecksByCursor(principal, "", 10, "matematicas " + suffix, null, null).content())
+                .hasSize(2);
+    }
+
+    private List<String> titles(String search) {
+        PageResponse<DeckResponse> page = deckService.getDecks(principal, 0, 10, search, null, null);
+        return page.content().stream().map(DeckResponse::title).toList();
+    }
+}
@@ -0,0 +1,183 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.UserFixture.TestUser;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.LoginRequest;
+import com.flashcards.backend.dto.request.UpdateDeckRequest;
+import com.flashcards.backend.model.Deck;
+import com.flashcards.backend.model.User;
+import com.flashcards.backend.repository.DeckRepository;
+import com.flashcards.backend.repository.UserRepository;
+import com.flashcards.backend.security.CustomUserDetailsService;
+import com.flashcards.backend.security.TokenVersionService;
+import com.flashcards.backend.security.UserPrincipal;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caché de segundo nivel (perfil l2cache): User y Deck salen de memoria sin
+ * sentencias SQL y nunca se ven antiguos tras registrar, editar, cambiar
+ * tarjetas (triggers) o borrar.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Un contexto más en la caché de tests: que no agote max_connections
+        "spring.datasource.hikari.maximum-pool-size=3" })
+@ActiveProfiles("l2cache")
+class SecondLevelCacheTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("l2");
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeckRepository deckRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Las estadísticas de Hibernate son globales: sin reconstrucciones del catálogo en segundo plano
+    @MockitoBean
+    private PublicCatalog publicCatalog;
+
+    private String email;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        TestUser user = users.register();
+        email = user.email();
+        principal = user.principal();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void registeredUserIsServedFromTheCacheByIdAndByEmail() {
+        assertThat(cache().contains(User.class, principal.id())).isTrue();
+
+        assertThat(statements(() -> userService.getCurrentUser(principal))).isZero();
+        assertThat(statements(() -> userDetailsService.loadUserByUsername(email))).isZero();
+        assertThat(statements(() -> authService.login(new LoginRequest(email, "password123")))).isZero();
+
+        // El UPDATE masivo de la revocación vacía la región: nadie lee la versión antigua
+        tokenVersionService.revokeTokens(principal.id());
+        assertThat(cache().contains(User.class, principal.id())).isFalse();
+        assertThat(statements(() -> userDetailsService.loadUserByUsername(email))).isPositive();
+        assertThat(userRepository.findByEmail(email)).map(User::getTokenVersion).contains(1);
+        assertThat(statements(() -> userService.getCurrentUser(principal))).isZero();
+    }
+
+    @Test
+    void deckEntryNeverOutlivesUpdatesCardChangesOrDelete() {
+        UUID deckId = deckService.createDeck(new DeckRequest("Original", null, null, false), principal).id();
+
+        // Sin los valores por defecto de la BD, lo recién insertado no se queda en caché
+        assertThat(cache().contains(Deck.class, deckId)).isFalse();
+        assertMatchesDatabase(loadDeck(deckId).orElseThrow());
+        assertThat(statements(() -> loadDeck(deckId))).isZero();
+
+        deckService.updateDeck(deckId, new UpdateDeckRequest("Renombrado", null, null, null), principal);
+        assertThat(cache().contains(Deck.class, deckId)).isFalse();
+        Deck renamed = loadDeck(deckId).orElseThrow();
+        assertThat(renamed.getTitle()).isEqualTo("Renombrado");
+        assertMatchesDatabase(renamed);
+
+        // card_count y content_version los cambian triggers de cards
+        cardService.createCards(deckId, IntStream.range(0, 3)
+                .mapToObj(i -> new CardRequest("frente " + i, "reverso " + i))
+                .toList(), principal);
+        Deck withCards = loadDeck(deckId).orElseThrow();
+        assertThat(withCards.getCardCount()).isEqualTo(3);
+        assertMatchesDatabase(withCards);
+
+        deckService.deleteDeck(deckId, principal);
+        assertThat(cache().contains(Deck.class, deckId)).isFalse();
+        assertThat(loadDeck(deckId)).isEmpty();
+    }
+
+    private Optional<Deck> loadDeck(UUID deckId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> deckRepository.findById(deckId));
+    }
+
+    private void assertMatchesDatabase(Deck deck) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT title, card_count, content_version, content_updated_at FROM decks WHERE id = ?", deck.getId());
+        assertThat(List.<Object>of(deck.getTitle(), deck.getCardCount(), deck.getContentVersion(), deck.getContentUpdatedAt()))
+                .containsExactly(
+                        row.get("title"),
+                        row.get("card_count"),
+                        row.get("content_version"),
+                        ((Timestamp) row.get("content_updated_at")).toLocalDateTime());
+    }
+
+    private long statements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        action.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache();
+    }
+}
@@ -0,0 +1,84 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.model.ReviewState;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Planificador SM-2: intervalos 1, 6 e I·EF, variación del factor de
+ * facilidad según la nota, mínimo de 1.3 y reinicio al fallar.
+ */
+class Sm2SchedulerTests {
+
+    private final Sm2Scheduler scheduler = new Sm2Scheduler();
+
+    @Test
+    void correctAnswersGrowTheIntervalOneSixThenByEaseFactor() {
+        ReviewState state = ReviewState.NEW;
+
+        state = scheduler.review(state, 4);
+        assertThat(state).isEqualTo(new ReviewState(1, 1, 2.5, 0));
+
+        state = scheduler.review(state, 4);
+        assertThat(state).isEqualTo(new ReviewState(2, 6, 2.5, 0));
+
+        state = scheduler.review(state, 4);
+        assertThat(state).isEqualTo(new ReviewState(3, 15, 2.5, 0));
+
+        state = scheduler.review(state, 4);
+        assertThat(state.intervalDays()).isEqualTo(38);
+    }
+
+    @Test
+    void easeFactorFollowsTheGrade() {
+        assertThat(scheduler.review(ReviewState.NEW, 5).easeFactor()).isCloseTo(2.6, within(1e-9));
+        assertThat(scheduler.review(ReviewState.NEW, 4).easeFactor()).isCloseTo(2.5, within(1e-9));
+        assertThat(scheduler.review(ReviewState.NEW, 3).easeFactor()).isCloseTo(2.36, within(1e-9));
+        assertThat(scheduler.review(ReviewState.NEW, 0).easeFactor()).isCloseTo(1.7, within(1e-9));
+    }
+
+    @Test
+    void easeFactorNeverDropsBelowMinimum() {
+        ReviewState state = ReviewState.NEW;
+        for (int i = 0; i < 10; i++) {
+            state = scheduler.review(state, 3);
+        }
+
+        assertThat(state.easeFactor()).isEqualTo(Sm2Scheduler.MIN_EASE_FACTOR);
+    }
+
+    @Test
+    void failedAnswerRestartsTheCardAndCountsALapse() {
+        ReviewState learned = new ReviewState(5, 40, 2.3, 1);
+
+        ReviewState failed = scheduler.review(learned, 2);
+
+        assertThat(failed.repetitions()).isZero();
+        assertThat(failed.intervalDays()).isEqualTo(1);
+        assertThat(failed.lapses()).isEqualTo(2);
+        assertThat(failed.easeFactor()).isCloseTo(1.98, within(1e-9));
+
+        // Tras el fallo vuelve a empezar por 1 y 6 días
+        assertThat(scheduler.review(scheduler.review(failed, 4), 4).intervalDays()).isEqualTo(6);
+    }
+
+    @Test
+    void dueAtAddsTheInterval() {
+        LocalDateTime reviewedAt = LocalDateTime.of(2024, 2, 10, 10, 0);
+
+        assertThat(scheduler.dueAt(new ReviewState(2, 6, 2.5, 0), reviewedAt))
+                .isEqualTo(LocalDateTime.of(2024, 2, 16, 10, 0));
+    }
+
+    @Test
+    void gradeOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> scheduler.review(ReviewState.NEW, 6)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scheduler.review(ReviewState.NEW, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
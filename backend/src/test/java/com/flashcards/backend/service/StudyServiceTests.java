@@ -0,0 +1,191 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.ReviewRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.dto.response.DueCardResponse;
+import com.flashcards.backend.dto.response.ReviewResponse;
+import com.flashcards.backend.exception.ResourceNotFoundException;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cola de repaso: las tarjetas nuevas entran en orden y con límite, un
+ * repaso las saca de la cola hasta que vencen, cada usuario lleva su propio
+ * estado, y la cola de un mazo enorme se lee del índice sin recorrer el mazo.
+ */
+@SpringBootTest(properties = "study.new-cards-limit=5")
+class StudyServiceTests {
+
+    private static final int LARGE_DECK = 100_000;
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("study");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private StudyService studyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal principal;
+    private UserPrincipal other;
+
+    @BeforeEach
+    void setUp() {
+        principal = users.register().principal();
+        other = users.register().principal();
+    }
+
+    @Test
+    void newCardsEnterInCreationOrderUpToTheLimit() {
+        DeckResponse deck = seedDeck(principal, false, 12);
+
+        List<DueCardResponse> first = studyService.getDueCards(deck.id(), 20, principal);
+        assertThat(first).hasSize(5).allMatch(DueCardResponse::isNew);
+        assertThat(first).extracting(DueCardResponse::front)
+                .containsExactly("front 1", "front 2", "front 3", "front 4", "front 5");
+
+        // Sin repasar no entran más: vuelven las mismas
+        assertThat(studyService.getDueCards(deck.id(), 20, principal))
+                .extracting(DueCardResponse::cardId)
+                .containsExactlyInAnyOrderElementsOf(first.stream().map(DueCardResponse::cardId).toList());
+
+        // Al repasar dos, entran las dos siguientes
+        review(deck, first.get(0), 4);
+        review(deck, first.get(1), 4);
+        List<DueCardResponse> next = studyService.getDueCards(deck.id(), 20, principal);
+        assertThat(next).hasSize(5);
+        assertThat(next).extracting(DueCardResponse::front).contains("front 6", "front 7")
+                .doesNotContain("front 1", "front 2");
+    }
+
+    @Test
+    void reviewedCardComesBackWhenDue() {
+        DeckResponse deck = seedDeck(principal, false, 1);
+        DueCardResponse card = studyService.getDueCards(deck.id(), 10, principal).getFirst();
+
+        ReviewResponse reviewed = review(deck, card, 5);
+        assertThat(reviewed.repetitions()).isEqualTo(1);
+        assertThat(reviewed.intervalDays()).isEqualTo(1);
+        assertThat(reviewed.dueAt()).isAfter(LocalDateTime.now().plusHours(23));
+        assertThat(studyService.getDueCards(deck.id(), 10, principal)).isEmpty();
+
+        // Pasa el día
+        jdbcTemplate.update("UPDATE card_reviews SET due_at = due_at - INTERVAL '1 day' WHERE card_id = ?", card.cardId());
+        List<DueCardResponse> due = studyService.getDueCards(deck.id(), 10, principal);
+        assertThat(due).hasSize(1);
+        assertThat(due.getFirst().isNew()).isFalse();
+        assertThat(due.getFirst().repetitions()).isEqualTo(1);
+
+        assertThat(review(deck, due.getFirst(), 4).intervalDays()).isEqualTo(6);
+    }
+
+    @Test
+    void cardReviewedBeforeBeingIntroducedIsNotServedAsNew() {
+        DeckResponse deck = seedDeck(principal, false, 3);
+        UUID firstCard = jdbcTemplate.queryForObject(
+                "SELECT id FROM cards WHERE deck_id = ? ORDER BY created_at LIMIT 1", UUID.class, deck.id());
+
+        // Repasada por POST /reviews sin haber salido en la cola: el cursor sigue antes de ella
+        studyService.review(deck.id(), new ReviewRequest(firstCard, 5), principal);
+
+        List<DueCardResponse> due = studyService.getDueCards(deck.id(), 10, principal);
+        assertThat(due).extracting(DueCardResponse::front).containsExactly("front 2", "front 3");
+        assertThat(due).allMatch(DueCardResponse::isNew);
+    }
+
+    @Test
+    void eachUserHasItsOwnQueueOnAPublicDeck() {
+        DeckResponse deck = seedDeck(principal, true, 3);
+
+        for (DueCardResponse card : studyService.getDueCards(deck.id(), 10, principal)) {
+            review(deck, card, 5);
+        }
+
+        assertThat(studyService.getDueCards(deck.id(), 10, principal)).isEmpty();
+        assertThat(studyService.getDueCards(deck.id(), 10, other)).hasSize(3).allMatch(DueCardResponse::isNew);
+    }
+
+    @Test
+    void privateDeckAndForeignCardsAreRejected() {
+        DeckResponse deck = seedDeck(principal, false, 1);
+        DeckResponse otherDeck = seedDeck(principal, false, 1);
+        UUID foreignCard = jdbcTemplate.queryForObject(
+                "SELECT id FROM cards WHERE deck_id = ?", UUID.class, otherDeck.id());
+
+        assertThatThrownBy(() -> studyService.getDueCards(deck.id(), 10, other))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> studyService.review(deck.id(), new ReviewRequest(foreignCard, 4), principal))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void dueQueueOfALargeDeckReadsOnlyTheIndex() {
+        DeckResponse deck = seedDeck(principal, false, LARGE_DECK);
+        // Estadísticas al día antes de insertar: las comprobaciones de FK reutilizan su plan
+        jdbcTemplate.execute("ANALYZE cards");
+
+        // Todo el mazo en estudio, solo 10 tarjetas vencidas
+        jdbcTemplate.update("""
+                INSERT INTO card_reviews (user_id, card_id, deck_id, repetitions, interval_days, due_at, last_reviewed_at)
+                SELECT ?, c.id, c.deck_id, 3, 15,
+                       CASE WHEN row_number() OVER (ORDER BY c.created_at, c.id) <= 10
+                            THEN now() - INTERVAL '1 hour' ELSE now() + INTERVAL '10 days' END,
+                       now() - INTERVAL '15 days'
+                FROM cards c
+                WHERE c.deck_id = ?
+                """, principal.id(), deck.id());
+        jdbcTemplate.execute("ANALYZE card_reviews");
+
+        // Cola llena de vencidas y el tope de nuevas: no se añade nada más
+        assertThat(studyService.getDueCards(deck.id(), 10, principal)).hasSize(10).noneMatch(DueCardResponse::isNew);
+
+        // Misma forma que la query de CardReviewRepository.findDue
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN (ANALYZE, BUFFERS)
+                SELECT c.id, c.front, c.back, r.due_at, r.repetitions, r.interval_days,
+                       CASE WHEN r.last_reviewed_at IS NULL THEN true ELSE false END
+                FROM card_reviews r
+                JOIN cards c ON c.id = r.card_id
+                WHERE r.user_id = ? AND r.deck_id = ? AND r.due_at <= now()
+                ORDER BY r.due_at
+                LIMIT 20
+                """, String.class, principal.id(), deck.id()));
+
+        assertThat(plan).as(plan).contains("idx_card_reviews_user_deck_due").doesNotContain("Seq Scan");
+        assertThat(plan).as(plan).contains("rows=10 loops=1");
+    }
+
+    private ReviewResponse review(DeckResponse deck, DueCardResponse card, int grade) {
+        return studyService.review(deck.id(), new ReviewRequest(card.cardId(), grade), principal);
+    }
+
+    private DeckResponse seedDeck(UserPrincipal owner, boolean isPublic, int cards) {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("Estudio", null, null, isPublic), owner);
+        jdbcTemplate.update("""
+                INSERT INTO cards (deck_id, front, back, created_at, updated_at)
+                SELECT ?, 'front ' || g, 'back ' || g, TIMESTAMP '2020-01-01' + g * INTERVAL '1 second', now()
+                FROM generate_series(1, ?) g
+                """, deck.id(), cards);
+        return deck;
+    }
+}
@@ -0,0 +1,188 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.request.ReviewEventRequest;
+import com.flashcards.backend.dto.request.ReviewEventType;
+import com.flashcards.backend.dto.response.DailyStudyStatsResponse;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.dto.response.StudyStatsResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Estadísticas de estudio: los eventos se suman a los agregados diarios al
+ * escribirlos (sin contar dos veces los reenvíos), rachas con días que llegan
+ * tarde o desordenados, y el dashboard lee solo un rango de días del índice.
+ */
+@SpringBootTest
+class StudyStatsTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("stats");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private ReviewEventService reviewEventService;
+
+    @Autowired
+    private StudyStatsService studyStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal principal;
+    private DeckResponse deck;
+
+    @BeforeEach
+    void setUp() {
+        principal = users.register().principal();
+        deck = deckService.createDeck(new DeckRequest("Estadísticas", null, null, false), principal);
+    }
+
+    @Test
+    void eventsAreFoldedPerDayAndPerDeck() {
+        DeckResponse other = deckService.createDeck(new DeckRequest("Otro", null, null, false), principal);
+        UUID card1 = UUID.randomUUID();
+        UUID card2 = UUID.randomUUID();
+        UUID card3 = UUID.randomUUID();
+
+        List<ReviewEventRequest> batch = List.of(
+                answer(deck.id(), card1, 4, TODAY),
+                answer(deck.id(), card1, 2, TODAY),
+                answer(deck.id(), card2, 5, TODAY),
+                flip(deck.id(), card2, TODAY),
+                answer(other.id(), card3, 1, TODAY));
+        reviewEventService.record(batch, principal);
+        // Reenvío del mismo lote y una respuesta más a una tarjeta ya estudiada hoy
+        reviewEventService.record(batch, principal);
+        reviewEventService.record(List.of(answer(deck.id(), card1, 3, TODAY)), principal);
+
+        StudyStatsResponse all = studyStatsService.getStats(7, TODAY, principal);
+        assertThat(all.deckId()).isNull();
+        assertThat(all.days()).hasSize(7);
+        assertThat(all.days().getLast()).isEqualTo(new DailyStudyStatsResponse(TODAY, 5, 3, 3, 5 * 1_000));
+        assertThat(all.days().getFirst()).isEqualTo(DailyStudyStatsResponse.empty(TODAY.minusDays(6)));
+        assertThat(all.reviews()).isEqualTo(5);
+        assertThat(all.cardsStudied()).isEqualTo(3);
+        assertThat(all.retention()).isCloseTo(0.6, within(1e-9));
+        assertThat(all.totalReviews()).isEqualTo(5);
+
+        StudyStatsResponse perDeck = studyStatsService.getDeckStats(deck.id(), 7, TODAY, principal);
+        assertThat(perDeck.deckId()).isEqualTo(deck.id());
+        assertThat(perDeck.reviews()).isEqualTo(4);
+        assertThat(perDeck.cardsStudied()).isEqualTo(2);
+        assertThat(perDeck.retention()).isCloseTo(0.75, within(1e-9));
+
+        StudyStatsResponse nothing = studyStatsService.getStats(7, TODAY.minusDays(30), principal);
+        assertThat(nothing.reviews()).isZero();
+        assertThat(nothing.retention()).isNull();
+    }
+
+    @Test
+    void streaksFollowLateAndOutOfOrderDays() {
+        UUID card = UUID.randomUUID();
+
+        // Dos días nuevos seguidos en el mismo lote, luego un hueco
+        reviewEventService.record(List.of(
+                answer(deck.id(), card, 4, TODAY.minusDays(4)),
+                answer(deck.id(), card, 4, TODAY.minusDays(3))), principal);
+        reviewEventService.record(List.of(answer(deck.id(), card, 4, TODAY.minusDays(1))), principal);
+        reviewEventService.record(List.of(answer(deck.id(), card, 4, TODAY)), principal);
+
+        StudyStatsResponse stats = studyStatsService.getStats(30, TODAY, principal);
+        assertThat(stats.currentStreak()).isEqualTo(2);
+        assertThat(stats.longestStreak()).isEqualTo(2);
+
+        // El día que faltaba llega tarde (cliente sin conexión) y une las dos rachas
+        reviewEventService.record(List.of(answer(deck.id(), card, 4, TODAY.minusDays(2))), principal);
+        // Un día suelto mucho antes no cambia nada
+        reviewEventService.record(List.of(answer(deck.id(), card, 4, TODAY.minusDays(20))), principal);
+
+        for (StudyStatsResponse s : List.of(
+                studyStatsService.getStats(30, TODAY, principal),
+                studyStatsService.getDeckStats(deck.id(), 30, TODAY, principal))) {
+            assertThat(s.currentStreak()).isEqualTo(5);
+            assertThat(s.longestStreak()).isEqualTo(5);
+        }
+
+        // Si hoy aún no ha estudiado la racha sigue viva; si tampoco ayer, se ha roto
+        assertThat(studyStatsService.getStats(1, TODAY.plusDays(1), principal).currentStreak()).isEqualTo(5);
+        assertThat(studyStatsService.getStats(1, TODAY.plusDays(2), principal).currentStreak()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM study_daily_stats WHERE user_id = ? AND streak IS NULL",
+                Integer.class, principal.id())).isZero();
+    }
+
+    @Test
+    void pendingStreakContinuesFromThePreviousDay() {
+        // 30 días seguidos; los dos últimos escritos pero con la racha sin calcular (falló UPDATE_STREAKS)
+        jdbcTemplate.update("""
+                INSERT INTO study_daily_stats (user_id, deck_id, day, reviews, correct, cards_studied, study_ms, streak)
+                SELECT ?, ?, CAST(? AS DATE) - g, 10, 8, 5, 60000, CASE WHEN g < 2 THEN NULL ELSE 30 - g END
+                FROM generate_series(0, 29) g
+                """, principal.id(), StudyStatsService.ALL_DECKS, TODAY);
+
+        assertThat(studyStatsService.getStats(7, TODAY, principal).currentStreak()).isEqualTo(30);
+        assertThat(studyStatsService.getStats(7, TODAY.minusDays(1), principal).currentStreak()).isEqualTo(29);
+    }
+
+    @Test
+    void dashboardReadsOnlyTheDaysShown() {
+        // Diez años estudiando todos los días
+        jdbcTemplate.update("""
+                INSERT INTO study_daily_stats (user_id, deck_id, day, reviews, correct, cards_studied, study_ms, streak)
+                SELECT ?, ?, CAST(? AS DATE) - g, 200, 150, 100, 600000, 3650 - g
+                FROM generate_series(0, 3649) g
+                """, principal.id(), StudyStatsService.ALL_DECKS, TODAY);
+        jdbcTemplate.update("""
+                INSERT INTO study_totals (user_id, deck_id, reviews, correct, study_ms, longest_streak, first_day, last_day)
+                VALUES (?, ?, 730000, 547500, 0, 3650, CAST(? AS DATE) - 3649, ?)
+                """, principal.id(), StudyStatsService.ALL_DECKS, TODAY, TODAY);
+        jdbcTemplate.execute("ANALYZE study_daily_stats");
+
+        StudyStatsResponse stats = studyStatsService.getStats(30, TODAY, principal);
+        assertThat(stats.reviews()).isEqualTo(30 * 200);
+        assertThat(stats.currentStreak()).isEqualTo(3650);
+        assertThat(stats.totalReviews()).isEqualTo(730_000);
+
+        // Misma forma que la query de StudyStatsService
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN (ANALYZE, BUFFERS)
+                SELECT day, reviews, correct, cards_studied, study_ms, streak
+                FROM study_daily_stats
+                WHERE user_id = ? AND deck_id = ? AND day BETWEEN ? AND ?
+                """, String.class, principal.id(), StudyStatsService.ALL_DECKS, TODAY.minusDays(30), TODAY));
+
+        assertThat(plan).as(plan).contains("study_daily_stats_pkey").contains("rows=31 ");
+        assertThat(plan).as(plan).doesNotContain("review_events");
+    }
+
+    private static ReviewEventRequest answer(UUID deckId, UUID cardId, int grade, LocalDate day) {
+        return new ReviewEventRequest(UUID.randomUUID(), deckId, cardId, ReviewEventType.ANSWER,
+                grade, 1_000, day.atTime(10, 0));
+    }
+
+    private static ReviewEventRequest flip(UUID deckId, UUID cardId, LocalDate day) {
+        return new ReviewEventRequest(UUID.randomUUID(), deckId, cardId, ReviewEventType.FLIP,
+                null, 500, day.atTime(12, 0));
+    }
+}
@@ -0,0 +1,71 @@
+package com.flashcards.backend.service;
+
+import com.flashcards.backend.UserFixture;
+import com.flashcards.backend.dto.request.CardRequest;
+import com.flashcards.backend.dto.request.DeckRequest;
+import com.flashcards.backend.dto.response.DeckResponse;
+import com.flashcards.backend.security.UserPrincipal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claves UUIDv7: las generan igual las entidades JPA y el DEFAULT de la BD
+ * (inserciones por SQL), y crecen con el tiempo.
+ */
+@SpringBootTest
+class UuidV7KeyTests {
+
+    @RegisterExtension
+    final UserFixture users = new UserFixture("uuid7");
+
+    @Autowired
+    private DeckService deckService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        principal = users.register().principal();
+    }
+
+    @Test
+    void entitiesAndSqlInsertsGetTimeOrderedV7Keys() throws Exception {
+        DeckResponse deck = deckService.createDeck(new DeckRequest("UUIDv7", null, null, false), principal);
+        UUID card = cardService.createCard(deck.id(), new CardRequest("jpa", "jpa"), principal).id();
+        Thread.sleep(2);
+        cardService.createCards(deck.id(), List.of(new CardRequest("sql 1", "sql"), new CardRequest("sql 2", "sql")), principal);
+
+        List<UUID> bulk = jdbcTemplate.queryForList(
+                "SELECT id FROM cards WHERE deck_id = ? AND front LIKE 'sql%' ORDER BY created_at", UUID.class, deck.id());
+
+        for (UUID id : List.of(principal.id(), deck.id(), card, bulk.get(0), bulk.get(1))) {
+            assertThat(id.version()).as(id.toString()).isEqualTo(7);
+            assertThat(id.variant()).as(id.toString()).isEqualTo(2);
+        }
+        // Los 48 bits altos son el instante en milisegundos
+        assertThat(millis(card)).isBetween(System.currentTimeMillis() - 60_000, System.currentTimeMillis());
+        assertThat(millis(bulk.get(0))).isGreaterThan(millis(card));
+        assertThat(millis(deck.id())).isGreaterThanOrEqualTo(millis(principal.id()));
+    }
+
+    private static long millis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
@@ -3,16 +3,22 @@ import React, { useState } from 'react';
 interface FlashCardProps {
     front: string;
     back: string;
+    onFlip?: (isFlipped: boolean) => void;
 }
 
-export const FlashCard: React.FC<FlashCardProps> = ({ front, back }) => {
+export const FlashCard: React.FC<FlashCardProps> = ({ front, back, onFlip }) => {
     const [isFlipped, setIsFlipped] = useState(false);
 
+    const handleClick = () => {
+        setIsFlipped(!isFlipped);
+        onFlip?.(!isFlipped);
+    };
+
     return (
         <div
             className="w-full cursor-pointer select-none"
             style={{ perspective: '1000px' }}
-            onClick={() => setIsFlipped(!isFlipped)}
+            onClick={handleClick}
         >
             <div
                 style={{
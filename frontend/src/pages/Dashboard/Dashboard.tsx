@@ -1,27 +1,147 @@
-import React, { useEffect } from 'react';
+import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
+import { studyService } from '@/services/studyService';
+import { Spinner } from '@/components/common/Spinner';
+import { Alert } from '@/components/common/Alert';
+import { Button } from '@/components/common/Button';
+import type { StudyStatsResponse } from '@/types/study.types';
+
+const RANGES = [7, 30, 90];
+
+// Fecha local YYYY-MM-DD: los días de las estadísticas son los del cliente
+const localToday = (): string => {
+    const now = new Date();
+    return new Date(now.getTime() - now.getTimezoneOffset() * 60000).toISOString().slice(0, 10);
+};
+
+const percent = (value: number | null): string =>
+    value === null ? '—' : `${Math.round(value * 100)}%`;
 
 /**
- * Dashboard - Redirige a la lista de mazos
- * 
- * En el futuro, esta página podría mostrar:
- * - Estadísticas de estudio
- * - Mazos recientes
- * - Progreso
+ * Dashboard - Estadísticas de estudio de todos los mazos
+ *
+ * Repasos por día, tarjetas estudiadas, retención y rachas. El servidor las
+ * lee de agregados diarios, así que cargar la página cuesta lo mismo tenga
+ * el usuario cien repasos o un millón.
  */
 export const Dashboard: React.FC = () => {
     const navigate = useNavigate();
 
+    const [days, setDays] = useState(30);
+    const [stats, setStats] = useState<StudyStatsResponse | null>(null);
+    const [isLoading, setIsLoading] = useState(true);
+    const [error, setError] = useState<string | null>(null);
+
     useEffect(() => {
-        // Redirigir automáticamente a /decks
-        navigate('/decks', { replace: true });
-    }, [navigate]);
+        const loadStats = async () => {
+            try {
+                setIsLoading(true);
+                setError(null);
+                setStats(await studyService.getStats(days, localToday()));
+            } catch (err) {
+                console.error('Error al cargar estadísticas:', err);
+                setError('Error al cargar las estadísticas. Inténtalo de nuevo.');
+            } finally {
+                setIsLoading(false);
+            }
+        };
+        loadStats();
+    }, [days]);
+
+    const maxReviews = stats ? Math.max(1, ...stats.days.map(d => d.reviews)) : 1;
+
+    const tiles = stats ? [
+        { label: 'Repasos', value: stats.reviews.toString() },
+        { label: 'Tarjetas estudiadas', value: stats.cardsStudied.toString() },
+        { label: 'Retención', value: percent(stats.retention) },
+        { label: 'Racha actual', value: `${stats.currentStreak} días` },
+        { label: 'Racha más larga', value: `${stats.longestStreak} días` },
+    ] : [];
 
     return (
-        <div className="min-h-screen flex items-center justify-center bg-gray-50">
-            <div className="text-center">
-                <p className="text-gray-600">Redirigiendo...</p>
-            </div>
+        <div className="min-h-screen bg-gray-50">
+            {/* Header */}
+            <header className="bg-white shadow">
+                <div className="max-w-7xl mx-auto px-4 sm:px-6 lg:px-8 py-6">
+                    <div className="flex items-center justify-between">
+                        <div>
+                            <h1 className="text-3xl font-bold text-gray-900">Estadísticas</h1>
+                            <p className="mt-1 text-sm text-gray-600">
+                                Tu progreso de estudio
+                            </p>
+                        </div>
+                        <Button onClick={() => navigate('/decks')} variant="primary">
+                            Mis Mazos
+                        </Button>
+                    </div>
+                </div>
+            </header>
+
+            <main className="max-w-7xl mx-auto px-4 sm:px-6 lg:px-8 py-8">
+                {/* Rango */}
+                <div className="mb-6 flex gap-2">
+                    {RANGES.map(range => (
+                        <Button
+                            key={range}
+                            size="sm"
+                            variant={range === days ? 'primary' : 'secondary'}
+                            onClick={() => setDays(range)}
+                        >
+                            {range} días
+                        </Button>
+                    ))}
+                </div>
+
+                {error && (
+                    <Alert variant="error" onClose={() => setError(null)}>
+                        {error}
+                    </Alert>
+                )}
+
+                {isLoading && (
+                    <div className="flex flex-col items-center justify-center py-12">
+                        <Spinner size="lg" />
+                        <p className="mt-4 text-gray-600">Cargando estadísticas...</p>
+                    </div>
+                )}
+
+                {!isLoading && stats && (
+                    <>
+                        {/* Resumen del rango */}
+                        <div className="grid grid-cols-2 md:grid-cols-5 gap-4 mb-8">
+                            {tiles.map(tile => (
+                                <div key={tile.label} className="bg-white rounded-2xl shadow p-4">
+                                    <p className="text-sm text-gray-600">{tile.label}</p>
+                                    <p className="mt-1 text-2xl font-bold text-gray-900">{tile.value}</p>
+                                </div>
+                            ))}
+                        </div>
+
+                        {/* Repasos por día */}
+                        <div className="bg-white rounded-2xl shadow p-6">
+                            <h2 className="text-lg font-semibold text-gray-900 mb-4">Repasos por día</h2>
+                            <div className="flex items-end gap-1 h-48">
+                                {stats.days.map(day => (
+                                    <div
+                                        key={day.day}
+                                        className="flex-1 bg-primary rounded-t"
+                                        style={{ height: `${(day.reviews / maxReviews) * 100}%` }}
+                                        title={`${day.day}: ${day.reviews} repasos, ${day.cardsStudied} tarjetas, retención ${percent(day.reviews ? day.correct / day.reviews : null)}`}
+                                    />
+                                ))}
+                            </div>
+                            <div className="mt-2 flex justify-between text-xs text-gray-500">
+                                <span>{stats.from}</span>
+                                <span>{stats.to}</span>
+                            </div>
+                        </div>
+
+                        <p className="mt-6 text-sm text-gray-600">
+                            En total: {stats.totalReviews} repasos, retención {percent(stats.totalRetention)}
+                        </p>
+                    </>
+                )}
+            </main>
         </div>
     );
-};
\ No newline at end of file
+};
@@ -18,8 +18,10 @@ export const DeckDetail: React.FC = () => {
     const [deck, setDeck] = useState<DeckResponse | null>(null);
     const [cards, setCards] = useState<CardResponse[]>([]);
     const [isLoading, setIsLoading] = useState(true);
-    const [isLoadingCards, setIsLoadingCards] = useState(false);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
     const [error, setError] = useState<string | null>(null);
+    const [isForking, setIsForking] = useState(false);
 
     useEffect(() => {
         if (id) {
@@ -27,14 +29,15 @@ export const DeckDetail: React.FC = () => {
         }
     }, [id]);
 
+    // Mazo y primera página de tarjetas en una sola petición; el resto con "Cargar más"
     const loadDeck = async (deckId: string) => {
         try {
             setIsLoading(true);
             setError(null);
-            const data = await deckService.getDeckById(deckId);
-            setDeck(data);
-            // Cargar tarjetas después de tener el deck
-            await loadCards(deckId);
+            const bundle = await deckService.getDeckBundle(deckId);
+            setDeck(bundle.deck);
+            setCards(bundle.cards.content);
+            setNextCursor(bundle.cards.nextCursor);
         } catch (err: any) {
             console.error('Error al cargar deck:', err);
             setError(
@@ -46,15 +49,18 @@ export const DeckDetail: React.FC = () => {
         }
     };
 
-    const loadCards = async (deckId: string) => {
+    const loadMoreCards = async () => {
+        if (!id || !nextCursor) return;
+
         try {
-            setIsLoadingCards(true);
-            const data = await cardService.getCards(deckId);
-            setCards(data);
+            setIsLoadingMore(true);
+            const page = await cardService.getCardsPage(id, nextCursor);
+            setCards(prev => [...prev, ...page.content]);
+            setNextCursor(page.nextCursor);
         } catch (err: any) {
-            console.error('Error al cargar tarjetas:', err);
+            console.error('Error al cargar más tarjetas:', err);
         } finally {
-            setIsLoadingCards(false);
+            setIsLoadingMore(false);
         }
     };
 
@@ -93,6 +99,21 @@ export const DeckDetail: React.FC = () => {
         }
     };
 
+    const handleFork = async () => {
+        if (!id) return;
+
+        try {
+            setIsForking(true);
+            const fork = await deckService.forkDeck(id);
+            navigate(`/decks/${fork.id}`);
+        } catch (err) {
+            console.error('Error al copiar deck:', err);
+            alert('Error al copiar el mazo. Inténtalo de nuevo.');
+        } finally {
+            setIsForking(false);
+        }
+    };
+
     // Loading
     if (isLoading) {
         return (
@@ -216,6 +237,20 @@ export const DeckDetail: React.FC = () => {
                                     </Button>
                                 </div>
                             )}
+
+                            {/* Copiar a mis mazos (mazos públicos de otros) */}
+                            {!isOwner && (
+                                <div className="flex items-center gap-2 ml-4">
+                                    <Button
+                                        variant="secondary"
+                                        size="sm"
+                                        onClick={handleFork}
+                                        isLoading={isForking}
+                                    >
+                                        Copiar a mis mazos
+                                    </Button>
+                                </div>
+                            )}
                         </div>
                     </div>
 
@@ -223,7 +258,7 @@ export const DeckDetail: React.FC = () => {
                     <div className="px-6 py-8">
                         <div className="flex items-center justify-between mb-6">
                             <h2 className="text-xl font-semibold text-gray-900">
-                                Tarjetas ({cards.length})
+                                Tarjetas ({deck.cardCount})
                             </h2>
                             <div className="flex items-center gap-2">
                                 {cards.length > 0 && (
@@ -239,11 +274,7 @@ export const DeckDetail: React.FC = () => {
                             </div>
                         </div>
 
-                        {isLoadingCards ? (
-                            <div className="flex justify-center py-8">
-                                <Spinner size="md" />
-                            </div>
-                        ) : cards.length === 0 ? (
+                        {cards.length === 0 ? (
                             // Empty state
                             <div className="text-center py-12 border-2 border-dashed border-gray-300 rounded-lg">
                                 <svg
@@ -287,6 +318,19 @@ export const DeckDetail: React.FC = () => {
                                         onDelete={handleDeleteCard}
                                     />
                                 ))}
+
+                                {nextCursor && (
+                                    <div className="flex justify-center pt-4">
+                                        <Button
+                                            variant="secondary"
+                                            size="sm"
+                                            onClick={loadMoreCards}
+                                            isLoading={isLoadingMore}
+                                        >
+                                            Cargar más
+                                        </Button>
+                                    </div>
+                                )}
                             </div>
                         )}
                     </div>
@@ -100,17 +100,25 @@ export const DeckList: React.FC = () => {
                                 Gestiona tus mazos de flashcards
                             </p>
                         </div>
-                        <Button
-                            onClick={() => navigate('/decks/new')}
-                            variant="primary"
-                        >
-                            <span className="flex items-center gap-2">
-                                <svg className="w-5 h-5" fill="none" stroke="currentColor" viewBox="0 0 24 24">
-                                    <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M12 4v16m8-8H4" />
-                                </svg>
-                                Crear Mazo
-                            </span>
-                        </Button>
+                        <div className="flex gap-2">
+                            <Button
+                                onClick={() => navigate('/')}
+                                variant="secondary"
+                            >
+                                Estadísticas
+                            </Button>
+                            <Button
+                                onClick={() => navigate('/decks/new')}
+                                variant="primary"
+                            >
+                                <span className="flex items-center gap-2">
+                                    <svg className="w-5 h-5" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+                                        <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M12 4v16m8-8H4" />
+                                    </svg>
+                                    Crear Mazo
+                                </span>
+                            </Button>
+                        </div>
                     </div>
                 </div>
             </header>
@@ -1,37 +1,97 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { cardService } from '@/services/cardService';
 import { deckService } from '@/services/deckService';
+import { studyService } from '@/services/studyService';
 import { FlashCard } from '@/components/flashcard/FlashCard';
 import { Button } from '@/components/common/Button';
 import { Spinner } from '@/components/common/Spinner';
 import { Alert } from '@/components/common/Alert';
-import type { CardResponse } from '@/types/card.types';
 import type { DeckResponse } from '@/types/deck.types';
+import type { DueCardResponse, ReviewEvent, ReviewEventType, ReviewGrade } from '@/types/study.types';
+
+// Tarjetas por tanda; al acabarla se pide la siguiente cola al servidor
+const SESSION_SIZE = 20;
+
+// Eventos de estudio que se juntan antes de enviarlos en un lote
+const EVENTS_BATCH_SIZE = 10;
+
+// Hora local sin zona (el servidor la guarda como TIMESTAMP)
+const localIsoNow = (): string => {
+    const now = new Date();
+    return new Date(now.getTime() - now.getTimezoneOffset() * 60000).toISOString().slice(0, -1);
+};
+
+const GRADES: { grade: ReviewGrade; label: string; variant: 'primary' | 'secondary' | 'danger' }[] = [
+    { grade: 1, label: 'Otra vez', variant: 'danger' },
+    { grade: 3, label: 'Difícil', variant: 'secondary' },
+    { grade: 4, label: 'Bien', variant: 'primary' },
+    { grade: 5, label: 'Fácil', variant: 'primary' },
+];
 
 export const StudyMode: React.FC = () => {
     const { deckId } = useParams<{ deckId: string }>();
     const navigate = useNavigate();
 
     const [deck, setDeck] = useState<DeckResponse | null>(null);
-    const [cards, setCards] = useState<CardResponse[]>([]);
+    const [cards, setCards] = useState<DueCardResponse[]>([]);
     const [currentIndex, setCurrentIndex] = useState(0);
+    const [reviewed, setReviewed] = useState(0);
     const [isLoading, setIsLoading] = useState(true);
+    const [isReviewing, setIsReviewing] = useState(false);
     const [error, setError] = useState<string | null>(null);
     const [isFinished, setIsFinished] = useState(false);
 
+    const pendingEvents = useRef<ReviewEvent[]>([]);
+    const cardShownAt = useRef(Date.now());
+
     useEffect(() => {
         if (deckId) {
             loadData(deckId);
         }
     }, [deckId]);
 
+    // Al salir del modo estudio se envía lo que quede pendiente
+    useEffect(() => () => { flushEvents(); }, []);
+
+    useEffect(() => {
+        cardShownAt.current = Date.now();
+    }, [currentIndex, cards]);
+
+    // Si el envío falla (ej: 503) los eventos se quedan para el siguiente lote
+    const flushEvents = async () => {
+        const batch = pendingEvents.current;
+        if (batch.length === 0) return;
+        pendingEvents.current = [];
+        try {
+            await studyService.sendEvents(batch);
+        } catch (err) {
+            console.error('Error al enviar eventos de estudio:', err);
+            pendingEvents.current = [...batch, ...pendingEvents.current];
+        }
+    };
+
+    const recordEvent = (cardId: string, type: ReviewEventType, grade?: ReviewGrade) => {
+        if (!deckId) return;
+        pendingEvents.current.push({
+            id: crypto.randomUUID(),
+            deckId,
+            cardId,
+            type,
+            grade,
+            durationMs: Date.now() - cardShownAt.current,
+            occurredAt: localIsoNow(),
+        });
+        if (pendingEvents.current.length >= EVENTS_BATCH_SIZE) {
+            flushEvents();
+        }
+    };
+
     const loadData = async (id: string) => {
         try {
             setIsLoading(true);
             const [deckData, cardsData] = await Promise.all([
                 deckService.getDeckById(id),
-                cardService.getCards(id),
+                studyService.getDueCards(id, SESSION_SIZE),
             ]);
             setDeck(deckData);
             setCards(cardsData);
@@ -42,25 +102,42 @@ export const StudyMode: React.FC = () => {
         }
     };
 
-    const handleNext = () => {
-        if (currentIndex < cards.length - 1) {
-            setCurrentIndex(prev => prev + 1);
-        } else {
-            setIsFinished(true);
+    const handleGrade = async (grade: ReviewGrade) => {
+        if (!deckId) return;
+        try {
+            setIsReviewing(true);
+            const cardId = cards[currentIndex].cardId;
+            await studyService.review(deckId, { cardId, grade });
+            recordEvent(cardId, 'ANSWER', grade);
+            setReviewed(prev => prev + 1);
+            if (currentIndex < cards.length - 1) {
+                setCurrentIndex(prev => prev + 1);
+            } else {
+                setIsFinished(true);
+                flushEvents();
+            }
+        } catch (err: any) {
+            setError(err.response?.data?.error || 'Error al guardar el repaso.');
+        } finally {
+            setIsReviewing(false);
         }
     };
 
-    const handlePrev = () => {
-        if (currentIndex > 0) {
-            setCurrentIndex(prev => prev - 1);
+    // Siguiente tanda: incluye las falladas que ya vuelven a tocar
+    const handleContinue = async () => {
+        if (!deckId) return;
+        try {
+            setIsLoading(true);
+            setCards(await studyService.getDueCards(deckId, SESSION_SIZE));
+            setCurrentIndex(0);
+            setIsFinished(false);
+        } catch (err: any) {
+            setError(err.response?.data?.error || 'Error al cargar las tarjetas.');
+        } finally {
+            setIsLoading(false);
         }
     };
 
-    const handleRestart = () => {
-        setCurrentIndex(0);
-        setIsFinished(false);
-    };
-
     if (isLoading) {
         return (
             <div className="min-h-screen flex items-center justify-center bg-gray-50">
@@ -86,7 +163,11 @@ export const StudyMode: React.FC = () => {
         return (
             <div className="min-h-screen flex items-center justify-center bg-gray-50 px-4">
                 <div className="text-center">
-                    <p className="text-gray-600 mb-4">Este mazo no tiene tarjetas para estudiar.</p>
+                    <p className="text-gray-600 mb-4">
+                        {reviewed > 0
+                            ? `¡Al día! Repasaste ${reviewed} tarjeta${reviewed !== 1 ? 's' : ''}. No quedan tarjetas pendientes por hoy.`
+                            : 'No hay tarjetas pendientes de repasar en este mazo.'}
+                    </p>
                     <Button onClick={() => navigate(`/decks/${deckId}`)}>Volver al mazo</Button>
                 </div>
             </div>
@@ -129,11 +210,11 @@ export const StudyMode: React.FC = () => {
                         <div className="text-5xl mb-4">🎉</div>
                         <h2 className="text-2xl font-bold text-gray-900 mb-2">¡Sesión completada!</h2>
                         <p className="text-gray-600 mb-8">
-                            Repasaste {cards.length} tarjeta{cards.length !== 1 ? 's' : ''} de "{deck?.title}"
+                            Repasaste {reviewed} tarjeta{reviewed !== 1 ? 's' : ''} de "{deck?.title}"
                         </p>
                         <div className="flex justify-center gap-3">
-                            <Button variant="secondary" onClick={handleRestart}>
-                                Repetir sesión
+                            <Button variant="secondary" onClick={handleContinue}>
+                                Seguir estudiando
                             </Button>
                             <Button onClick={() => navigate(`/decks/${deckId}`)}>
                                 Volver al mazo
@@ -143,24 +224,28 @@ export const StudyMode: React.FC = () => {
                 ) : (
                     <>
                         {/* FlashCard — key fuerza reset del flip al cambiar de tarjeta */}
+                        {currentCard.isNew && (
+                            <p className="text-xs font-medium text-primary mb-2 text-center">Nueva</p>
+                        )}
                         <FlashCard
-                            key={currentCard.id}
+                            key={currentCard.cardId}
                             front={currentCard.front}
                             back={currentCard.back}
+                            onFlip={(isFlipped) => isFlipped && recordEvent(currentCard.cardId, 'FLIP')}
                         />
 
-                        {/* Navegación */}
-                        <div className="flex justify-between items-center mt-8">
-                            <Button
-                                variant="secondary"
-                                onClick={handlePrev}
-                                disabled={currentIndex === 0}
-                            >
-                                Anterior
-                            </Button>
-                            <Button onClick={handleNext}>
-                                {currentIndex === cards.length - 1 ? 'Finalizar' : 'Siguiente'}
-                            </Button>
+                        {/* Nota del repaso: decide cuándo vuelve la tarjeta */}
+                        <div className="grid grid-cols-4 gap-2 mt-8">
+                            {GRADES.map(({ grade, label, variant }) => (
+                                <Button
+                                    key={grade}
+                                    variant={variant}
+                                    onClick={() => handleGrade(grade)}
+                                    disabled={isReviewing}
+                                >
+                                    {label}
+                                </Button>
+                            ))}
                         </div>
                     </>
                 )}
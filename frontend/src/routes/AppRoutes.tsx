@@ -16,7 +16,7 @@ export const AppRoutes: React.FC = () => {
         <Routes>
             {/* ==================== RUTAS PRIVADAS ==================== */}
 
-            {/* Dashboard (redirige a /decks) */}
+            {/* Dashboard (estadísticas de estudio) */}
             <Route
                 path="/"
                 element={
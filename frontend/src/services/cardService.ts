@@ -1,10 +1,34 @@
 import api from './api';
-import type { CardRequest, CardResponse } from '@/types/card.types';
+import type {
+    BulkCardMutationResponse,
+    BulkCardResponse,
+    CardPatch,
+    CardRequest,
+    CardResponse,
+    CursorPageResponse,
+    DuplicateCardGroup,
+} from '@/types/card.types';
 
 export const cardService = {
 
-    async createCard(deckId: string, data: CardRequest): Promise<CardResponse> {
-        const response = await api.post<CardResponse>(`/decks/${deckId}/cards`, data);
+    // dedup: 409 si el mazo ya tiene una tarjeta igual
+    async createCard(deckId: string, data: CardRequest, dedup: boolean = false): Promise<CardResponse> {
+        const response = await api.post<CardResponse>(`/decks/${deckId}/cards`, data, {
+            params: { dedup },
+        });
+        return response.data;
+    },
+
+    // Importación; con dedup se saltan las que ya existen o se repiten
+    async createCards(deckId: string, cards: CardRequest[], dedup: boolean = false): Promise<BulkCardResponse> {
+        const response = await api.post<BulkCardResponse>(`/decks/${deckId}/cards/bulk`, { cards }, {
+            params: { dedup },
+        });
+        return response.data;
+    },
+
+    async getDuplicates(deckId: string): Promise<DuplicateCardGroup[]> {
+        const response = await api.get<DuplicateCardGroup[]>(`/decks/${deckId}/cards/duplicates`);
         return response.data;
     },
 
@@ -13,6 +37,14 @@ export const cardService = {
         return response.data;
     },
 
+    // Página por cursor (orden de creación); cursor vacío = primera página
+    async getCardsPage(deckId: string, cursor: string = '', size: number = 50): Promise<CursorPageResponse<CardResponse>> {
+        const response = await api.get<CursorPageResponse<CardResponse>>(`/decks/${deckId}/cards`, {
+            params: { cursor, size },
+        });
+        return response.data;
+    },
+
     async getCard(deckId: string, cardId: string): Promise<CardResponse> {
         const response = await api.get<CardResponse>(`/decks/${deckId}/cards/${cardId}`);
         return response.data;
@@ -26,4 +58,15 @@ export const cardService = {
     async deleteCard(deckId: string, cardId: string): Promise<void> {
         await api.delete(`/decks/${deckId}/cards/${cardId}`);
     },
+
+    // Edición y borrado masivos: una petición y una transacción, con el resultado de cada tarjeta
+    async updateCards(deckId: string, cards: CardPatch[]): Promise<BulkCardMutationResponse> {
+        const response = await api.patch<BulkCardMutationResponse>(`/decks/${deckId}/cards/bulk`, { cards });
+        return response.data;
+    },
+
+    async deleteCards(deckId: string, ids: string[]): Promise<BulkCardMutationResponse> {
+        const response = await api.delete<BulkCardMutationResponse>(`/decks/${deckId}/cards/bulk`, { data: { ids } });
+        return response.data;
+    },
 };
@@ -3,6 +3,7 @@ import type {
     DeckRequest,
     UpdateDeckRequest,
     DeckResponse,
+    DeckBundleResponse,
     PageResponse,
     DeckFilters,
 } from '@/types/deck.types';
@@ -19,6 +20,14 @@ export const deckService = {
         return response.data;
     },
 
+    // Mazo y primera página de tarjetas en una sola petición
+    async getDeckBundle(id: string, size: number = 50): Promise<DeckBundleResponse> {
+        const response = await api.get<DeckBundleResponse>(`/decks/${id}/bundle`, {
+            params: { size },
+        });
+        return response.data;
+    },
+
     async getDecks(filters: DeckFilters = {}): Promise<PageResponse<DeckResponse>> {
         const params = new URLSearchParams();
 
@@ -49,6 +58,12 @@ export const deckService = {
         return response.data;
     },
 
+    // Copia privada del mazo y sus tarjetas, hecha entera en el servidor
+    async forkDeck(id: string): Promise<DeckResponse> {
+        const response = await api.post<DeckResponse>(`/decks/${id}/fork`);
+        return response.data;
+    },
+
     async deleteDeck(id: string): Promise<void> {
         await api.delete(`/decks/${id}`);
     },
@@ -0,0 +1,38 @@
+import api from './api';
+import type {
+    DueCardResponse,
+    ReviewEvent,
+    ReviewEventsResponse,
+    ReviewRequest,
+    ReviewResponse,
+    StudyStatsResponse,
+} from '@/types/study.types';
+
+export const studyService = {
+
+    // Tarjetas que tocan ahora: vencidas primero y después nuevas
+    async getDueCards(deckId: string, limit: number = 20): Promise<DueCardResponse[]> {
+        const response = await api.get<DueCardResponse[]>(`/decks/${deckId}/study/due`, {
+            params: { limit },
+        });
+        return response.data;
+    },
+
+    async review(deckId: string, data: ReviewRequest): Promise<ReviewResponse> {
+        const response = await api.post<ReviewResponse>(`/decks/${deckId}/study/reviews`, data);
+        return response.data;
+    },
+
+    // Lote de eventos; con 503 el servidor está saturado y el lote se puede reenviar tal cual
+    async sendEvents(events: ReviewEvent[]): Promise<ReviewEventsResponse> {
+        const response = await api.post<ReviewEventsResponse>('/study/events', { events });
+        return response.data;
+    },
+
+    // Estadísticas de los últimos `days` días hasta `to` (día local del cliente)
+    async getStats(days: number, to: string, deckId?: string): Promise<StudyStatsResponse> {
+        const url = deckId ? `/study/stats/decks/${deckId}` : '/study/stats';
+        const response = await api.get<StudyStatsResponse>(url, { params: { days, to } });
+        return response.data;
+    },
+};
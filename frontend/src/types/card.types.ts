@@ -5,6 +5,13 @@ export interface CardRequest {
     back: string;
 }
 
+// Cambio de una tarjeta en una edición masiva; lo que no venga no se cambia
+export interface CardPatch {
+    id: string;
+    front?: string;
+    back?: string;
+}
+
 // ========== RESPONSE TYPES ==========
 
 export interface CardResponse {
@@ -16,6 +23,41 @@ export interface CardResponse {
     updatedAt: string;  // ISO 8601
 }
 
+export interface CursorPageResponse<T> {
+    content: T[];
+    size: number;
+    nextCursor: string | null;  // null = no hay más páginas
+    totalElements?: number;     // Solo con includeTotal=true
+}
+
+export interface BulkCardResponse {
+    created: number;
+    rejected: number;
+    errors: { index: number; errors: Record<string, string> }[];
+    skipped: number;       // Solo con dedup: ya existían en el mazo o repetidas
+    duplicates: number[];  // Posiciones de las saltadas
+}
+
+// Tarjetas con el mismo contenido (sin distinguir mayúsculas ni espacios)
+export interface DuplicateCardGroup {
+    original: CardResponse;      // La más antigua
+    duplicates: CardResponse[];
+}
+
+export type BulkCardOutcome = 'UPDATED' | 'DELETED' | 'NOT_FOUND' | 'INVALID';
+
+export interface BulkCardMutationResponse {
+    applied: number;
+    notFound: number;
+    rejected: number;
+    results: {
+        index: number;
+        id: string | null;
+        outcome: BulkCardOutcome;
+        errors?: Record<string, string>;  // Solo en INVALID
+    }[];
+}
+
 // ========== FORM TYPES ==========
 
 export interface CardFormData {
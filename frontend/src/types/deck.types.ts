@@ -1,3 +1,5 @@
+import type { CardResponse, CursorPageResponse } from './card.types';
+
 // ========== REQUEST TYPES ==========
 
 export interface DeckRequest {
@@ -41,6 +43,12 @@ export interface PageResponse<T> {
     totalPages: number;
 }
 
+// Mazo + primera página de tarjetas (GET /decks/:id/bundle)
+export interface DeckBundleResponse {
+    deck: DeckResponse;
+    cards: CursorPageResponse<CardResponse>;  // Seguir con cardService.getCardsPage(nextCursor)
+}
+
 // ========== FILTER TYPES ==========
 
 export interface DeckFilters {
@@ -0,0 +1,70 @@
+// ========== REQUEST TYPES ==========
+
+// Nota SM-2: 0-2 olvidada, 3 difícil, 4 bien, 5 fácil
+export type ReviewGrade = 0 | 1 | 2 | 3 | 4 | 5;
+
+export interface ReviewRequest {
+    cardId: string;
+    grade: ReviewGrade;
+}
+
+export type ReviewEventType = 'FLIP' | 'ANSWER';
+
+// Evento de estudio; el id lo genera el cliente para poder reenviar sin duplicar
+export interface ReviewEvent {
+    id: string;
+    deckId: string;
+    cardId: string;
+    type: ReviewEventType;
+    grade?: ReviewGrade;   // Obligatoria en ANSWER
+    durationMs?: number;
+    occurredAt: string;    // ISO 8601 en hora local, sin zona
+}
+
+// ========== RESPONSE TYPES ==========
+
+export interface DueCardResponse {
+    cardId: string;
+    front: string;
+    back: string;
+    dueAt: string;         // ISO 8601
+    repetitions: number;
+    intervalDays: number;
+    isNew: boolean;        // Aún no se ha repasado nunca
+}
+
+export interface ReviewResponse {
+    cardId: string;
+    repetitions: number;
+    intervalDays: number;
+    easeFactor: number;
+    lapses: number;
+    dueAt: string;         // ISO 8601, siguiente repaso
+}
+
+export interface ReviewEventsResponse {
+    accepted: number;
+    durable: boolean;      // false = solo encolados en el servidor
+}
+
+export interface DailyStudyStats {
+    day: string;           // YYYY-MM-DD, día local
+    reviews: number;
+    correct: number;       // Nota >= 3
+    cardsStudied: number;
+    studyMs: number;
+}
+
+export interface StudyStatsResponse {
+    deckId: string | null; // null = todos los mazos
+    from: string;
+    to: string;
+    days: DailyStudyStats[]; // Un día por entrada, también los días sin repasos
+    reviews: number;
+    cardsStudied: number;
+    retention: number | null; // 0..1, null sin repasos
+    currentStreak: number;
+    longestStreak: number;
+    totalReviews: number;
+    totalRetention: number | null;
+}